@@ -54,6 +54,18 @@ public abstract class NativeBytes extends AbstractBytes {
     return true;
   }
 
+  /**
+   * Returns the native memory address of the given offset.
+   * <p>
+   * The address is only valid until the bytes are resized or closed.
+   *
+   * @param offset The offset for which to return the address.
+   * @return The native memory address of the given offset.
+   */
+  public long address(long offset) {
+    return memory.address(offset);
+  }
+
   @Override
   public Bytes zero() {
     return zero(0, memory.size());
@@ -18,6 +18,7 @@ package io.atomix.catalyst.transport.local;
 import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.transport.Client;
 import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.TransportMetrics;
 import io.atomix.catalyst.util.Assert;
 import io.atomix.catalyst.concurrent.ComposableFuture;
 import io.atomix.catalyst.concurrent.Futures;
@@ -39,6 +40,7 @@ public class LocalClient implements Client {
   private final UUID id = UUID.randomUUID();
   private final LocalServerRegistry registry;
   private final Set<LocalConnection> connections = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final TransportMetrics metrics = new TransportMetrics();
 
   /**
    * @throws NullPointerException if any argument is null
@@ -63,7 +65,7 @@ public class LocalClient implements Client {
       return Futures.exceptionalFutureAsync(new ConnectException("failed to connect"), context.executor());
     }
 
-    LocalConnection connection = new LocalConnection(context, connections);
+    LocalConnection connection = new LocalConnection(context, connections, metrics);
     connections.add(connection);
 
     CompletableFuture<Connection> future = new CompletableFuture<>();
@@ -77,6 +79,11 @@ public class LocalClient implements Client {
     return future;
   }
 
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
   @Override
   public CompletableFuture<Void> close() {
     ComposableFuture<Void> future = new ComposableFuture<>();
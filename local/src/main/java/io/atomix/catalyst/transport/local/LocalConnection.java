@@ -17,6 +17,7 @@ package io.atomix.catalyst.transport.local;
 
 import io.atomix.catalyst.concurrent.*;
 import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.TransportMetrics;
 import io.atomix.catalyst.util.Assert;
 import io.atomix.catalyst.util.reference.ReferenceCounted;
 
@@ -45,11 +46,21 @@ public class LocalConnection implements Connection {
   private final Map<Class<?>, HandlerHolder> handlers = new ConcurrentHashMap<>();
   private final Listeners<Throwable> exceptionListeners = new Listeners<>();
   private final Listeners<Connection> closeListeners = new Listeners<>();
+  private final TransportMetrics metrics;
   volatile boolean open = true;
 
   public LocalConnection(ThreadContext context, Set<LocalConnection> connections) {
+    this(context, connections, null);
+  }
+
+  /**
+   * @param metrics The parent metrics to which to propagate connection metrics, or {@code null} if the connection
+   *                metrics have no parent.
+   */
+  public LocalConnection(ThreadContext context, Set<LocalConnection> connections, TransportMetrics metrics) {
     this.context = context;
     this.connections = connections;
+    this.metrics = new TransportMetrics(metrics);
   }
 
   /**
@@ -62,7 +73,31 @@ public class LocalConnection implements Connection {
 
   @Override
   public CompletableFuture<Void> send(Object message) {
-    return sendAndReceive(message);
+    if (!open || !connection.open)
+      return Futures.exceptionalFuture(new ConnectException("connection closed"));
+
+    Assert.notNull(message, "message");
+
+    ContextualFuture<Void> future = new ContextualFuture<>(ThreadContext.currentContextOrThrow());
+    this.context.execute(() -> sendMessage(message, future));
+    return future;
+  }
+
+  /**
+   * Sends a one-way message.
+   */
+  private void sendMessage(Object message, ContextualFuture<Void> future) {
+    if (open && connection.open) {
+      metrics.recordMessagesOut(1);
+      connection.handleMessage(message);
+      future.context.executor().execute(() -> future.complete(null));
+    } else {
+      future.context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
+    }
+
+    if (message instanceof ReferenceCounted) {
+      ((ReferenceCounted<?>) message).release();
+    }
   }
 
   @Override
@@ -84,6 +119,8 @@ public class LocalConnection implements Connection {
     if (open && connection.open) {
       long requestId = ++this.requestId;
       futures.put(requestId, future);
+      metrics.recordRequest();
+      metrics.recordMessagesOut(1);
       connection.handleRequest(requestId, request);
     } else {
       future.context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
@@ -101,6 +138,8 @@ public class LocalConnection implements Connection {
   private void handleResponseOk(long requestId, Object response) {
     ContextualFuture future = futures.remove(requestId);
     if (future != null) {
+      metrics.recordMessageIn();
+      metrics.recordResponse(System.nanoTime() - future.time);
       future.context.executor().execute(() -> future.complete(response));
     }
   }
@@ -111,20 +150,49 @@ public class LocalConnection implements Connection {
   private void handleResponseError(long requestId, Throwable error) {
     ContextualFuture future = futures.remove(requestId);
     if (future != null) {
+      metrics.recordMessageIn();
+      metrics.recordFailure();
       future.context.execute(() -> future.completeExceptionally(error));
     }
   }
 
+  /**
+   * Receives a one-way message.
+   */
+  @SuppressWarnings("unchecked")
+  private void handleMessage(Object message) {
+    metrics.recordMessageIn();
+    HandlerHolder holder = handlers.get(message.getClass());
+    if (holder == null) {
+      return;
+    }
+    metrics.recordMessageType(message.getClass());
+
+    Function<Object, CompletableFuture<Object>> handler = (Function<Object, CompletableFuture<Object>>) holder.handler;
+
+    try {
+      holder.context.executor().execute(() -> {
+        if (open && connection.open) {
+          handler.apply(message);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+    }
+  }
+
   /**
    * Receives a message.
    */
   @SuppressWarnings("unchecked")
   private void handleRequest(long requestId, Object request) {
+    metrics.recordMessageIn();
     HandlerHolder holder = handlers.get(request.getClass());
     if (holder == null) {
+      metrics.recordMessagesOut(1);
       connection.handleResponseError(requestId, new ConnectException("no handler registered"));
       return;
     }
+    metrics.recordMessageType(request.getClass());
 
     Function<Object, CompletableFuture<Object>> handler = (Function<Object, CompletableFuture<Object>>) holder.handler;
 
@@ -134,6 +202,7 @@ public class LocalConnection implements Connection {
           CompletableFuture<Object> responseFuture = handler.apply(request);
           if (responseFuture != null) {
             responseFuture.whenComplete((response, error) -> {
+              metrics.recordMessagesOut(1);
               if (!open || !connection.open) {
                 connection.handleResponseError(requestId, new ConnectException("connection closed"));
               } else if (error == null) {
@@ -171,6 +240,11 @@ public class LocalConnection implements Connection {
     return this;
   }
 
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
   @Override
   public Listener<Throwable> onException(Consumer<Throwable> listener) {
     return exceptionListeners.add(Assert.notNull(listener, "listener"));
@@ -199,6 +273,7 @@ public class LocalConnection implements Connection {
 
     for (Map.Entry<Long, ContextualFuture> entry : futures.entrySet()) {
       ContextualFuture future = entry.getValue();
+      metrics.recordFailure();
       try {
         future.context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
       } catch (RejectedExecutionException e) {
@@ -218,6 +293,7 @@ public class LocalConnection implements Connection {
    * Contextual future.
    */
   private static class ContextualFuture<T> extends CompletableFuture<T> {
+    private final long time = System.nanoTime();
     private final ThreadContext context;
 
     private ContextualFuture(ThreadContext context) {
@@ -18,6 +18,7 @@ package io.atomix.catalyst.transport.local;
 import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.transport.Connection;
 import io.atomix.catalyst.transport.Server;
+import io.atomix.catalyst.transport.TransportMetrics;
 import io.atomix.catalyst.util.Assert;
 import io.atomix.catalyst.concurrent.ThreadContext;
 
@@ -37,6 +38,7 @@ public class LocalServer implements Server {
   private final UUID id = UUID.randomUUID();
   private final LocalServerRegistry registry;
   private final Set<LocalConnection> connections = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final TransportMetrics metrics = new TransportMetrics();
   private volatile Address address;
   private volatile ListenerHolder listener;
 
@@ -51,7 +53,7 @@ public class LocalServer implements Server {
    * Connects to the server.
    */
   CompletableFuture<Void> connect(LocalConnection connection) {
-    LocalConnection localConnection = new LocalConnection(listener.context, connections);
+    LocalConnection localConnection = new LocalConnection(listener.context, connections, metrics);
     connections.add(localConnection);
     connection.connect(localConnection);
     localConnection.connect(connection);
@@ -80,6 +82,11 @@ public class LocalServer implements Server {
     return future;
   }
 
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
   @Override
   public synchronized CompletableFuture<Void> close() {
     if (address == null)
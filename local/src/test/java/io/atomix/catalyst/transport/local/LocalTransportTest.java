@@ -85,4 +85,46 @@ public class LocalTransportTest extends ConcurrentTestCase {
     await();
   }
 
+  /**
+   * Tests sending a one-way message.
+   */
+  public void testSend() throws Throwable {
+    LocalServerRegistry registry = new LocalServerRegistry();
+
+    Transport clientTransport = new LocalTransport(registry);
+
+    Transport serverTransport = new LocalTransport(registry);
+
+    Server server = serverTransport.server();
+    Client client = clientTransport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5556)), connection -> {
+          connection.<String, String>handler(String.class, message -> {
+            threadAssertEquals("Hello world!", message);
+            resume();
+            return null;
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await();
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5556))).thenAccept(connection -> {
+          connection.send("Hello world!").thenRun(this::resume);
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(5000, 2);
+  }
+
 }
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.netty.channel.Channel;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server admission control.
+ * <p>
+ * Admission control tracks the number of messages dispatched to each handler {@link ThreadContext} that have
+ * not yet started running. Once the backlog of a context reaches the maximum queue depth, channels that dispatch
+ * to the context stop reading until the backlog has drained to half the maximum depth, pushing back on clients
+ * through TCP flow control. Once the backlog reaches the reject queue depth, requests are rejected without being
+ * deserialized so that overloaded servers spend their time on requests they can still complete in time.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class AdmissionControl {
+  private final int maxQueueDepth;
+  private final int rejectQueueDepth;
+  private final Map<ThreadContext, Backlog> backlogs = new ConcurrentHashMap<>();
+
+  /**
+   * @param maxQueueDepth The backlog at which to stop reading from channels, or {@code 0} to never stop reading.
+   * @param rejectQueueDepth The backlog at which to reject requests, or {@code 0} to never reject requests.
+   */
+  AdmissionControl(int maxQueueDepth, int rejectQueueDepth) {
+    this.maxQueueDepth = maxQueueDepth;
+    this.rejectQueueDepth = rejectQueueDepth;
+  }
+
+  /**
+   * Returns the backlog for the given context.
+   */
+  Backlog backlog(ThreadContext context) {
+    Backlog backlog = backlogs.get(context);
+    if (backlog == null) {
+      backlog = backlogs.computeIfAbsent(context, c -> new Backlog());
+    }
+    return backlog;
+  }
+
+  /**
+   * Backlog of messages dispatched to a single context.
+   */
+  final class Backlog {
+    private final AtomicInteger depth = new AtomicInteger();
+    private final Queue<Channel> paused = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Returns a boolean indicating whether new requests should be rejected.
+     */
+    boolean reject() {
+      return rejectQueueDepth > 0 && depth.get() >= rejectQueueDepth;
+    }
+
+    /**
+     * Records a message dispatched from the given channel, pausing reads on the channel if the backlog is full.
+     * <p>
+     * This method must be called on the channel's event loop before the message is submitted to the context.
+     */
+    void enqueue(Channel channel) {
+      int depth = this.depth.incrementAndGet();
+      if (maxQueueDepth > 0 && depth >= maxQueueDepth && channel.config().isAutoRead()) {
+        channel.config().setAutoRead(false);
+        paused.add(channel);
+      }
+    }
+
+    /**
+     * Records a dispatched message starting to run, resuming reads on paused channels if the backlog has drained.
+     */
+    void dequeue() {
+      int depth = this.depth.decrementAndGet();
+      if (depth <= maxQueueDepth / 2 && !paused.isEmpty()) {
+        Channel channel;
+        while ((channel = paused.poll()) != null) {
+          channel.config().setAutoRead(true);
+        }
+      }
+    }
+  }
+
+}
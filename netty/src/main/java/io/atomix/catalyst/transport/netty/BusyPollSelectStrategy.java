@@ -0,0 +1,71 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.netty.channel.SelectStrategy;
+import io.netty.channel.SelectStrategyFactory;
+import io.netty.util.IntSupplier;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Select strategy that polls for events without blocking for a period of time after the event loop goes idle.
+ * <p>
+ * Busy polling trades CPU for latency: events that arrive shortly after the event loop goes idle are handled
+ * without waking a blocked thread. Once the event loop has been idle for longer than the busy poll time, the
+ * strategy falls back to a blocking select.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class BusyPollSelectStrategy implements SelectStrategy {
+  private final long busyPollNanos;
+  private long lastActive = System.nanoTime();
+
+  BusyPollSelectStrategy(long busyPollNanos) {
+    this.busyPollNanos = busyPollNanos;
+  }
+
+  @Override
+  public int calculateStrategy(IntSupplier selectSupplier, boolean hasTasks) throws Exception {
+    int ready = selectSupplier.get();
+    long now = System.nanoTime();
+    if (ready > 0 || hasTasks) {
+      lastActive = now;
+      return ready;
+    }
+    return now - lastActive < busyPollNanos ? ready : SelectStrategy.SELECT;
+  }
+
+  /**
+   * Busy poll select strategy factory.
+   */
+  static final class Factory implements SelectStrategyFactory {
+    private final long busyPollNanos;
+
+    /**
+     * @param busyPoll The busy poll time in microseconds.
+     */
+    Factory(int busyPoll) {
+      this.busyPollNanos = TimeUnit.MICROSECONDS.toNanos(busyPoll);
+    }
+
+    @Override
+    public SelectStrategy newSelectStrategy() {
+      return new BusyPollSelectStrategy(busyPollNanos);
+    }
+  }
+
+}
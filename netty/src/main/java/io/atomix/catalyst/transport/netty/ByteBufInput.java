@@ -17,9 +17,16 @@ package io.atomix.catalyst.transport.netty;
 
 import io.atomix.catalyst.buffer.Buffer;
 import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.ByteBufferBytes;
 import io.atomix.catalyst.buffer.Bytes;
+import io.atomix.catalyst.buffer.NativeBytes;
+import io.atomix.catalyst.buffer.WrappedBytes;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ReadOnlyBufferException;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -55,19 +62,55 @@ final class ByteBufInput implements BufferInput<ByteBufInput> {
     return this;
   }
 
+  /**
+   * Copies bytes directly from the underlying byte buffer into the given {@link Bytes}.
+   * <p>
+   * Bytes backed by a heap array, a {@link ByteBuffer} or native memory are copied in bulk by Netty without
+   * an intermediate array. Only file bytes, which have no memory to copy to, are written through a temporary array.
+   * The bounds are checked up front since the bulk copies bypass the checks of the bytes themselves.
+   */
+  private void readBytes(Bytes bytes, long offset, int length) {
+    if (offset < 0 || offset > bytes.size())
+      throw new IndexOutOfBoundsException();
+    if (offset + length > bytes.size())
+      throw new BufferOverflowException();
+
+    if (bytes instanceof WrappedBytes) {
+      bytes = ((WrappedBytes) bytes).root();
+    }
+
+    if (bytes instanceof ByteBufferBytes) {
+      ByteBuffer target = ((ByteBufferBytes) bytes).byteBuffer().duplicate();
+      target.limit((int) offset + length).position((int) offset);
+      buffer.readBytes(target);
+    } else if (bytes.hasArray()) {
+      buffer.readBytes(bytes.array(), (int) offset, length);
+    } else if (bytes instanceof NativeBytes) {
+      buffer.readBytes(Unpooled.wrappedBuffer(((NativeBytes) bytes).address(offset), length, false).clear());
+    } else {
+      byte[] b = new byte[length];
+      buffer.readBytes(b);
+      bytes.write(offset, b, 0, length);
+    }
+  }
+
   @Override
   public ByteBufInput read(Buffer buffer) {
-    byte[] bytes = new byte[this.buffer.readableBytes()];
-    this.buffer.readBytes(bytes);
-    buffer.write(bytes);
+    if (buffer.isReadOnly())
+      throw new ReadOnlyBufferException();
+
+    int size = (int) Math.min(buffer.remaining(), this.buffer.readableBytes());
+    long position = buffer.position();
+
+    // Advance the position first to ensure the buffer has the capacity to hold the bytes.
+    buffer.position(position + size);
+    readBytes(buffer.bytes(), buffer.offset() + position, size);
     return this;
   }
 
   @Override
   public ByteBufInput read(Bytes bytes) {
-    byte[] b = new byte[Math.min((int) bytes.size(), buffer.readableBytes())];
-    buffer.readBytes(b);
-    bytes.write(0, b, 0, b.length);
+    readBytes(bytes, 0, (int) Math.min(bytes.size(), buffer.readableBytes()));
     return this;
   }
 
@@ -79,9 +122,7 @@ final class ByteBufInput implements BufferInput<ByteBufInput> {
 
   @Override
   public ByteBufInput read(Bytes bytes, long dstOffset, long length) {
-    byte[] b = new byte[Math.min((int) length, buffer.readableBytes())];
-    buffer.readBytes(b);
-    bytes.write(dstOffset, b, 0, b.length);
+    readBytes(bytes, dstOffset, (int) Math.min(length, buffer.readableBytes()));
     return this;
   }
 
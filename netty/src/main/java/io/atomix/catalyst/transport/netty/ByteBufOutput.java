@@ -17,9 +17,15 @@ package io.atomix.catalyst.transport.netty;
 
 import io.atomix.catalyst.buffer.Buffer;
 import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.buffer.ByteBufferBytes;
 import io.atomix.catalyst.buffer.Bytes;
+import io.atomix.catalyst.buffer.NativeBytes;
+import io.atomix.catalyst.buffer.WrappedBytes;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 
@@ -54,23 +60,52 @@ final class ByteBufOutput implements BufferOutput<ByteBufOutput> {
     }
   }
 
+  /**
+   * Copies bytes directly from the given {@link Bytes} into the underlying byte buffer.
+   * <p>
+   * Bytes backed by a heap array, a {@link ByteBuffer} or native memory are copied in bulk by Netty without
+   * an intermediate array. Only file bytes, which have no memory to copy from, are read through a temporary array.
+   * The bounds are checked up front since the bulk copies bypass the checks of the bytes themselves.
+   */
+  private void writeBytes(Bytes bytes, long offset, int length) {
+    if (offset < 0 || offset > bytes.size())
+      throw new IndexOutOfBoundsException();
+    if (offset + length > bytes.size())
+      throw new BufferUnderflowException();
+
+    if (bytes instanceof WrappedBytes) {
+      bytes = ((WrappedBytes) bytes).root();
+    }
+
+    if (bytes instanceof ByteBufferBytes) {
+      ByteBuffer source = ((ByteBufferBytes) bytes).byteBuffer().duplicate();
+      source.limit((int) offset + length).position((int) offset);
+      buffer.writeBytes(source);
+    } else if (bytes.hasArray()) {
+      buffer.writeBytes(bytes.array(), (int) offset, length);
+    } else if (bytes instanceof NativeBytes) {
+      buffer.writeBytes(Unpooled.wrappedBuffer(((NativeBytes) bytes).address(offset), length, false));
+    } else {
+      byte[] b = new byte[length];
+      bytes.read(offset, b, 0, length);
+      buffer.writeBytes(b);
+    }
+  }
+
   @Override
   public ByteBufOutput write(Buffer buffer) {
-    int size = Math.min((int) buffer.remaining(), this.buffer.writableBytes());
+    int size = (int) Math.min(buffer.remaining(), this.buffer.maxWritableBytes());
     checkWrite(size);
-    byte[] bytes = new byte[size];
-    buffer.read(bytes);
-    this.buffer.writeBytes(bytes);
+    writeBytes(buffer.bytes(), buffer.offset() + buffer.position(), size);
+    buffer.skip(size);
     return this;
   }
 
   @Override
   public ByteBufOutput write(Bytes bytes) {
-    int size = Math.min((int) bytes.size(), buffer.writableBytes());
+    int size = (int) bytes.size();
     checkWrite(size);
-    byte[] b = new byte[size];
-    bytes.read(0, b, 0, b.length);
-    buffer.writeBytes(b);
+    writeBytes(bytes, 0, size);
     return this;
   }
 
@@ -83,11 +118,9 @@ final class ByteBufOutput implements BufferOutput<ByteBufOutput> {
 
   @Override
   public ByteBufOutput write(Bytes bytes, long offset, long length) {
-    int size = Math.min((int) bytes.size(), (int) length);
+    int size = (int) Math.min(bytes.size(), length);
     checkWrite(size);
-    byte[] b = new byte[size];
-    bytes.read(offset, b, 0, b.length);
-    buffer.writeBytes(b);
+    writeBytes(bytes, offset, size);
     return this;
   }
 
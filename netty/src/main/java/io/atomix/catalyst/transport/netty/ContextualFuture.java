@@ -0,0 +1,44 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.concurrent.ThreadContext;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Contextual future.
+ * <p>
+ * In addition to the context on which the future is completed, the future carries the state used to track it
+ * in a {@link RequestTable}. The table links futures directly into its timer buckets, so tracking a request
+ * does not require any allocation beyond the future itself.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class ContextualFuture<T> extends CompletableFuture<T> {
+  final long time;
+  final ThreadContext context;
+  long requestId;
+  long deadline;
+  ContextualFuture<?> next;
+  ContextualFuture<?> prev;
+
+  ContextualFuture(long time, ThreadContext context) {
+    this.time = time;
+    this.context = context;
+  }
+
+}
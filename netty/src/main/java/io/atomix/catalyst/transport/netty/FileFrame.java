@@ -0,0 +1,106 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.FileRegion;
+import io.netty.handler.codec.MessageToMessageEncoder;
+import io.netty.util.ReferenceCounted;
+
+import java.util.List;
+
+/**
+ * Frame whose body is a region of a file.
+ * <p>
+ * File frames are written to the channel without copying the file into memory. The frame's {@link Encoder} must
+ * be placed between the length field prepender and the head of the pipeline, since the prepender only frames
+ * {@link ByteBuf}s and would otherwise frame the file frame's header on its own.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class FileFrame implements ReferenceCounted {
+  private final ByteBuf header;
+  private final FileRegion region;
+
+  FileFrame(ByteBuf header, FileRegion region) {
+    this.header = header;
+    this.region = region;
+  }
+
+  /**
+   * Returns the length of the frame, excluding the length field.
+   */
+  long length() {
+    return header.readableBytes() + region.count();
+  }
+
+  @Override
+  public int refCnt() {
+    return header.refCnt();
+  }
+
+  @Override
+  public FileFrame retain() {
+    header.retain();
+    region.retain();
+    return this;
+  }
+
+  @Override
+  public FileFrame retain(int increment) {
+    header.retain(increment);
+    region.retain(increment);
+    return this;
+  }
+
+  @Override
+  public FileFrame touch() {
+    return this;
+  }
+
+  @Override
+  public FileFrame touch(Object hint) {
+    return this;
+  }
+
+  @Override
+  public boolean release() {
+    region.release();
+    return header.release();
+  }
+
+  @Override
+  public boolean release(int decrement) {
+    region.release(decrement);
+    return header.release(decrement);
+  }
+
+  /**
+   * Encodes file frames as a length field, the header and the file region.
+   */
+  @ChannelHandler.Sharable
+  static final class Encoder extends MessageToMessageEncoder<FileFrame> {
+    @Override
+    protected void encode(ChannelHandlerContext context, FileFrame frame, List<Object> out) throws Exception {
+      out.add(context.alloc().buffer(4).writeInt((int) frame.length()));
+      out.add(frame.header.retain());
+      out.add(frame.region.retain());
+    }
+  }
+
+}
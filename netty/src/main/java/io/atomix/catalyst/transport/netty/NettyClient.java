@@ -20,20 +20,25 @@ import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.transport.Client;
 import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.TransportMetrics;
 import io.atomix.catalyst.util.Assert;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
-import io.netty.handler.ssl.SslHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.net.SocketAddress;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -46,9 +51,12 @@ public class NettyClient implements Client {
   private static final Logger LOGGER = LoggerFactory.getLogger(NettyClient.class);
   private static final ByteBufAllocator ALLOCATOR = new PooledByteBufAllocator(true);
   private static final ChannelHandler FIELD_PREPENDER = new LengthFieldPrepender(4);
+  private static final ChannelHandler FILE_FRAME_ENCODER = new FileFrame.Encoder();
 
   private final NettyTransport transport;
   private final Map<Channel, NettyConnection> connections = new ConcurrentHashMap<>();
+  private final Set<PooledConnection> pools = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final TransportMetrics metrics = new TransportMetrics();
 
   /**
    * @throws NullPointerException if {@code id} or {@code eventLoopGroup} are null 
@@ -61,30 +69,59 @@ public class NettyClient implements Client {
   public CompletableFuture<Connection> connect(Address address) {
     Assert.notNull(address, "address");
     ThreadContext context = ThreadContext.currentContextOrThrow();
+    return open(address, metrics, context);
+  }
+
+  /**
+   * Opens a pooled or single connection to the given address, depending on the configured pool size.
+   * <p>
+   * Each call opens a new pool so that closing a connection and registering handlers on it only affect the caller
+   * that opened it.
+   */
+  private CompletableFuture<Connection> open(Address address, TransportMetrics metrics, ThreadContext context) {
+    if (transport.properties().poolSize() > 0) {
+      PooledConnection pool = new PooledConnection(this, address, context, transport.properties(), metrics);
+      pools.add(pool);
+      ComposableFuture<Connection> future = new ComposableFuture<>();
+      pool.open().whenCompleteAsync(future, context.executor());
+      return future;
+    }
+    return connect(address, metrics, context);
+  }
+
+  /**
+   * Opens a new connection to the given address.
+   *
+   * @param address The address to which to connect.
+   * @param metrics The metrics to which to propagate the connection metrics.
+   * @param context The context on which to complete the returned future and notify listeners.
+   * @return A future to be completed once the connection has been established.
+   */
+  CompletableFuture<Connection> connect(Address address, TransportMetrics metrics, ThreadContext context) {
     CompletableFuture<Connection> future = new ComposableFuture<>();
 
     LOGGER.info("Connecting to {}", address);
 
     Bootstrap bootstrap = new Bootstrap();
     bootstrap.group(transport.eventLoopGroup())
-      .channel(NioSocketChannel.class)
-      .handler(new ChannelInitializer<SocketChannel>() {
+      .handler(new ChannelInitializer<Channel>() {
         @Override
-        protected void initChannel(SocketChannel channel) throws Exception {
+        protected void initChannel(Channel channel) throws Exception {
           ChannelPipeline pipeline = channel.pipeline();
           if (transport.properties().sslEnabled()) {
-            pipeline.addFirst(new SslHandler(new NettyTls(transport.properties()).initSslEngine(true)));
+            pipeline.addFirst(transport.tls().newClientHandler(channel.alloc(), address));
+          } else {
+            pipeline.addLast(FILE_FRAME_ENCODER);
           }
           pipeline.addLast(FIELD_PREPENDER);
           pipeline.addLast(new LengthFieldBasedFrameDecoder(transport.properties().maxFrameSize(), 0, 4, 0, 4));
-          pipeline.addLast(new NettyHandler(connections, future::complete, context, transport.properties()));
+          pipeline.addLast(new NettyHandler(connections, future::complete, context, transport, metrics));
         }
       });
 
-    bootstrap.option(ChannelOption.TCP_NODELAY, transport.properties().tcpNoDelay());
-    bootstrap.option(ChannelOption.SO_KEEPALIVE, transport.properties().tcpKeepAlive());
     bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, transport.properties().connectTimeout());
     bootstrap.option(ChannelOption.ALLOCATOR, ALLOCATOR);
+    bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(transport.properties().writeBufferLowWaterMark(), transport.properties().writeBufferHighWaterMark()));
 
     if (transport.properties().sendBufferSize() != -1) {
       bootstrap.option(ChannelOption.SO_SNDBUF, transport.properties().sendBufferSize());
@@ -93,19 +130,74 @@ public class NettyClient implements Client {
       bootstrap.option(ChannelOption.SO_RCVBUF, transport.properties().receiveBufferSize());
     }
 
-    bootstrap.connect(address.socketAddress()).addListener(channelFuture -> {
+    // Resolve the address off the calling thread since the first resolution of a host may block on DNS.
+    address.resolve().whenComplete((socketAddress, error) -> {
+      if (error != null) {
+        context.execute(() -> future.completeExceptionally(error));
+        return;
+      }
+
+      // Connect to servers on the same host through their domain socket to bypass the TCP stack.
+      DomainSocketAddress domainSocketAddress = transport.domainSocketAddress(socketAddress);
+      if (domainSocketAddress != null) {
+        bootstrap.clone()
+          .channel(EpollDomainSocketChannel.class)
+          .connect(domainSocketAddress).addListener(channelFuture -> {
+            if (channelFuture.isSuccess()) {
+              LOGGER.info("Connected to {} at {}", address, domainSocketAddress);
+            } else {
+              // The domain socket may be left over from a server that has since stopped, so fall back to TCP.
+              LOGGER.debug("Failed to connect to {} at {}, falling back to TCP", address, domainSocketAddress, channelFuture.cause());
+              connect(bootstrap, address, socketAddress, future, context);
+            }
+          });
+      } else {
+        connect(bootstrap, address, socketAddress, future, context);
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Connects the given bootstrap to the given address over TCP.
+   */
+  private void connect(Bootstrap bootstrap, Address address, SocketAddress socketAddress, CompletableFuture<Connection> future, ThreadContext context) {
+    bootstrap.channel(transport.channelClass());
+    bootstrap.option(ChannelOption.TCP_NODELAY, transport.properties().tcpNoDelay());
+    bootstrap.option(ChannelOption.SO_KEEPALIVE, transport.properties().tcpKeepAlive());
+    if (transport.isEpoll()) {
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED);
+      bootstrap.option(EpollChannelOption.TCP_QUICKACK, transport.properties().tcpQuickAck());
+    }
+
+    bootstrap.connect(socketAddress).addListener(channelFuture -> {
       if (channelFuture.isSuccess()) {
-        LOGGER.info("Connected to {}", address);
+        LOGGER.info("Connected to {} at {}", address, socketAddress);
       } else {
         context.execute(() -> future.completeExceptionally(channelFuture.cause()));
       }
     });
-    return future;
+  }
+
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
+  /**
+   * Removes the given connection pool.
+   */
+  void removePool(PooledConnection pool) {
+    pools.remove(pool);
   }
 
   @Override
   public CompletableFuture<Void> close() {
     ThreadContext.currentContextOrThrow();
+    for (PooledConnection pool : pools) {
+      pool.close();
+    }
+
     int i = 0;
     CompletableFuture<?>[] futures = new CompletableFuture[connections.size()];
     for (Connection connection : connections.values()) {
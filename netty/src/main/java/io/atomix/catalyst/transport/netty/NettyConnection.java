@@ -15,26 +15,52 @@
  */
 package io.atomix.catalyst.transport.netty;
 
+import io.atomix.catalyst.buffer.Buffer;
+import io.atomix.catalyst.buffer.ByteBufferBuffer;
+import io.atomix.catalyst.buffer.ByteBufferBytes;
+import io.atomix.catalyst.buffer.FileBuffer;
+import io.atomix.catalyst.concurrent.Futures;
 import io.atomix.catalyst.concurrent.Listener;
 import io.atomix.catalyst.concurrent.Listeners;
-import io.atomix.catalyst.concurrent.Scheduled;
 import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.catalyst.serializer.SerializationException;
 import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.Deadline;
+import io.atomix.catalyst.transport.Priority;
+import io.atomix.catalyst.transport.StreamListener;
+import io.atomix.catalyst.transport.TransportException;
+import io.atomix.catalyst.transport.TransportMetrics;
 import io.atomix.catalyst.util.Assert;
 import io.atomix.catalyst.util.reference.ReferenceCounted;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.util.ReferenceCountUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.ConnectException;
-import java.time.Duration;
-import java.util.Iterator;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -44,10 +70,20 @@ import java.util.function.Function;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class NettyConnection implements Connection {
+  private static final Logger LOGGER = LoggerFactory.getLogger(NettyConnection.class);
   static final byte REQUEST = 0x01;
   static final byte RESPONSE = 0x02;
   static final byte SUCCESS = 0x03;
   static final byte FAILURE = 0x04;
+  static final byte MESSAGE = 0x05;
+  static final byte BATCH = 0x06;
+  static final byte DEADLINE_REQUEST = 0x07;
+  static final byte STREAM_OPEN = 0x08;
+  static final byte STREAM_CHUNK = 0x09;
+  static final byte STREAM_END = 0x0A;
+  static final byte STREAM_ACK = 0x0B;
+  static final byte PRIORITY = 0x0C;
+  static final byte FRAGMENT = 0x0D;
   private static final ThreadLocal<ByteBufInput> INPUT = new ThreadLocal<ByteBufInput>() {
     @Override
     protected ByteBufInput initialValue() {
@@ -64,92 +100,509 @@ public class NettyConnection implements Connection {
   private final Channel channel;
   private final ThreadContext context;
   private final Map<Class, HandlerHolder> handlers = new ConcurrentHashMap<>();
+  private final Map<Class, StreamHandlerHolder> streamHandlers = new ConcurrentHashMap<>();
+  private final Map<Long, OutboundStream> outboundStreams = new ConcurrentHashMap<>();
+  private final Map<Long, InboundStream> inboundStreams = new ConcurrentHashMap<>();
+  private final AtomicLong streamId = new AtomicLong();
+  private final ReadBatch reads = new ReadBatch();
   private final Listeners<Throwable> exceptionListeners = new Listeners<>();
   private final Listeners<Connection> closeListeners = new Listeners<>();
+  private final TransportMetrics metrics;
+  private final AdmissionControl admission;
   private final long requestTimeout;
-  private volatile long requestId;
+  private final RttEstimator rtt;
+  private final int maxInFlight;
+  private final boolean propagateDeadlines;
+  private final boolean oneWayMessages;
+  private final boolean priorityLanes;
+  private final Map<Class<?>, Priority> priorities;
+  private final int maxFrameSize;
+  private final int streamChunkSize;
+  private final int streamWindow;
+  private final boolean fileRegions;
+  private final Queue<ContextualFuture<Void>> writableFutures = new ConcurrentLinkedQueue<>();
+  private volatile int inFlight;
+  private final long flushDelay;
+  private final long flushThreshold;
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final AtomicBoolean flushForced = new AtomicBoolean();
+  private final AtomicLong flushBytes = new AtomicLong();
+  private final Runnable flushTask = this::flush;
+  private long requestId;
   private volatile Throwable failure;
   private volatile boolean closed;
-  private Scheduled timeout;
-  private final Map<Long, ContextualFuture> responseFutures = new ConcurrentSkipListMap<>();
+  private final ScheduledFuture<?> timeout;
+  private final RequestTable requests;
   private ChannelFuture writeFuture;
+  private Queue<ByteBuf> pending = new ArrayDeque<>();
+  private ByteBuf fragmenting;
+  private ChannelPromise fragmentingPromise;
+  private final Queue<DeferredWrite> deferredWrites = new ArrayDeque<>();
+  private CompositeByteBuf fragments;
 
   /**
    * @throws NullPointerException if any argument is null
    */
   public NettyConnection(Channel channel, ThreadContext context, NettyOptions options) {
+    this(channel, context, options, null);
+  }
+
+  /**
+   * @param metrics The parent metrics to which to propagate connection metrics, or {@code null} if the connection
+   *                metrics have no parent.
+   * @throws NullPointerException if {@code channel}, {@code context} or {@code options} is null
+   */
+  public NettyConnection(Channel channel, ThreadContext context, NettyOptions options, TransportMetrics metrics) {
+    this(channel, context, options, metrics, null);
+  }
+
+  /**
+   * @param admission The server admission control, or {@code null} if messages are always admitted.
+   */
+  NettyConnection(Channel channel, ThreadContext context, NettyOptions options, TransportMetrics metrics, AdmissionControl admission) {
     this.channel = channel;
     this.context = context;
+    this.metrics = new TransportMetrics(metrics);
+    this.admission = admission;
     this.requestTimeout = options.requestTimeout();
-    this.timeout = context.schedule(Duration.ofMillis(requestTimeout / 2), Duration.ofMillis(requestTimeout / 2), this::timeout);
+    this.rtt = options.adaptiveTimeouts() ? new RttEstimator(requestTimeout, options.minRequestTimeout(), options.maxRequestTimeout()) : null;
+    this.maxInFlight = options.maxInFlight();
+    this.propagateDeadlines = options.propagateDeadlines();
+    this.oneWayMessages = options.oneWayMessages();
+    this.priorityLanes = options.priorityLanes();
+    this.priorities = options.priorities();
+    this.maxFrameSize = options.maxFrameSize();
+    this.streamChunkSize = options.streamChunkSize();
+    this.streamWindow = options.streamWindow();
+    this.fileRegions = !options.sslEnabled();
+    this.flushDelay = options.flushDelay();
+    this.flushThreshold = options.flushThreshold();
+    long tickTime = Math.max((rtt != null ? options.minRequestTimeout() : requestTimeout) / 10, 1);
+    this.requests = new RequestTable(tickTime, System.currentTimeMillis());
+    this.timeout = channel.eventLoop().scheduleAtFixedRate(this::timeout, tickTime, tickTime, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Defers a frame received before the connection has been accepted.
+   * <p>
+   * This method must be called on the event loop.
+   *
+   * @param frame The frame to defer.
+   * @return Indicates whether the frame was deferred. If {@code false}, the connection has already been accepted
+   *         and the frame should be handled immediately.
+   */
+  boolean defer(ByteBuf frame) {
+    if (pending == null) {
+      return false;
+    }
+    pending.add(frame);
+    return true;
+  }
+
+  /**
+   * Marks the connection accepted, returning the frames that were deferred until it was accepted.
+   * <p>
+   * This method must be called on the event loop.
+   *
+   * @return The deferred frames in the order in which they were received, or {@code null} if the connection
+   *         was already accepted or closed.
+   */
+  Queue<ByteBuf> accept() {
+    Queue<ByteBuf> frames = pending;
+    pending = null;
+    return frames;
   }
 
   /**
    * Handles a request.
    */
-  void handleRequest(ByteBuf buffer) {
+  void handleRequest(ByteBuf buffer, boolean high) {
+    handleRequest(buffer, null, false, high);
+  }
+
+  /**
+   * Handles a request with a deadline.
+   * <p>
+   * The request header carries the time remaining until the sender times out the request, which is converted
+   * to a local deadline on receipt so that the deadline does not depend on synchronized clocks.
+   */
+  void handleDeadlineRequest(ByteBuf buffer, boolean high) {
+    handleRequest(buffer, null, true, high);
+  }
+
+  /**
+   * Handles a request, responding as part of the given batch if the batch is non-null.
+   * <p>
+   * The handler is selected by the serialized type of the request, and the request is deserialized on the
+   * handler's context. Requests for unknown types are rejected without being deserialized. Responses to high
+   * priority requests are sent with high priority.
+   * <p>
+   * Requests serialized as an abstract type are deserialized on the context of a handler for a subtype of it,
+   * and the handler is then selected by the class of the request.
+   */
+  private void handleRequest(ByteBuf buffer, BatchResponse batch, boolean hasDeadline, boolean high) {
+    metrics.recordMessageIn();
     long requestId = buffer.readLong();
+    long deadline = hasDeadline ? System.currentTimeMillis() + buffer.readInt() : 0;
+
+    HandlerHolder handler;
+    boolean resolve;
+    try {
+      Class<?> type = readType(buffer);
+      resolve = isAbstract(type);
+      handler = type == null ? null : resolve ? findHandler(handlers, type) : handlers.get(type);
+      if (handler == null) {
+        buffer.release();
+        handleRequestFailure(requestId, new SerializationException("unknown message type: " + type), this.context, batch, high);
+        return;
+      }
+      metrics.recordMessageType(type);
+    } catch (SerializationException e) {
+      buffer.release();
+      handleRequestFailure(requestId, e, this.context, batch, high);
+      return;
+    }
+
+    AdmissionControl.Backlog backlog = admission != null ? admission.backlog(handler.context) : null;
+    if (backlog != null && backlog.reject()) {
+      buffer.release();
+      metrics.recordRejected();
+      handleRequestFailure(requestId, new TransportException("server overloaded"), this.context, batch, high);
+      return;
+    }
+
+    dispatch(handler, backlog, () -> handleRequest(requestId, deadline, buffer, handler, resolve, batch, high));
+  }
+
+  /**
+   * Handles a batch.
+   * <p>
+   * Each item in the batch is framed as {@code [length][frame]}, where the frame is encoded exactly like a
+   * standalone request, response or message frame, and is dispatched individually. Responses to the requests
+   * in a batch are sent back in batches as they complete, so a slow request does not delay the rest.
+   */
+  void handleBatch(ByteBuf buffer, boolean high) {
+    int count = buffer.readInt();
+    BatchResponse batch = new BatchResponse(count, high);
+    for (int i = 0; i < count; i++) {
+      ByteBuf item = buffer.readRetainedSlice(buffer.readInt());
+      switch (item.readByte()) {
+        case REQUEST:
+          handleRequest(item, batch, false, high);
+          break;
+        case DEADLINE_REQUEST:
+          handleRequest(item, batch, true, high);
+          break;
+        case RESPONSE:
+          batch.skip();
+          handleResponse(item);
+          break;
+        case MESSAGE:
+          batch.skip();
+          handleMessage(item);
+          break;
+        default:
+          batch.skip();
+          item.release();
+          break;
+      }
+    }
+    buffer.release();
+  }
+
+  /**
+   * Handles a one-way message.
+   * <p>
+   * Messages are dispatched to the registered handler like requests, but no response is written and any
+   * result of the handler is discarded.
+   */
+  void handleMessage(ByteBuf buffer) {
+    metrics.recordMessageIn();
+
+    HandlerHolder handler;
+    boolean resolve;
+    try {
+      Class<?> type = readType(buffer);
+      resolve = isAbstract(type);
+      handler = type == null ? null : resolve ? findHandler(handlers, type) : handlers.get(type);
+      if (handler == null) {
+        buffer.release();
+        LOGGER.debug("Dropping message of unknown type: {}", type);
+        return;
+      }
+      metrics.recordMessageType(type);
+    } catch (SerializationException e) {
+      buffer.release();
+      LOGGER.debug("Failed to deserialize message", e);
+      return;
+    }
+
+    AdmissionControl.Backlog backlog = admission != null ? admission.backlog(handler.context) : null;
+    if (backlog != null && backlog.reject()) {
+      buffer.release();
+      metrics.recordRejected();
+      return;
+    }
+
+    dispatch(handler, backlog, () -> handleMessage(buffer, handler, resolve));
+  }
+
+  /**
+   * Submits a message task to the handler's context at the end of the current read, tracking it in the given
+   * backlog if the backlog is non-null.
+   */
+  private void dispatch(HandlerHolder handler, AdmissionControl.Backlog backlog, Runnable task) {
+    if (backlog == null) {
+      reads.add(handler.context, task);
+      return;
+    }
+
+    backlog.enqueue(channel);
+    reads.add(handler.context, () -> {
+      backlog.dequeue();
+      task.run();
+    });
+  }
+
+  /**
+   * Submits the tasks dispatched while reading from the channel.
+   * <p>
+   * This method must be called on the event loop once a read from the channel is complete.
+   */
+  void readComplete() {
+    reads.flush();
+  }
 
+  /**
+   * Deserializes and handles a one-way message on the handler's context.
+   * <p>
+   * If the message was serialized as an abstract type, the handler for the class of the message is selected once
+   * it has been deserialized, and the message is passed to that handler's context if it differs.
+   */
+  private void handleMessage(ByteBuf buffer, HandlerHolder handler, boolean resolve) {
+    Object message;
     try {
-      Object request = readRequest(buffer);
-      HandlerHolder handler = handlers.get(request.getClass());
-      if (handler != null) {
-        handler.context.executor().execute(() -> handleRequest(requestId, request, handler));
+      message = readRequest(buffer, handler.context);
+    } catch (SerializationException e) {
+      LOGGER.debug("Failed to deserialize message", e);
+      return;
+    } finally {
+      buffer.release();
+    }
+
+    if (resolve) {
+      HandlerHolder resolved = message != null ? handlers.get(message.getClass()) : null;
+      if (resolved == null) {
+        LOGGER.debug("Dropping message of unknown type: {}", message != null ? message.getClass() : null);
+        release(message);
+      } else if (resolved.context != handler.context) {
+        resolved.context.executor().execute(() -> handleMessage(message, resolved));
       } else {
-        handleRequestFailure(requestId, new SerializationException("unknown message type: " + request.getClass()), this.context);
+        handleMessage(message, resolved);
+      }
+    } else {
+      handleMessage(message, handler);
+    }
+  }
+
+  /**
+   * Handles a deserialized one-way message on the handler's context.
+   */
+  private void handleMessage(Object message, HandlerHolder handler) {
+    CompletableFuture<Object> responseFuture = handler.handler.apply(message);
+    if (responseFuture != null) {
+      responseFuture.whenComplete((response, error) -> {
+        if (response instanceof ReferenceCounted) {
+          ((ReferenceCounted) response).release();
+        }
+      });
+    }
+  }
+
+  /**
+   * Deserializes and handles a request on the handler's context.
+   * <p>
+   * If the request's deadline has passed by the time it reaches the handler's context, the request is dropped
+   * without being deserialized or responded to since the sender has already timed out. If the request was
+   * serialized as an abstract type, the handler for the class of the request is selected once it has been
+   * deserialized, and the request is passed to that handler's context if it differs.
+   */
+  private void handleRequest(long requestId, long deadline, ByteBuf buffer, HandlerHolder handler, boolean resolve, BatchResponse batch, boolean high) {
+    if (deadline != 0 && System.currentTimeMillis() >= deadline) {
+      buffer.release();
+      metrics.recordExpired();
+      if (batch != null) {
+        execute(batch::skip);
       }
+      return;
+    }
+
+    Object request;
+    try {
+      request = readRequest(buffer, handler.context);
     } catch (SerializationException e) {
-      handleRequestFailure(requestId, e, this.context);
+      handleRequestFailure(requestId, e, handler.context, batch, high);
+      return;
     } finally {
       buffer.release();
     }
+
+    if (resolve) {
+      HandlerHolder resolved = request != null ? handlers.get(request.getClass()) : null;
+      if (resolved == null) {
+        release(request);
+        handleRequestFailure(requestId, new SerializationException("unknown message type: " + (request != null ? request.getClass() : null)), handler.context, batch, high);
+      } else if (resolved.context != handler.context) {
+        resolved.context.executor().execute(() -> handleRequest(requestId, deadline, request, resolved, batch, high));
+      } else {
+        handleRequest(requestId, deadline, request, resolved, batch, high);
+      }
+    } else {
+      handleRequest(requestId, deadline, request, handler, batch, high);
+    }
   }
 
   /**
-   * Handles a request.
+   * Handles a deserialized request on the handler's context.
    */
-  private void handleRequest(long requestId, Object request, HandlerHolder handler) {
-    @SuppressWarnings("unchecked")
-    CompletableFuture<Object> responseFuture = handler.handler.apply(request);
+  private void handleRequest(long requestId, long deadline, Object request, HandlerHolder handler, BatchResponse batch, boolean high) {
+    CompletableFuture<Object> responseFuture;
+    if (deadline != 0) {
+      Deadline previous = Deadline.set(new Deadline(deadline));
+      try {
+        responseFuture = handler.handler.apply(request);
+      } finally {
+        Deadline.set(previous);
+      }
+    } else {
+      responseFuture = handler.handler.apply(request);
+    }
+
     if (responseFuture != null) {
       responseFuture.whenComplete((response, error) -> {
         ThreadContext context = ThreadContext.currentContext();
         if (context == null) {
           this.context.executor().execute(() -> {
             if (error == null) {
-              handleRequestSuccess(requestId, response, this.context);
+              handleRequestSuccess(requestId, response, this.context, batch, high);
             } else {
-              handleRequestFailure(requestId, error, this.context);
+              handleRequestFailure(requestId, error, this.context, batch, high);
             }
           });
         } else {
           if (error == null) {
-            handleRequestSuccess(requestId, response, context);
+            handleRequestSuccess(requestId, response, context, batch, high);
           } else {
-            handleRequestFailure(requestId, error, context);
+            handleRequestFailure(requestId, error, context, batch, high);
           }
         }
       });
+    } else if (batch != null) {
+      execute(batch::skip);
+    }
+  }
+
+  /**
+   * Handles the message that opens a stream.
+   * <p>
+   * The stream is registered immediately so that chunks received while the message is being deserialized on the
+   * handler's context are queued behind it on the same context.
+   */
+  void handleStreamOpen(ByteBuf buffer) {
+    metrics.recordMessageIn();
+    long id = buffer.readLong();
+
+    StreamHandlerHolder handler;
+    boolean resolve;
+    try {
+      Class<?> type = readType(buffer);
+      resolve = isAbstract(type);
+      handler = type == null ? null : resolve ? findHandler(streamHandlers, type) : streamHandlers.get(type);
+      if (handler == null) {
+        buffer.release();
+        LOGGER.debug("Rejecting stream of unknown type: {}", type);
+        sendStreamAck(id, FAILURE);
+        return;
+      }
+      metrics.recordMessageType(type);
+    } catch (SerializationException e) {
+      buffer.release();
+      LOGGER.debug("Failed to deserialize stream message", e);
+      sendStreamAck(id, FAILURE);
+      return;
+    }
+
+    InboundStream stream = new InboundStream(id, handler.context);
+    inboundStreams.put(id, stream);
+    reads.add(handler.context, () -> stream.open(buffer, handler, resolve));
+  }
+
+  /**
+   * Handles a chunk of a stream.
+   */
+  void handleStreamChunk(ByteBuf buffer) {
+    InboundStream stream = inboundStreams.get(buffer.readLong());
+    if (stream == null) {
+      buffer.release();
+      return;
+    }
+
+    reads.add(stream.context, () -> stream.chunk(buffer));
+  }
+
+  /**
+   * Handles the end of a stream.
+   */
+  void handleStreamEnd(ByteBuf buffer) {
+    long id = buffer.readLong();
+    byte status = buffer.readByte();
+    buffer.release();
+
+    InboundStream stream = inboundStreams.remove(id);
+    if (stream != null) {
+      reads.add(stream.context, () -> stream.end(status));
+    }
+  }
+
+  /**
+   * Handles the receiver's acknowledgement of a chunk or the end of a stream.
+   */
+  void handleStreamAck(ByteBuf buffer) {
+    long id = buffer.readLong();
+    byte status = buffer.readByte();
+    buffer.release();
+
+    OutboundStream stream = outboundStreams.get(id);
+    if (stream != null) {
+      reads.add(stream.context, () -> stream.ack(status));
     }
   }
 
+  /**
+   * Acknowledges a chunk with {@link #STREAM_CHUNK} or the end of a stream with {@link #SUCCESS} or {@link #FAILURE}.
+   */
+  private void sendStreamAck(long id, byte status) {
+    write(channel.alloc().buffer(10)
+      .writeByte(STREAM_ACK)
+      .writeLong(id)
+      .writeByte(status), channel.voidPromise());
+  }
+
   /**
    * Handles a request response.
    */
-  private void handleRequestSuccess(long requestId, Object response, ThreadContext context) {
-    ByteBuf buffer = channel.alloc().buffer(10)
-      .writeByte(RESPONSE)
-      .writeLong(requestId)
-      .writeByte(SUCCESS);
+  private void handleRequestSuccess(long requestId, Object response, ThreadContext context, BatchResponse batch, boolean high) {
+    ByteBuf buffer = newResponse(requestId, SUCCESS, batch);
 
     try {
       writeResponse(buffer, response, context);
     } catch (SerializationException e) {
-      handleRequestFailure(requestId, e, context);
+      buffer.release();
+      handleRequestFailure(requestId, e, context, batch, high);
       return;
     }
 
-    channel.writeAndFlush(buffer, channel.voidPromise());
+    sendResponse(buffer, batch, high);
 
     if (response instanceof ReferenceCounted) {
       ((ReferenceCounted) response).release();
@@ -159,25 +612,53 @@ public class NettyConnection implements Connection {
   /**
    * Handles a request failure.
    */
-  private void handleRequestFailure(long requestId, Throwable error, ThreadContext context) {
-    ByteBuf buffer = channel.alloc().buffer(10)
-      .writeByte(RESPONSE)
-      .writeLong(requestId)
-      .writeByte(FAILURE);
+  private void handleRequestFailure(long requestId, Throwable error, ThreadContext context, BatchResponse batch, boolean high) {
+    ByteBuf buffer = newResponse(requestId, FAILURE, batch);
 
     try {
       writeError(buffer, error, context);
     } catch (SerializationException e) {
+      buffer.release();
+      if (batch != null) {
+        execute(batch::skip);
+      }
       return;
     }
 
-    channel.writeAndFlush(buffer, channel.voidPromise());
+    sendResponse(buffer, batch, high);
+  }
+
+  /**
+   * Allocates a response buffer, reserving space for the item length if the response is part of a batch.
+   */
+  private ByteBuf newResponse(long requestId, byte status, BatchResponse batch) {
+    ByteBuf buffer = channel.alloc().buffer(14);
+    if (batch != null) {
+      buffer.writeInt(0);
+    }
+    return buffer.writeByte(RESPONSE)
+      .writeLong(requestId)
+      .writeByte(status);
+  }
+
+  /**
+   * Writes a response to the channel or adds it to the given batch.
+   */
+  private void sendResponse(ByteBuf buffer, BatchResponse batch, boolean high) {
+    metrics.recordMessagesOut(1);
+    if (batch == null) {
+      write(buffer, channel.voidPromise(), high);
+    } else {
+      buffer.setInt(0, buffer.readableBytes() - 4);
+      execute(() -> batch.add(buffer));
+    }
   }
 
   /**
    * Handles response.
    */
   void handleResponse(ByteBuf response) {
+    metrics.recordMessageIn();
     long requestId = response.readLong();
     byte status = response.readByte();
     switch (status) {
@@ -204,9 +685,15 @@ public class NettyConnection implements Connection {
    */
   @SuppressWarnings("unchecked")
   private void handleResponseSuccess(long requestId, Object response) {
-    ContextualFuture future = responseFutures.remove(requestId);
+    ContextualFuture future = requests.remove(requestId);
     if (future != null) {
-      future.context.executor().execute(() -> future.complete(response));
+      long time = System.nanoTime() - future.time;
+      metrics.recordResponse(time);
+      if (rtt != null) {
+        rtt.sample(time);
+      }
+      updateInFlight();
+      reads.add(future.context, () -> future.complete(response));
     }
   }
 
@@ -214,142 +701,542 @@ public class NettyConnection implements Connection {
    * Handles a failure response.
    */
   private void handleResponseFailure(long requestId, Throwable t) {
-    ContextualFuture future = responseFutures.remove(requestId);
+    ContextualFuture future = requests.remove(requestId);
     if (future != null) {
-      future.context.executor().execute(() -> future.completeExceptionally(t));
+      if (rtt != null) {
+        rtt.sample(System.nanoTime() - future.time);
+      }
+      metrics.recordFailure();
+      updateInFlight();
+      reads.add(future.context, () -> future.completeExceptionally(t));
     }
   }
 
   /**
-   * Writes a request to the given buffer.
+   * Writes a buffer to the channel.
+   * <p>
+   * Buffers are written to the channel without being flushed, and a single flush is scheduled on the channel's
+   * event loop for all buffers written before it runs. This coalesces the messages written during an event loop
+   * tick or a batch of context tasks into a single socket write.
    */
-  private ByteBuf writeRequest(ByteBuf buffer, Object request, ThreadContext context) {
-    context.serializer().writeObject(request, OUTPUT.get().setByteBuf(buffer));
-    if (request instanceof ReferenceCounted) {
-      ((ReferenceCounted) request).release();
-    }
-    return buffer;
+  private ChannelFuture write(ByteBuf buffer, ChannelPromise promise) {
+    return write(buffer, buffer.readableBytes(), promise, false);
   }
 
   /**
-   * Writes a response to the given buffer.
+   * Writes a buffer to the channel with the given priority.
    */
-  private ByteBuf writeResponse(ByteBuf buffer, Object request, ThreadContext context) {
-    context.serializer().writeObject(request, OUTPUT.get().setByteBuf(buffer));
-    return buffer;
+  private ChannelFuture write(ByteBuf buffer, ChannelPromise promise, boolean high) {
+    return write(buffer, buffer.readableBytes(), promise, high);
   }
 
   /**
-   * Writes an error to the given buffer.
+   * Writes a normal priority frame of the given size to the channel.
    */
-  private ByteBuf writeError(ByteBuf buffer, Throwable t, ThreadContext context) {
-    context.serializer().writeObject(t, OUTPUT.get().setByteBuf(buffer));
-    return buffer;
+  private ChannelFuture write(Object frame, long size, ChannelPromise promise) {
+    return write(frame, size, promise, false);
   }
 
   /**
-   * Reads a request from the given buffer.
+   * Writes a frame of the given size to the channel, scheduling a flush as for {@link #write(ByteBuf, ChannelPromise)}.
+   * <p>
+   * Writes from outside the event loop are handed to the event loop together with the flush scheduling. Otherwise
+   * a write submitted after a pending flush task has been queued but before it has run would not be flushed.
    */
-  private Object readRequest(ByteBuf buffer) {
-    return context.serializer().readObject(INPUT.get().setByteBuf(buffer));
+  private ChannelFuture write(Object frame, long size, ChannelPromise promise, boolean high) {
+    metrics.recordBytesOut(size + 4);
+
+    if (flushDelay < 0 && !priorityLanes) {
+      return channel.writeAndFlush(frame, promise);
+    }
+
+    if (channel.eventLoop().inEventLoop()) {
+      writeFrame(frame, size, promise, high);
+    } else {
+      try {
+        channel.eventLoop().execute(() -> writeFrame(frame, size, promise, high));
+      } catch (RejectedExecutionException e) {
+        ReferenceCountUtil.release(frame);
+        promise.tryFailure(e);
+      }
+    }
+    return promise;
   }
 
   /**
-   * Reads a response from the given buffer.
+   * Writes a frame to the channel according to its priority.
+   * <p>
+   * When priority lanes are enabled, high priority frames are wrapped in a {@link #PRIORITY} frame and flushed
+   * immediately. Normal priority frames larger than twice the stream chunk size are split into chunk sized
+   * {@link #FRAGMENT} frames, and each fragment is written only once the previous fragment has been written to
+   * the socket, so high priority frames are interleaved between the fragments rather than queued behind the
+   * entire frame. Normal priority frames written while a frame is being fragmented are deferred until it has been
+   * written to preserve their order.
+   * <p>
+   * This method must be called on the channel's event loop.
    */
-  private Object readResponse(ByteBuf buffer) {
-    return context.serializer().readObject(INPUT.get().setByteBuf(buffer));
+  private void writeFrame(Object frame, long size, ChannelPromise promise, boolean high) {
+    if (!priorityLanes) {
+      writeAndScheduleFlush(frame, size, promise);
+    } else if (high) {
+      ByteBuf header = channel.alloc().buffer(1).writeByte(PRIORITY);
+      channel.writeAndFlush(channel.alloc().compositeBuffer(2).addComponents(true, header, (ByteBuf) frame), promise);
+    } else if (fragmenting != null) {
+      deferredWrites.add(new DeferredWrite(frame, size, promise));
+    } else if (frame instanceof ByteBuf && size > streamChunkSize * 2L) {
+      fragmenting = (ByteBuf) frame;
+      fragmentingPromise = promise;
+      writeFragment();
+    } else {
+      writeAndScheduleFlush(frame, size, promise);
+    }
   }
 
   /**
-   * Reads an error from the given buffer.
+   * Writes the next fragment of the frame being fragmented.
    */
-  private Throwable readError(ByteBuf buffer) {
-    return context.serializer().readObject(INPUT.get().setByteBuf(buffer));
+  private void writeFragment() {
+    ByteBuf frame = fragmenting;
+    int length = Math.min(frame.readableBytes(), streamChunkSize);
+    boolean last = length == frame.readableBytes();
+    ByteBuf header = channel.alloc().buffer(2)
+      .writeByte(FRAGMENT)
+      .writeBoolean(last);
+    channel.writeAndFlush(channel.alloc().compositeBuffer(2).addComponents(true, header, frame.readRetainedSlice(length))).addListener(channelFuture -> {
+      if (!channelFuture.isSuccess()) {
+        completeFragments(channelFuture.cause());
+      } else if (last) {
+        completeFragments(null);
+      } else {
+        writeFragment();
+      }
+    });
   }
 
   /**
-   * Handles an exception.
+   * Completes the frame being fragmented and writes the frames deferred behind it.
+   */
+  private void completeFragments(Throwable error) {
+    ByteBuf frame = fragmenting;
+    ChannelPromise promise = fragmentingPromise;
+    fragmenting = null;
+    fragmentingPromise = null;
+    frame.release();
+    if (error == null) {
+      promise.trySuccess();
+    } else {
+      promise.tryFailure(error);
+    }
+
+    DeferredWrite write;
+    while (fragmenting == null && (write = deferredWrites.poll()) != null) {
+      writeFrame(write.frame, write.size, write.promise, false);
+    }
+  }
+
+  /**
+   * Handles a fragment of a frame.
+   * <p>
+   * This method must be called on the event loop.
    *
-   * @param t The exception to handle.
+   * @param buffer The fragment.
+   * @return The reassembled frame if this was the last fragment of the frame, otherwise {@code null}.
+   * @throws TransportException if the reassembled frame exceeds the maximum frame size
    */
-  void handleException(Throwable t) {
-    if (failure == null) {
-      failure = t;
+  ByteBuf handleFragment(ByteBuf buffer) {
+    boolean last = buffer.readBoolean();
+    if (fragments == null) {
+      fragments = channel.alloc().compositeBuffer(Integer.MAX_VALUE);
+    }
+    fragments.addComponent(true, buffer);
 
-      for (ContextualFuture<?> responseFuture : responseFutures.values()) {
-        responseFuture.context.executor().execute(() -> responseFuture.completeExceptionally(t));
-      }
-      responseFutures.clear();
+    if (fragments.readableBytes() > maxFrameSize) {
+      fragments.release();
+      fragments = null;
+      throw new TransportException("fragmented frame exceeds max frame size");
+    }
 
-      for (Listener<Throwable> listener : exceptionListeners) {
-        listener.accept(t);
-      }
+    if (!last) {
+      return null;
     }
+    ByteBuf frame = fragments;
+    fragments = null;
+    return frame;
   }
 
   /**
-   * Handles the channel being closed.
+   * Writes a frame to the channel and schedules a flush if none is pending.
+   * <p>
+   * This method must be called on the channel's event loop.
    */
-  void handleClosed() {
-    if (!closed) {
-      closed = true;
+  private void writeAndScheduleFlush(Object frame, long size, ChannelPromise promise) {
+    if (flushDelay < 0) {
+      channel.writeAndFlush(frame, promise);
+      return;
+    }
 
-      for (ContextualFuture<?> responseFuture : responseFutures.values()) {
-        responseFuture.context.executor().execute(() -> responseFuture.completeExceptionally(new ConnectException("connection closed")));
+    channel.write(frame, promise);
+    if (flushDelay == 0) {
+      if (flushScheduled.compareAndSet(false, true)) {
+        channel.eventLoop().execute(flushTask);
       }
-      responseFutures.clear();
-
-      for (Listener<Connection> listener : closeListeners) {
-        listener.accept(this);
+    } else {
+      if (flushScheduled.compareAndSet(false, true)) {
+        channel.eventLoop().schedule(flushTask, flushDelay, TimeUnit.MILLISECONDS);
+      }
+      if (flushBytes.addAndGet(size) >= flushThreshold && flushForced.compareAndSet(false, true)) {
+        channel.eventLoop().execute(flushTask);
       }
-      timeout.cancel();
     }
   }
 
   /**
-   * Times out requests.
+   * Flushes pending writes to the channel.
    */
-  void timeout() {
-    long time = System.currentTimeMillis();
-    Iterator<Map.Entry<Long, ContextualFuture>> iterator = responseFutures.entrySet().iterator();
-    while (iterator.hasNext()) {
-      ContextualFuture future = iterator.next().getValue();
-      if (future.time + requestTimeout < time) {
-        iterator.remove();
-        future.context.executor().execute(() -> future.completeExceptionally(new TimeoutException("request timed out")));
-      } else {
-        break;
-      }
-    }
+  private void flush() {
+    flushScheduled.set(false);
+    flushForced.set(false);
+    flushBytes.set(0);
+    channel.flush();
   }
 
-  @Override
-  public CompletableFuture<Void> send(Object request) {
-    Assert.notNull(request, "request");
-    ThreadContext context = ThreadContext.currentContextOrThrow();
-    ContextualFuture<Void> future = new ContextualFuture<>(System.currentTimeMillis(), context);
+  /**
+   * Writes a request to the given buffer.
+   */
+  private ByteBuf writeRequest(ByteBuf buffer, Object request, ThreadContext context) {
+    context.serializer().writeObject(request, OUTPUT.get().setByteBuf(buffer));
+    if (request instanceof ReferenceCounted) {
+      ((ReferenceCounted) request).release();
+    }
+    return buffer;
+  }
 
-    long requestId = ++this.requestId;
+  /**
+   * Writes a response to the given buffer.
+   */
+  private ByteBuf writeResponse(ByteBuf buffer, Object request, ThreadContext context) {
+    context.serializer().writeObject(request, OUTPUT.get().setByteBuf(buffer));
+    return buffer;
+  }
 
-    ByteBuf buffer = this.channel.alloc().buffer(9)
-      .writeByte(REQUEST)
-      .writeLong(requestId);
+  /**
+   * Writes an error to the given buffer.
+   */
+  private ByteBuf writeError(ByteBuf buffer, Throwable t, ThreadContext context) {
+    context.serializer().writeObject(t, OUTPUT.get().setByteBuf(buffer));
+    return buffer;
+  }
+
+  /**
+   * Reads a request from the given buffer.
+   */
+  private Object readRequest(ByteBuf buffer, ThreadContext context) {
+    return context.serializer().readObject(INPUT.get().setByteBuf(buffer));
+  }
+
+  /**
+   * Reads the serialized type of a request or message from the given buffer without consuming it.
+   */
+  private Class<?> readType(ByteBuf buffer) {
+    int readerIndex = buffer.readerIndex();
+    try {
+      return context.serializer().readType(INPUT.get().setByteBuf(buffer));
+    } finally {
+      buffer.readerIndex(readerIndex);
+    }
+  }
+
+  /**
+   * Returns whether the given serialized type was registered as an abstract type, in which case the serialized
+   * object may be an instance of any subtype of it.
+   */
+  private boolean isAbstract(Class<?> type) {
+    return type != null && context.serializer().registry().isAbstract(type);
+  }
+
+  /**
+   * Returns a handler for the given abstract type or any subtype of it, or {@code null} if there is none.
+   * <p>
+   * Objects serialized as an abstract type are deserialized on the context of the returned handler, which is
+   * the context of the handler for their actual class whenever all such handlers share a context.
+   */
+  private static <T> T findHandler(Map<Class, T> handlers, Class<?> type) {
+    T handler = handlers.get(type);
+    if (handler != null) {
+      return handler;
+    }
+    for (Map.Entry<Class, T> entry : handlers.entrySet()) {
+      if (type.isAssignableFrom(entry.getKey())) {
+        return entry.getValue();
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Releases the given object if it is reference counted.
+   */
+  private static void release(Object object) {
+    if (object instanceof ReferenceCounted) {
+      ((ReferenceCounted) object).release();
+    }
+  }
+
+  /**
+   * Wraps the readable bytes of the given buffer in a {@link Buffer} without copying them.
+   * <p>
+   * The returned buffer shares the memory of the given buffer, so it must not be used once the given buffer
+   * has been released.
+   */
+  private static Buffer wrap(ByteBuf buffer) {
+    ByteBuffer bytes = buffer.nioBuffer();
+    return new ByteBufferBuffer(new ByteBufferBytes(bytes) {
+      @Override
+      protected ByteBuffer newByteBuffer(long size) {
+        return ByteBuffer.allocate((int) size);
+      }
+    }, 0, bytes.remaining(), bytes.remaining(), null);
+  }
+
+  /**
+   * Reads a response from the given buffer.
+   */
+  private Object readResponse(ByteBuf buffer) {
+    return context.serializer().readObject(INPUT.get().setByteBuf(buffer));
+  }
+
+  /**
+   * Reads an error from the given buffer.
+   */
+  private Throwable readError(ByteBuf buffer) {
+    return context.serializer().readObject(INPUT.get().setByteBuf(buffer));
+  }
+
+  /**
+   * Handles an exception.
+   *
+   * @param t The exception to handle.
+   */
+  void handleException(Throwable t) {
+    if (failure == null) {
+      failure = t;
+
+      failAll(requests.clear(), t);
+
+      for (Listener<Throwable> listener : exceptionListeners) {
+        listener.accept(t);
+      }
+    }
+  }
+
+  /**
+   * Handles the channel being closed.
+   */
+  void handleClosed() {
+    if (!closed) {
+      closed = true;
+      reads.flush();
+
+      failAll(requests.clear(), new ConnectException("connection closed"));
+      inFlight = 0;
+
+      ContextualFuture<Void> writableFuture;
+      while ((writableFuture = writableFutures.poll()) != null) {
+        ContextualFuture<Void> future = writableFuture;
+        future.context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
+      }
+
+      if (pending != null) {
+        for (ByteBuf frame : pending) {
+          frame.release();
+        }
+        pending = null;
+      }
+
+      if (fragments != null) {
+        fragments.release();
+        fragments = null;
+      }
+
+      for (Long id : outboundStreams.keySet()) {
+        OutboundStream stream = outboundStreams.remove(id);
+        if (stream != null) {
+          stream.context.executor().execute(() -> stream.fail(new ConnectException("connection closed")));
+        }
+      }
+      for (Long id : inboundStreams.keySet()) {
+        InboundStream stream = inboundStreams.remove(id);
+        if (stream != null) {
+          stream.context.executor().execute(() -> stream.fail(new ConnectException("connection closed")));
+        }
+      }
+
+      for (Listener<Connection> listener : closeListeners) {
+        listener.accept(this);
+      }
+      timeout.cancel(false);
+    }
+  }
+
+  /**
+   * Times out requests.
+   */
+  void timeout() {
+    ContextualFuture<?> future = requests.expire(System.currentTimeMillis());
+    if (future != null) {
+      updateInFlight();
+      if (rtt != null) {
+        rtt.backoff();
+      }
+    }
+    while (future != null) {
+      ContextualFuture<?> next = future.next;
+      future.next = null;
+      ContextualFuture<?> expired = future;
+      metrics.recordTimeout();
+      expired.context.executor().execute(() -> expired.completeExceptionally(new TimeoutException("request timed out")));
+      future = next;
+    }
+  }
+
+  /**
+   * Handles a change in the writability of the channel.
+   */
+  void handleWritabilityChanged() {
+    notifyWritable();
+  }
+
+  /**
+   * Updates the number of requests in flight after requests have been added to or removed from the request table.
+   */
+  private void updateInFlight() {
+    inFlight = requests.size();
+    if (!writableFutures.isEmpty()) {
+      notifyWritable();
+    }
+  }
+
+  /**
+   * Completes futures awaiting writability if the connection is writable.
+   */
+  private void notifyWritable() {
+    if (isWritable()) {
+      ContextualFuture<Void> writableFuture;
+      while ((writableFuture = writableFutures.poll()) != null) {
+        ContextualFuture<Void> future = writableFuture;
+        future.context.executor().execute(() -> future.complete(null));
+      }
+    }
+  }
+
+  @Override
+  public boolean isWritable() {
+    return channel.isWritable() && (maxInFlight == 0 || inFlight < maxInFlight);
+  }
+
+  @Override
+  public CompletableFuture<Void> awaitWritable() {
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    if (closed || failure != null) {
+      return Futures.exceptionalFuture(new ConnectException("connection closed"));
+    } else if (isWritable()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    ContextualFuture<Void> future = new ContextualFuture<>(System.nanoTime(), context);
+    writableFutures.add(future);
+    // Check again on the event loop in case the connection became writable or closed before the future was queued.
+    execute(() -> {
+      if (closed) {
+        if (writableFutures.remove(future)) {
+          context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
+        }
+      } else {
+        notifyWritable();
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Fails a list of futures removed from the request table.
+   */
+  private void failAll(ContextualFuture<?> future, Throwable t) {
+    while (future != null) {
+      ContextualFuture<?> next = future.next;
+      future.next = null;
+      ContextualFuture<?> failed = future;
+      metrics.recordFailure();
+      failed.context.executor().execute(() -> failed.completeExceptionally(t));
+      future = next;
+    }
+  }
+
+  /**
+   * Returns whether the given message is sent with high priority by default.
+   */
+  boolean isHighPriority(Object message) {
+    return priorityLanes && priorities.get(message.getClass()) == Priority.HIGH;
+  }
+
+  /**
+   * Returns whether messages of the given priority are sent with high priority.
+   */
+  private boolean isHighPriority(Priority priority) {
+    return priorityLanes && Assert.notNull(priority, "priority") == Priority.HIGH;
+  }
+
+  @Override
+  public CompletableFuture<Void> send(Object request) {
+    Assert.notNull(request, "request");
+    return send(request, isHighPriority(request));
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The priority only applies when {@link NettyOptions#priorityLanes() priority lanes} are enabled.
+   */
+  @Override
+  public CompletableFuture<Void> send(Object request, Priority priority) {
+    Assert.notNull(request, "request");
+    return send(request, isHighPriority(priority));
+  }
+
+  /**
+   * Sends a one-way message with the given priority.
+   * <p>
+   * Unless {@link NettyOptions#oneWayMessages() one-way messages} are enabled, the message is sent as a request
+   * with ID {@code 0}. Request IDs start at {@code 1}, so the response is never matched and is discarded.
+   */
+  private CompletableFuture<Void> send(Object request, boolean high) {
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    CompletableFuture<Void> future = new CompletableFuture<>();
+
+    ByteBuf buffer;
+    if (oneWayMessages) {
+      buffer = this.channel.alloc().buffer(1)
+        .writeByte(MESSAGE);
+    } else {
+      buffer = this.channel.alloc().buffer(9)
+        .writeByte(REQUEST)
+        .writeLong(0);
+    }
 
     try {
       writeRequest(buffer, request, context);
     } catch (SerializationException e) {
+      buffer.release();
       future.completeExceptionally(e);
       return future;
     }
 
-    responseFutures.put(requestId, future);
-
-    writeFuture = channel.writeAndFlush(buffer).addListener((channelFuture) -> {
+    metrics.recordMessagesOut(1);
+    writeFuture = write(buffer, channel.newPromise(), high).addListener((channelFuture) -> {
       if (channelFuture.isSuccess()) {
-        future.context.executor().execute(() -> future.complete(null));
+        context.executor().execute(() -> future.complete(null));
       } else {
-        future.context.executor().execute(() -> future.completeExceptionally(channelFuture.cause()));
+        context.executor().execute(() -> future.completeExceptionally(channelFuture.cause()));
       }
     });
     return future;
@@ -358,37 +1245,336 @@ public class NettyConnection implements Connection {
   @Override
   public <T, U> CompletableFuture<U> sendAndReceive(T request) {
     Assert.notNull(request, "request");
-    ThreadContext context = ThreadContext.currentContextOrThrow();
-    ContextualFuture<U> future = new ContextualFuture<>(System.currentTimeMillis(), context);
+    return sendAndReceive(request, requestTimeout(), isHighPriority(request));
+  }
 
-    long requestId = ++this.requestId;
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The priority only applies when {@link NettyOptions#priorityLanes() priority lanes} are enabled.
+   */
+  @Override
+  public <T, U> CompletableFuture<U> sendAndReceive(T request, Priority priority) {
+    Assert.notNull(request, "request");
+    return sendAndReceive(request, requestTimeout(), isHighPriority(priority));
+  }
 
-    ByteBuf buffer = this.channel.alloc().buffer(9)
-      .writeByte(REQUEST)
-      .writeLong(requestId);
+  @Override
+  public <T, U> CompletableFuture<U> sendAndReceive(T request, long timeout) {
+    Assert.notNull(request, "request");
+    Assert.argNot(timeout <= 0, "timeout must be positive");
+    return sendAndReceive(request, timeout, isHighPriority(request));
+  }
+
+  /**
+   * Sends a request with the given timeout and priority.
+   */
+  private <T, U> CompletableFuture<U> sendAndReceive(T request, long timeout, boolean high) {
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    ContextualFuture<U> future = new ContextualFuture<>(System.nanoTime(), context);
+
+    ByteBuf buffer = writeRequestHeader(this.channel.alloc().buffer(13), timeout);
 
     try {
       writeRequest(buffer, request, context);
     } catch (SerializationException e) {
+      buffer.release();
       future.completeExceptionally(e);
       return future;
     }
 
-    responseFutures.put(requestId, future);
+    execute(() -> sendRequest(buffer, future, timeout, high));
+    return future;
+  }
 
-    writeFuture = channel.writeAndFlush(buffer).addListener((channelFuture) -> {
-      if (channelFuture.isSuccess()) {
-        if (closed) {
-          ContextualFuture responseFuture = responseFutures.remove(requestId);
-          if (responseFuture != null) {
-            responseFuture.context.executor().execute(() -> responseFuture.completeExceptionally(new ConnectException("connection closed")));
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The batch is sent with high priority only if every request in the batch has high priority.
+   */
+  @Override
+  public <T, U> List<CompletableFuture<U>> sendAndReceiveAll(List<T> requests) {
+    Assert.notNull(requests, "requests");
+    for (T request : requests) {
+      Assert.notNull(request, "request");
+    }
+
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    long time = System.nanoTime();
+    long timeout = requestTimeout();
+    boolean high = priorityLanes;
+    for (T request : requests) {
+      high &= isHighPriority(request);
+    }
+    List<CompletableFuture<U>> futures = new ArrayList<>(requests.size());
+    ContextualFuture<?>[] batch = new ContextualFuture[requests.size()];
+    int[] offsets = new int[requests.size()];
+    int count = 0;
+
+    ByteBuf buffer = this.channel.alloc().buffer(5 + requests.size() * 13)
+      .writeByte(BATCH)
+      .writeInt(0);
+
+    for (T request : requests) {
+      ContextualFuture<U> future = new ContextualFuture<>(time, context);
+      futures.add(future);
+
+      int start = buffer.writerIndex();
+      buffer.writeInt(0);
+      writeRequestHeader(buffer, timeout);
+
+      try {
+        writeRequest(buffer, request, context);
+      } catch (SerializationException e) {
+        buffer.writerIndex(start);
+        future.completeExceptionally(e);
+        continue;
+      }
+
+      buffer.setInt(start, buffer.writerIndex() - start - 4);
+      offsets[count] = start + 5;
+      batch[count++] = future;
+    }
+
+    if (count == 0) {
+      buffer.release();
+      return futures;
+    }
+
+    int size = count;
+    buffer.setInt(1, size);
+    boolean highBatch = high;
+    execute(() -> sendRequests(buffer, batch, offsets, size, timeout, highBatch));
+    return futures;
+  }
+
+  /**
+   * Serializes a request into a new buffer without releasing the request.
+   *
+   * @param request The request to serialize.
+   * @param context The context with which to serialize the request.
+   * @return The serialized request.
+   * @throws SerializationException if the request cannot be serialized
+   */
+  ByteBuf serialize(Object request, ThreadContext context) {
+    ByteBuf buffer = this.channel.alloc().buffer();
+    try {
+      return writeResponse(buffer, request, context);
+    } catch (SerializationException e) {
+      buffer.release();
+      throw e;
+    }
+  }
+
+  /**
+   * Sends a serialized request.
+   * <p>
+   * The request header is written to a separate buffer and composed with the payload, so the same payload
+   * can be shared by requests on many connections. The connection takes ownership of the payload.
+   *
+   * @param payload The serialized request.
+   * @param context The context on which to complete the returned future.
+   * @param high Whether to send the request with high priority.
+   * @return A future to be completed with the response.
+   */
+  <U> CompletableFuture<U> sendAndReceive(ByteBuf payload, ThreadContext context, boolean high) {
+    ContextualFuture<U> future = new ContextualFuture<>(System.nanoTime(), context);
+    long timeout = requestTimeout();
+    ByteBuf header = writeRequestHeader(this.channel.alloc().buffer(13), timeout);
+    ByteBuf buffer = this.channel.alloc().compositeBuffer(2).addComponents(true, header, payload);
+    execute(() -> sendRequest(buffer, future, timeout, high));
+    return future;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The data is sent in chunks of at most {@link NettyOptions#streamChunkSize()} bytes, and at most
+   * {@link NettyOptions#streamWindow()} chunks are sent before the receiver has consumed them.
+   */
+  @Override
+  public CompletableFuture<Void> stream(Object message, InputStream data) {
+    Assert.notNull(message, "message");
+    Assert.notNull(data, "data");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    return stream(message, new OutboundStream(streamId.incrementAndGet(), data, context), context);
+  }
+
+  /**
+   * {@inheritDoc}
+   * <p>
+   * On connections without TLS, file buffers are sent with {@link DefaultFileRegion}s, which transfer the file to
+   * the socket without copying it through the heap.
+   */
+  @Override
+  public CompletableFuture<Void> stream(Object message, Buffer data) {
+    if (fileRegions && data instanceof FileBuffer) {
+      Assert.notNull(message, "message");
+      ThreadContext context = ThreadContext.currentContextOrThrow();
+      return stream(message, new OutboundStream(streamId.incrementAndGet(), (FileBuffer) data, context), context);
+    }
+    return Connection.super.stream(message, data);
+  }
+
+  /**
+   * Opens the given stream and starts sending its data.
+   */
+  private CompletableFuture<Void> stream(Object message, OutboundStream stream, ThreadContext context) {
+    ByteBuf buffer = this.channel.alloc().buffer(9)
+      .writeByte(STREAM_OPEN)
+      .writeLong(stream.id);
+
+    try {
+      writeRequest(buffer, message, context);
+    } catch (SerializationException e) {
+      buffer.release();
+      stream.fail(e);
+      return stream.future;
+    }
+
+    outboundStreams.put(stream.id, stream);
+    if (closed && outboundStreams.remove(stream.id) != null) {
+      buffer.release();
+      stream.fail(new ConnectException("connection closed"));
+      return stream.future;
+    }
+
+    metrics.recordMessagesOut(1);
+    writeFuture = write(buffer, channel.voidPromise());
+    stream.pump();
+    return stream.future;
+  }
+
+  /**
+   * Returns the timeout in milliseconds for requests sent without an explicit timeout.
+   * <p>
+   * If adaptive timeouts are enabled, the timeout is derived from the round trip times observed on this
+   * connection. Otherwise, the configured request timeout is used.
+   */
+  long requestTimeout() {
+    return rtt != null ? rtt.timeout() : requestTimeout;
+  }
+
+  /**
+   * Writes a request header to the given buffer with a placeholder for the request ID.
+   * <p>
+   * If deadline propagation is enabled, the header includes the request timeout so that the receiver can drop
+   * the request once the sender has given up on it.
+   */
+  private ByteBuf writeRequestHeader(ByteBuf buffer, long timeout) {
+    if (propagateDeadlines) {
+      return buffer.writeByte(DEADLINE_REQUEST)
+        .writeLong(0)
+        .writeInt((int) Math.min(timeout, Integer.MAX_VALUE));
+    }
+    return buffer.writeByte(REQUEST)
+      .writeLong(0);
+  }
+
+  /**
+   * Executes a callback on the channel's event loop.
+   */
+  private void execute(Runnable callback) {
+    if (channel.eventLoop().inEventLoop()) {
+      callback.run();
+    } else {
+      channel.eventLoop().execute(callback);
+    }
+  }
+
+  /**
+   * Registers a request in the request table and writes it to the channel.
+   * <p>
+   * This method must be called on the channel's event loop, which owns the request table.
+   *
+   * @param buffer The request buffer with a placeholder for the request ID.
+   * @param future The request future.
+   * @param timeout The request timeout in milliseconds.
+   * @param high Whether to send the request with high priority.
+   */
+  private void sendRequest(ByteBuf buffer, ContextualFuture<?> future, long timeout, boolean high) {
+    if (closed || failure != null) {
+      buffer.release();
+      future.context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
+      return;
+    }
+
+    if (maxInFlight > 0 && requests.size() >= maxInFlight) {
+      buffer.release();
+      future.context.executor().execute(() -> future.completeExceptionally(new TransportException("too many requests in flight")));
+      return;
+    }
+
+    long requestId = ++this.requestId;
+    buffer.setLong(1, requestId);
+    requests.add(requestId, future, timeout, System.currentTimeMillis());
+    inFlight = requests.size();
+    metrics.recordRequest();
+    metrics.recordMessagesOut(1);
+
+    writeFuture = write(buffer, channel.newPromise(), high).addListener((channelFuture) -> {
+      if (!channelFuture.isSuccess() && requests.remove(requestId) != null) {
+        metrics.recordFailure();
+        updateInFlight();
+        future.context.executor().execute(() -> future.completeExceptionally(channelFuture.cause()));
+      }
+    });
+  }
+
+  /**
+   * Registers a batch of requests in the request table and writes the batch to the channel.
+   * <p>
+   * This method must be called on the channel's event loop, which owns the request table.
+   *
+   * @param buffer The batch buffer with placeholders for the request IDs.
+   * @param futures The request futures.
+   * @param offsets The offsets of the request ID placeholders in the buffer.
+   * @param count The number of requests in the batch.
+   * @param timeout The request timeout in milliseconds.
+   * @param high Whether to send the batch with high priority.
+   */
+  private void sendRequests(ByteBuf buffer, ContextualFuture<?>[] futures, int[] offsets, int count, long timeout, boolean high) {
+    if (closed || failure != null) {
+      buffer.release();
+      for (int i = 0; i < count; i++) {
+        ContextualFuture<?> future = futures[i];
+        future.context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
+      }
+      return;
+    }
+
+    if (maxInFlight > 0 && requests.size() >= maxInFlight) {
+      buffer.release();
+      for (int i = 0; i < count; i++) {
+        ContextualFuture<?> future = futures[i];
+        future.context.executor().execute(() -> future.completeExceptionally(new TransportException("too many requests in flight")));
+      }
+      return;
+    }
+
+    long time = System.currentTimeMillis();
+    long firstRequestId = this.requestId + 1;
+    for (int i = 0; i < count; i++) {
+      long requestId = ++this.requestId;
+      buffer.setLong(offsets[i], requestId);
+      requests.add(requestId, futures[i], timeout, time);
+      metrics.recordRequest();
+    }
+    inFlight = requests.size();
+    metrics.recordMessagesOut(count);
+
+    writeFuture = write(buffer, channel.newPromise(), high).addListener((channelFuture) -> {
+      if (!channelFuture.isSuccess()) {
+        for (long requestId = firstRequestId; requestId < firstRequestId + count; requestId++) {
+          ContextualFuture<?> future = requests.remove(requestId);
+          if (future != null) {
+            metrics.recordFailure();
+            future.context.executor().execute(() -> future.completeExceptionally(channelFuture.cause()));
           }
         }
-      } else {
-        future.context.executor().execute(() -> future.completeExceptionally(channelFuture.cause()));
+        updateInFlight();
       }
     });
-    return future;
   }
 
   @Override
@@ -406,6 +1592,41 @@ public class NettyConnection implements Connection {
     return null;
   }
 
+  /**
+   * Registers a handler to be called on the given context, or removes the handler for the type if the handler is null.
+   */
+  void handler(Class<?> type, Function<?, ?> handler, ThreadContext context) {
+    if (handler != null) {
+      handlers.put(type, new HandlerHolder(handler, context));
+    } else {
+      handlers.remove(type);
+    }
+  }
+
+  @Override
+  public <T> Connection streamHandler(Class<T> type, Function<T, StreamListener> handler) {
+    Assert.notNull(type, "type");
+    streamHandler(type, handler, ThreadContext.currentContextOrThrow());
+    return this;
+  }
+
+  /**
+   * Registers a stream handler to be called on the given context, or removes the stream handler for the type if
+   * the handler is null.
+   */
+  void streamHandler(Class<?> type, Function<?, StreamListener> handler, ThreadContext context) {
+    if (handler != null) {
+      streamHandlers.put(type, new StreamHandlerHolder(handler, context));
+    } else {
+      streamHandlers.remove(type);
+    }
+  }
+
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
   @Override
   public Listener<Throwable> onException(Consumer<Throwable> listener) {
     if (failure != null) {
@@ -426,6 +1647,7 @@ public class NettyConnection implements Connection {
   public CompletableFuture<Void> close() {
     ThreadContext context = ThreadContext.currentContextOrThrow();
     CompletableFuture<Void> future = new CompletableFuture<>();
+    channel.flush();
     if (writeFuture != null && !writeFuture.isDone()) {
       writeFuture.addListener(channelFuture -> {
         channel.close().addListener(closeFuture -> {
@@ -459,28 +1681,395 @@ public class NettyConnection implements Connection {
   }
 
   /**
-   * Holds message handler and thread context.
+   * Normal priority write deferred until the frame being fragmented has been written.
    */
-  protected static class HandlerHolder {
-    private final Function<Object, CompletableFuture<Object>> handler;
+  private static final class DeferredWrite {
+    private final Object frame;
+    private final long size;
+    private final ChannelPromise promise;
+
+    private DeferredWrite(Object frame, long size, ChannelPromise promise) {
+      this.frame = frame;
+      this.size = size;
+      this.promise = promise;
+    }
+  }
+
+  /**
+   * Collects the responses to a batch of requests into batch frames.
+   * <p>
+   * Batch responses are only accessed from the channel's event loop. Each request in the batch must either
+   * {@link #add(ByteBuf) add} a response or be {@link #skip() skipped}. Responses are written as they complete
+   * rather than once all requests have been accounted for, and responses completed during the same event loop
+   * tick are written together in a single batch frame.
+   */
+  private final class BatchResponse {
+    private int remaining;
+    private int count;
+    private CompositeByteBuf buffer;
+    private boolean scheduled;
+
+    private final boolean high;
+
+    private BatchResponse(int size, boolean high) {
+      this.remaining = size;
+      this.high = high;
+    }
+
+    /**
+     * Adds a length-prefixed response to the batch.
+     */
+    private void add(ByteBuf response) {
+      if (buffer == null) {
+        buffer = channel.alloc().compositeBuffer(remaining + 1);
+        buffer.addComponent(true, channel.alloc().buffer(5).writeByte(BATCH).writeInt(0));
+      }
+      buffer.addComponent(true, response);
+      count++;
+      skip();
+    }
+
+    /**
+     * Marks a request in the batch as handled without a response.
+     * <p>
+     * Responses that have been added are written at the end of the current event loop tick, or immediately once
+     * every request in the batch has been handled.
+     */
+    private void skip() {
+      if (--remaining == 0) {
+        flush();
+      } else if (buffer != null && !scheduled) {
+        scheduled = true;
+        channel.eventLoop().execute(this::flush);
+      }
+    }
+
+    /**
+     * Writes the responses that have been added since the last write.
+     */
+    private void flush() {
+      scheduled = false;
+      if (buffer != null) {
+        buffer.setInt(1, count);
+        write(buffer, channel.voidPromise(), high);
+        buffer = null;
+        count = 0;
+      }
+    }
+  }
+
+
+  /**
+   * Stream being sent to the other side of the connection.
+   * <p>
+   * Outbound streams are only accessed from the sender's context, on which the data is read.
+   */
+  private final class OutboundStream {
+    private final long id;
+    private final InputStream data;
+    private final FileBuffer buffer;
+    private final File file;
+    private final ThreadContext context;
+    private final CompletableFuture<Void> future = new CompletableFuture<>();
+    private int window = streamWindow;
+    private boolean ended;
+
+    private OutboundStream(long id, InputStream data, ThreadContext context) {
+      this.id = id;
+      this.data = data;
+      this.buffer = null;
+      this.file = null;
+      this.context = context;
+    }
+
+    private OutboundStream(long id, FileBuffer buffer, ThreadContext context) {
+      this.id = id;
+      this.data = null;
+      this.buffer = buffer;
+      this.file = buffer.file();
+      this.context = context;
+    }
+
+    /**
+     * Sends chunks until the window is full or the end of the data has been sent.
+     */
+    private void pump() {
+      if (file != null) {
+        pumpFile();
+        return;
+      }
+
+      while (window > 0 && !ended && !future.isDone()) {
+        ByteBuf buffer = channel.alloc().buffer(9 + streamChunkSize)
+          .writeByte(STREAM_CHUNK)
+          .writeLong(id);
+
+        int read;
+        try {
+          read = read(buffer);
+        } catch (IOException e) {
+          buffer.release();
+          abort(e);
+          return;
+        }
+
+        if (read > 0) {
+          window--;
+          writeFuture = write(buffer, channel.voidPromise());
+        } else {
+          buffer.release();
+        }
+
+        if (read < streamChunkSize) {
+          end();
+        }
+      }
+    }
+
+    /**
+     * Sends chunks of the file buffer as file regions until the window is full or the end of the buffer has been sent.
+     * <p>
+     * File buffers write through to the file, so the regions include all writes made to the buffer before it was
+     * streamed. The buffer's position is advanced past each chunk as it's sent.
+     */
+    private void pumpFile() {
+      while (window > 0 && !ended && !future.isDone()) {
+        long length = Math.min(buffer.remaining(), streamChunkSize);
+        if (length > 0) {
+          ByteBuf header = channel.alloc().buffer(9)
+            .writeByte(STREAM_CHUNK)
+            .writeLong(id);
+          FileFrame frame = new FileFrame(header, new DefaultFileRegion(file, buffer.offset() + buffer.position(), length));
+          buffer.skip(length);
+          window--;
+          writeFuture = write(frame, frame.length(), channel.voidPromise());
+        }
+
+        if (!buffer.hasRemaining()) {
+          end();
+        }
+      }
+    }
+
+    /**
+     * Sends the end of the stream.
+     */
+    private void end() {
+      ended = true;
+      writeFuture = write(channel.alloc().buffer(10)
+        .writeByte(STREAM_END)
+        .writeLong(id)
+        .writeByte(SUCCESS), channel.voidPromise());
+    }
+
+    /**
+     * Reads up to a chunk of data into the given buffer.
+     *
+     * @return The number of bytes read, which is less than the chunk size only at the end of the data.
+     */
+    private int read(ByteBuf buffer) throws IOException {
+      int read = 0;
+      while (read < streamChunkSize) {
+        // Some input streams, such as BufferInputStream, return 0 rather than -1 once exhausted.
+        int bytes = buffer.writeBytes(data, streamChunkSize - read);
+        if (bytes <= 0) {
+          break;
+        }
+        read += bytes;
+      }
+      return read;
+    }
+
+    /**
+     * Handles an acknowledgement from the receiver.
+     */
+    private void ack(byte status) {
+      switch (status) {
+        case STREAM_CHUNK:
+          window++;
+          pump();
+          break;
+        case SUCCESS:
+          outboundStreams.remove(id);
+          closeData();
+          future.complete(null);
+          break;
+        default:
+          outboundStreams.remove(id);
+          fail(new TransportException("stream rejected"));
+          break;
+      }
+    }
+
+    /**
+     * Aborts the stream after failing to read the data.
+     */
+    private void abort(Throwable error) {
+      if (outboundStreams.remove(id) != null) {
+        writeFuture = write(channel.alloc().buffer(10)
+          .writeByte(STREAM_END)
+          .writeLong(id)
+          .writeByte(FAILURE), channel.voidPromise());
+      }
+      fail(error);
+    }
+
+    /**
+     * Fails the stream.
+     */
+    private void fail(Throwable error) {
+      closeData();
+      future.completeExceptionally(error);
+    }
+
+    /**
+     * Closes the input stream.
+     */
+    private void closeData() {
+      if (data != null) {
+        try {
+          data.close();
+        } catch (IOException e) {
+          LOGGER.debug("Failed to close stream", e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Stream being received from the other side of the connection.
+   * <p>
+   * Inbound streams are only accessed from the stream handler's context.
+   */
+  private final class InboundStream {
+    private final long id;
+    private final ThreadContext context;
+    private StreamListener listener;
+
+    private InboundStream(long id, ThreadContext context) {
+      this.id = id;
+      this.context = context;
+    }
+
+    /**
+     * Deserializes the message that opened the stream and creates the stream listener.
+     * <p>
+     * If the message was serialized as an abstract type, the handler for the class of the message is selected once
+     * it has been deserialized. Chunks are already queued on this stream's context, so the stream is rejected if
+     * that handler is registered on a different context.
+     */
+    private void open(ByteBuf buffer, StreamHandlerHolder handler, boolean resolve) {
+      try {
+        Object message = readRequest(buffer, context);
+        if (resolve) {
+          handler = message != null ? streamHandlers.get(message.getClass()) : null;
+          if (handler == null || handler.context != context) {
+            LOGGER.debug("Rejecting stream of type: {}", message != null ? message.getClass() : null);
+            release(message);
+            handler = null;
+          }
+        }
+        if (handler != null) {
+          listener = handler.handler.apply(message);
+        }
+      } catch (Exception e) {
+        LOGGER.debug("Failed to open stream", e);
+      } finally {
+        buffer.release();
+      }
+
+      if (listener == null) {
+        reject();
+      }
+    }
+
+    /**
+     * Passes a chunk to the stream listener and acknowledges it.
+     */
+    private void chunk(ByteBuf buffer) {
+      if (listener == null) {
+        buffer.release();
+        return;
+      }
+
+      try {
+        listener.onChunk(wrap(buffer));
+      } catch (Exception e) {
+        LOGGER.debug("Stream listener failed", e);
+        listener = null;
+        reject();
+        return;
+      } finally {
+        buffer.release();
+      }
+      sendStreamAck(id, STREAM_CHUNK);
+    }
+
+    /**
+     * Completes or aborts the stream.
+     */
+    private void end(byte status) {
+      if (listener == null) {
+        return;
+      }
+
+      if (status == SUCCESS) {
+        try {
+          listener.onComplete();
+          sendStreamAck(id, SUCCESS);
+        } catch (Exception e) {
+          LOGGER.debug("Stream listener failed", e);
+          sendStreamAck(id, FAILURE);
+        }
+      } else {
+        listener.onError(new TransportException("stream aborted"));
+      }
+      listener = null;
+    }
+
+    /**
+     * Fails the stream after the connection has been closed.
+     */
+    private void fail(Throwable error) {
+      if (listener != null) {
+        listener.onError(error);
+        listener = null;
+      }
+    }
+
+    /**
+     * Rejects the rest of the stream.
+     */
+    private void reject() {
+      inboundStreams.remove(id);
+      sendStreamAck(id, FAILURE);
+    }
+  }
+
+  /**
+   * Holds stream handler and thread context.
+   */
+  private static class StreamHandlerHolder {
+    private final Function<Object, StreamListener> handler;
     private final ThreadContext context;
 
     @SuppressWarnings("unchecked")
-    private HandlerHolder(Function handler, ThreadContext context) {
+    private StreamHandlerHolder(Function handler, ThreadContext context) {
       this.handler = handler;
       this.context = context;
     }
   }
 
   /**
-   * Contextual future.
+   * Holds message handler and thread context.
    */
-  private static class ContextualFuture<T> extends CompletableFuture<T> {
-    private final long time;
+  protected static class HandlerHolder {
+    private final Function<Object, CompletableFuture<Object>> handler;
     private final ThreadContext context;
 
-    private ContextualFuture(long time, ThreadContext context) {
-      this.time = time;
+    @SuppressWarnings("unchecked")
+    private HandlerHolder(Function handler, ThreadContext context) {
+      this.handler = handler;
       this.context = context;
     }
   }
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.concurrent.ComposableFuture;
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.TransportMetrics;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.catalyst.util.reference.ReferenceCounted;
+import io.netty.bootstrap.Bootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.FixedRecvByteBufAllocator;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.socket.DatagramPacket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
+
+/**
+ * Netty datagram transport.
+ * <p>
+ * The datagram transport sends fire-and-forget messages as UDP datagrams, one serialized message per datagram,
+ * without any per-peer channel or stream framing. It is intended for small, loss-tolerant messages such as failure
+ * detector heartbeats and gossip, which would otherwise queue behind bulk data on connection-oriented transports.
+ * Datagrams sent from any thread are queued and written to the channel in batches from its event loop with a single
+ * flush, which allows the native epoll transport to send them with one {@code sendmmsg} call.
+ * <pre>
+ *   {@code
+ *   NettyDatagramTransport datagrams = transport.datagrams();
+ *   datagrams.handler(Heartbeat.class, (sender, heartbeat) -> detector.heartbeat(sender));
+ *   datagrams.bind(new Address("0.0.0.0", 5678)).thenRun(() -> {
+ *     datagrams.send(member, new Heartbeat());
+ *   });
+ *   }
+ * </pre>
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class NettyDatagramTransport implements AutoCloseable {
+  private static final Logger LOGGER = LoggerFactory.getLogger(NettyDatagramTransport.class);
+  private static final ByteBufAllocator ALLOCATOR = new PooledByteBufAllocator(true);
+  private static final ThreadLocal<ByteBufInput> INPUT = new ThreadLocal<ByteBufInput>() {
+    @Override
+    protected ByteBufInput initialValue() {
+      return new ByteBufInput();
+    }
+  };
+  private static final ThreadLocal<ByteBufOutput> OUTPUT = new ThreadLocal<ByteBufOutput>() {
+    @Override
+    protected ByteBufOutput initialValue() {
+      return new ByteBufOutput();
+    }
+  };
+
+  private final NettyTransport transport;
+  private final Map<Class<?>, HandlerHolder> handlers = new ConcurrentHashMap<>();
+  private final Queue<PendingDatagram> writes = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean flushScheduled = new AtomicBoolean();
+  private final TransportMetrics metrics = new TransportMetrics();
+  private volatile Channel channel;
+
+  /**
+   * @throws NullPointerException if {@code transport} is null
+   */
+  public NettyDatagramTransport(NettyTransport transport) {
+    this.transport = Assert.notNull(transport, "transport");
+  }
+
+  /**
+   * Binds the transport to the given address.
+   * <p>
+   * The transport must be bound before it can send or receive datagrams. Transports that only send datagrams may
+   * bind to port {@code 0} to use an ephemeral port.
+   *
+   * @param address The address to which to bind.
+   * @return A future to be completed once the transport has been bound.
+   */
+  public synchronized CompletableFuture<Void> bind(Address address) {
+    Assert.notNull(address, "address");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    if (channel != null) {
+      return Futures.exceptionalFuture(new IllegalStateException("already bound"));
+    }
+
+    NettyOptions options = transport.properties();
+    Bootstrap bootstrap = new Bootstrap();
+    bootstrap.group(transport.eventLoopGroup())
+      .channel(transport.datagramChannelClass())
+      .handler(new DatagramHandler(context.serializer()))
+      .option(ChannelOption.ALLOCATOR, ALLOCATOR)
+      .option(ChannelOption.RCVBUF_ALLOCATOR, new FixedRecvByteBufAllocator(options.maxDatagramSize()))
+      .option(ChannelOption.SO_REUSEADDR, options.reuseAddress());
+
+    if (options.sendBufferSize() != -1) {
+      bootstrap.option(ChannelOption.SO_SNDBUF, options.sendBufferSize());
+    }
+    if (options.receiveBufferSize() != -1) {
+      bootstrap.option(ChannelOption.SO_RCVBUF, options.receiveBufferSize());
+    }
+
+    ComposableFuture<Void> future = new ComposableFuture<>();
+    address.resolve().whenComplete((socketAddress, error) -> {
+      if (error != null) {
+        context.execute(() -> future.completeExceptionally(error));
+        return;
+      }
+
+      ChannelFuture bindFuture = bootstrap.bind(socketAddress);
+      bindFuture.addListener(channelFuture -> {
+        if (channelFuture.isSuccess()) {
+          channel = bindFuture.channel();
+          LOGGER.info("Datagram transport bound to {}", channel.localAddress());
+          context.execute(() -> future.complete(null));
+        } else {
+          context.execute(() -> future.completeExceptionally(channelFuture.cause()));
+        }
+      });
+    });
+    return future;
+  }
+
+  /**
+   * Sends a message to the given address.
+   * <p>
+   * The message is serialized on the calling thread with the serializer of the current context. Delivery is not
+   * guaranteed: the returned future only indicates whether the datagram was written to the network.
+   *
+   * @param address The address to which to send the message.
+   * @param message The message to send.
+   * @return A future to be completed once the datagram has been written.
+   */
+  public CompletableFuture<Void> send(Address address, Object message) {
+    Assert.notNull(address, "address");
+    Assert.notNull(message, "message");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    Channel channel = this.channel;
+    if (channel == null) {
+      release(message);
+      return Futures.exceptionalFuture(new IllegalStateException("not bound"));
+    }
+
+    ByteBuf buffer = channel.alloc().buffer();
+    try {
+      context.serializer().writeObject(message, OUTPUT.get().setByteBuf(buffer));
+    } catch (Exception e) {
+      buffer.release();
+      return Futures.exceptionalFuture(e);
+    } finally {
+      release(message);
+    }
+
+    int maxDatagramSize = transport.properties().maxDatagramSize();
+    if (buffer.readableBytes() > maxDatagramSize) {
+      int size = buffer.readableBytes();
+      buffer.release();
+      return Futures.exceptionalFuture(new IllegalArgumentException("message of " + size + " bytes exceeds max datagram size of " + maxDatagramSize));
+    }
+
+    ComposableFuture<Void> future = new ComposableFuture<>();
+    address.resolve().whenComplete((socketAddress, error) -> {
+      if (error != null) {
+        buffer.release();
+        context.execute(() -> future.completeExceptionally(error));
+      } else {
+        enqueue(channel, new PendingDatagram(new DatagramPacket(buffer, socketAddress), future, context));
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Releases a reference counted message once it has been serialized.
+   */
+  private static void release(Object message) {
+    if (message instanceof ReferenceCounted) {
+      ((ReferenceCounted<?>) message).release();
+    }
+  }
+
+  /**
+   * Queues a datagram to be written to the given channel in the next batch.
+   * <p>
+   * If the channel's event loop has been shut down, the queued datagrams are failed since no flush will run.
+   */
+  private void enqueue(Channel channel, PendingDatagram datagram) {
+    writes.add(datagram);
+    if (flushScheduled.compareAndSet(false, true)) {
+      try {
+        channel.eventLoop().execute(() -> flush(channel));
+      } catch (RejectedExecutionException e) {
+        flushScheduled.set(false);
+        fail(e);
+      }
+    }
+  }
+
+  /**
+   * Writes all queued datagrams to the given channel and flushes them together.
+   * <p>
+   * The channel is the one on which the datagrams were sent rather than the current channel, which is cleared
+   * once the transport is closed. Writes to a closed channel fail and release their packets.
+   */
+  private void flush(Channel channel) {
+    flushScheduled.set(false);
+    int count = 0;
+    PendingDatagram datagram;
+    while ((datagram = writes.poll()) != null) {
+      PendingDatagram written = datagram;
+      channel.write(datagram.packet).addListener(channelFuture -> {
+        if (channelFuture.isSuccess()) {
+          written.context.execute(() -> written.future.complete(null));
+        } else {
+          written.context.execute(() -> written.future.completeExceptionally(channelFuture.cause()));
+        }
+      });
+      count++;
+    }
+
+    if (count > 0) {
+      metrics.recordMessagesOut(count);
+      channel.flush();
+    }
+  }
+
+  /**
+   * Registers a handler for messages of the given type.
+   * <p>
+   * The handler is called on the current context with the address from which the datagram was sent. Messages of
+   * types without a handler are dropped.
+   *
+   * @param type The message type.
+   * @param handler The message handler, or {@code null} to remove the handler.
+   * @param <T> The message type.
+   * @return The datagram transport.
+   */
+  public <T> NettyDatagramTransport handler(Class<T> type, BiConsumer<Address, T> handler) {
+    Assert.notNull(type, "type");
+    if (handler != null) {
+      handlers.put(type, new HandlerHolder(handler, ThreadContext.currentContextOrThrow()));
+    } else {
+      handlers.remove(type);
+    }
+    return this;
+  }
+
+  /**
+   * Returns the datagram transport metrics.
+   *
+   * @return The datagram transport metrics.
+   */
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the local address to which the transport is bound.
+   *
+   * @return The local address or {@code null} if the transport is not bound.
+   */
+  public InetSocketAddress localAddress() {
+    Channel channel = this.channel;
+    return channel != null ? (InetSocketAddress) channel.localAddress() : null;
+  }
+
+  /**
+   * Releases all queued datagrams and fails their futures with the given error.
+   */
+  private void fail(Throwable error) {
+    PendingDatagram datagram;
+    while ((datagram = writes.poll()) != null) {
+      PendingDatagram failed = datagram;
+      failed.packet.release();
+      failed.context.execute(() -> failed.future.completeExceptionally(error));
+    }
+  }
+
+  @Override
+  public synchronized void close() {
+    Channel channel = this.channel;
+    if (channel != null) {
+      this.channel = null;
+      channel.close();
+      fail(new IllegalStateException("transport closed"));
+    }
+  }
+
+  /**
+   * Handles datagrams received on the channel's event loop.
+   */
+  private class DatagramHandler extends SimpleChannelInboundHandler<DatagramPacket> {
+    private final Serializer serializer;
+
+    private DatagramHandler(Serializer serializer) {
+      this.serializer = serializer;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void channelRead0(ChannelHandlerContext context, DatagramPacket packet) throws Exception {
+      metrics.recordMessageIn();
+      ByteBuf buffer = packet.content();
+      Serializer serializer = transport.context(context.channel().eventLoop(), this.serializer).serializer();
+
+      HandlerHolder holder;
+      Object message;
+      try {
+        int readerIndex = buffer.readerIndex();
+        Class<?> type = serializer.readType(INPUT.get().setByteBuf(buffer));
+        holder = handlers.get(type);
+        if (holder == null) {
+          return;
+        }
+        buffer.readerIndex(readerIndex);
+        message = serializer.readObject(INPUT.get().setByteBuf(buffer));
+      } catch (Exception e) {
+        LOGGER.debug("Dropping malformed datagram from {}", packet.sender(), e);
+        return;
+      }
+
+      metrics.recordMessageType(message.getClass());
+      Address sender = new Address(packet.sender());
+      BiConsumer<Address, Object> handler = (BiConsumer<Address, Object>) holder.handler;
+      try {
+        holder.context.executor().execute(() -> handler.accept(sender, message));
+      } catch (RejectedExecutionException e) {
+      }
+    }
+  }
+
+  /**
+   * Datagram waiting to be written.
+   */
+  private static class PendingDatagram {
+    private final DatagramPacket packet;
+    private final CompletableFuture<Void> future;
+    private final ThreadContext context;
+
+    private PendingDatagram(DatagramPacket packet, CompletableFuture<Void> future, ThreadContext context) {
+      this.packet = packet;
+      this.future = future;
+      this.context = context;
+    }
+  }
+
+  /**
+   * Holds a message handler and the context on which to call it.
+   */
+  private static class HandlerHolder {
+    private final BiConsumer<Address, ?> handler;
+    private final ThreadContext context;
+
+    private HandlerHolder(BiConsumer<Address, ?> handler, ThreadContext context) {
+      this.handler = handler;
+      this.context = context;
+    }
+  }
+
+}
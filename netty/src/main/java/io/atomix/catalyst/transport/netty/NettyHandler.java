@@ -15,9 +15,9 @@
  */
 package io.atomix.catalyst.transport.netty;
 
-import io.atomix.catalyst.concurrent.SingleThreadContext;
 import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.TransportMetrics;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
@@ -26,6 +26,7 @@ import io.netty.handler.timeout.IdleState;
 import io.netty.handler.timeout.IdleStateEvent;
 
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
@@ -38,13 +39,21 @@ class NettyHandler extends ChannelInboundHandlerAdapter {
   private final Map<Channel, NettyConnection> connections;
   private final Consumer<Connection> listener;
   private final ThreadContext context;
-  private final NettyOptions options;
+  private final NettyTransport transport;
+  private final TransportMetrics metrics;
+  private final AdmissionControl admission;
 
-  protected NettyHandler(Map<Channel, NettyConnection> connections, Consumer<Connection> listener, ThreadContext context, NettyOptions options) {
+  protected NettyHandler(Map<Channel, NettyConnection> connections, Consumer<Connection> listener, ThreadContext context, NettyTransport transport, TransportMetrics metrics) {
+    this(connections, listener, context, transport, metrics, null);
+  }
+
+  protected NettyHandler(Map<Channel, NettyConnection> connections, Consumer<Connection> listener, ThreadContext context, NettyTransport transport, TransportMetrics metrics, AdmissionControl admission) {
     this.connections = connections;
     this.listener = listener;
     this.context = context;
-    this.options = options;
+    this.transport = transport;
+    this.metrics = metrics;
+    this.admission = admission;
   }
 
   /**
@@ -77,59 +86,118 @@ class NettyHandler extends ChannelInboundHandlerAdapter {
     return connections.remove(channel);
   }
 
-  /**
-   * Returns the current execution context or creates one.
-   */
-  private ThreadContext getOrCreateContext(Channel channel) {
-    ThreadContext context = ThreadContext.currentContext();
-    if (context != null) {
-      return context;
-    }
-    return new SingleThreadContext(Thread.currentThread(), channel.eventLoop(), this.context.serializer().clone());
-  }
-
   @Override
   public void channelActive(ChannelHandlerContext context) throws Exception {
     Channel channel = context.channel();
-    NettyConnection connection = new NettyConnection(channel, getOrCreateContext(channel), options);
+    NettyConnection connection = new NettyConnection(channel, transport.context(channel.eventLoop(), this.context.serializer()), transport.properties(), metrics, admission);
     setConnection(channel, connection);
-    // synchronously notify listeners in order to ensure message handlers
-    // are registered before messages are handled.
-    CompletableFuture.runAsync(() -> listener.accept(connection), this.context.executor()).join();
+    // Notify listeners asynchronously to avoid blocking the event loop. Frames received before the listener
+    // has completed are deferred and replayed in order afterwards to ensure message handlers are registered
+    // before messages are handled.
+    CompletableFuture.runAsync(() -> listener.accept(connection), this.context.executor())
+      .whenComplete((result, error) -> channel.eventLoop().execute(() -> {
+        if (error == null) {
+          Queue<ByteBuf> frames = connection.accept();
+          if (frames != null) {
+            for (ByteBuf frame : frames) {
+              handleFrame(connection, frame);
+            }
+            connection.readComplete();
+          }
+        } else {
+          context.fireExceptionCaught(error);
+        }
+      }));
   }
 
   @Override
   public void channelRead(final ChannelHandlerContext context, Object message) {
     ByteBuf buffer = (ByteBuf) message;
+    NettyConnection connection = getConnection(context.channel());
+    if (connection == null) {
+      buffer.release();
+      return;
+    }
+
+    // Account for the length field stripped by the frame decoder.
+    connection.metrics().recordBytesIn(buffer.readableBytes() + 4);
+
+    if (!connection.defer(buffer)) {
+      handleFrame(connection, buffer);
+    }
+  }
+
+  /**
+   * Handles a frame.
+   */
+  private void handleFrame(NettyConnection connection, ByteBuf buffer) {
+    handleFrame(connection, buffer, false);
+  }
+
+  /**
+   * Handles a frame, unwrapping high priority frames and reassembling fragmented frames.
+   */
+  private void handleFrame(NettyConnection connection, ByteBuf buffer, boolean high) {
     int type = buffer.readByte();
     switch (type) {
       case NettyConnection.REQUEST:
-        handleRequest(buffer, context);
+        connection.handleRequest(buffer, high);
+        break;
+      case NettyConnection.DEADLINE_REQUEST:
+        connection.handleDeadlineRequest(buffer, high);
         break;
       case NettyConnection.RESPONSE:
-        handleResponse(buffer, context);
+        connection.handleResponse(buffer);
+        break;
+      case NettyConnection.MESSAGE:
+        connection.handleMessage(buffer);
+        break;
+      case NettyConnection.BATCH:
+        connection.handleBatch(buffer, high);
+        break;
+      case NettyConnection.STREAM_OPEN:
+        connection.handleStreamOpen(buffer);
+        break;
+      case NettyConnection.STREAM_CHUNK:
+        connection.handleStreamChunk(buffer);
+        break;
+      case NettyConnection.STREAM_END:
+        connection.handleStreamEnd(buffer);
+        break;
+      case NettyConnection.STREAM_ACK:
+        connection.handleStreamAck(buffer);
+        break;
+      case NettyConnection.PRIORITY:
+        handleFrame(connection, buffer, true);
+        break;
+      case NettyConnection.FRAGMENT:
+        ByteBuf frame = connection.handleFragment(buffer);
+        if (frame != null) {
+          handleFrame(connection, frame, false);
+        }
+        break;
+      default:
+        buffer.release();
         break;
     }
   }
 
-  /**
-   * Handles a request.
-   */
-  private void handleRequest(ByteBuf request, ChannelHandlerContext context) {
+  @Override
+  public void channelReadComplete(ChannelHandlerContext context) throws Exception {
     NettyConnection connection = getConnection(context.channel());
     if (connection != null) {
-      connection.handleRequest(request);
+      connection.readComplete();
     }
+    super.channelReadComplete(context);
   }
 
-  /**
-   * Handles a response.
-   */
-  private void handleResponse(ByteBuf response, ChannelHandlerContext context) {
+  @Override
+  public void channelWritabilityChanged(ChannelHandlerContext context) throws Exception {
     NettyConnection connection = getConnection(context.channel());
     if (connection != null) {
-      connection.handleResponse(response);
+      connection.handleWritabilityChanged();
     }
+    super.channelWritabilityChanged(context);
   }
 
   @Override
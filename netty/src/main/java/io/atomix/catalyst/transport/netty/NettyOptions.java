@@ -15,9 +15,12 @@
  */
 package io.atomix.catalyst.transport.netty;
 
+import io.atomix.catalyst.transport.Priority;
 import io.atomix.catalyst.util.ConfigurationException;
 import io.atomix.catalyst.util.PropertiesReader;
+import io.netty.handler.ssl.SslProvider;
 
+import java.util.Map;
 import java.util.Properties;
 
 /**
@@ -36,9 +39,38 @@ public final class NettyOptions {
   public static final String TCP_NO_DELAY = "tcpNoDelay";
   public static final String ACCEPT_BACKLOG = "acceptBacklog";
   public static final String REQUEST_TIMEOUT = "requestTimeout";
+  public static final String FLUSH_DELAY = "flushDelay";
+  public static final String FLUSH_THRESHOLD = "flushThreshold";
+  public static final String EPOLL = "epoll";
+  public static final String REUSE_PORT = "reusePort";
+  public static final String TCP_QUICK_ACK = "tcpQuickAck";
+  public static final String BUSY_POLL = "busyPoll";
+  public static final String POOL_SIZE = "poolSize";
+  public static final String MAX_IN_FLIGHT = "maxInFlight";
+  public static final String MAX_QUEUE_DEPTH = "maxQueueDepth";
+  public static final String REJECT_QUEUE_DEPTH = "rejectQueueDepth";
+  public static final String WRITE_BUFFER_LOW_WATER_MARK = "writeBufferLowWaterMark";
+  public static final String WRITE_BUFFER_HIGH_WATER_MARK = "writeBufferHighWaterMark";
+  public static final String RECONNECT_BACKOFF = "reconnectBackoff";
+  public static final String MAX_RECONNECT_BACKOFF = "maxReconnectBackoff";
+  public static final String PROPAGATE_DEADLINES = "propagateDeadlines";
+  public static final String ONE_WAY_MESSAGES = "oneWayMessages";
+  public static final String PRIORITY_LANES = "priorityLanes";
+  public static final String PRIORITY = "priority";
+  public static final String STREAM_CHUNK_SIZE = "streamChunkSize";
+  public static final String STREAM_WINDOW = "streamWindow";
+  public static final String DOMAIN_SOCKETS = "domainSockets";
+  public static final String DOMAIN_SOCKET_DIRECTORY = "domainSocketDirectory";
+  public static final String MAX_DATAGRAM_SIZE = "maxDatagramSize";
+  public static final String ADAPTIVE_TIMEOUTS = "adaptiveTimeouts";
+  public static final String MIN_REQUEST_TIMEOUT = "minRequestTimeout";
+  public static final String MAX_REQUEST_TIMEOUT = "maxRequestTimeout";
 
   public static final String SSL_ENABLED = "ssl.enabled";
   public static final String SSL_PROTOCOL = "ssl.protocol";
+  public static final String SSL_PROVIDER = "ssl.provider";
+  public static final String SSL_SESSION_CACHE_SIZE = "ssl.sessionCacheSize";
+  public static final String SSL_SESSION_TIMEOUT = "ssl.sessionTimeout";
   public static final String SSL_TRUST_STORE_PATH = "ssl.trustStore.path";
   public static final String SSL_TRUST_STORE_PASSWORD = "ssl.trustStore.password";
   public static final String SSL_KEY_STORE_PATH = "ssl.keyStore.path";
@@ -55,9 +87,37 @@ public final class NettyOptions {
   private static final boolean DEFAULT_TCP_NO_DELAY = false;
   private static final int DEFAULT_ACCEPT_BACKLOG = 1024;
   private static final int DEFAULT_REQUEST_TIMEOUT = 500;
+  private static final int DEFAULT_FLUSH_DELAY = 0;
+  private static final int DEFAULT_FLUSH_THRESHOLD = 64 * 1024;
+  private static final boolean DEFAULT_EPOLL = false;
+  private static final boolean DEFAULT_REUSE_PORT = false;
+  private static final boolean DEFAULT_TCP_QUICK_ACK = false;
+  private static final int DEFAULT_BUSY_POLL = 0;
+  private static final int DEFAULT_POOL_SIZE = 0;
+  private static final int DEFAULT_MAX_IN_FLIGHT = 0;
+  private static final int DEFAULT_MAX_QUEUE_DEPTH = 0;
+  private static final int DEFAULT_REJECT_QUEUE_DEPTH = 0;
+  private static final int DEFAULT_WRITE_BUFFER_LOW_WATER_MARK = 32 * 1024;
+  private static final int DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK = 64 * 1024;
+  private static final int DEFAULT_RECONNECT_BACKOFF = 100;
+  private static final int DEFAULT_MAX_RECONNECT_BACKOFF = 10000;
+  private static final boolean DEFAULT_PROPAGATE_DEADLINES = false;
+  private static final boolean DEFAULT_ONE_WAY_MESSAGES = false;
+  private static final boolean DEFAULT_PRIORITY_LANES = false;
+  private static final int DEFAULT_STREAM_CHUNK_SIZE = 64 * 1024;
+  private static final int DEFAULT_STREAM_WINDOW = 16;
+  private static final boolean DEFAULT_DOMAIN_SOCKETS = false;
+  private static final String DEFAULT_DOMAIN_SOCKET_DIRECTORY = System.getProperty("java.io.tmpdir");
+  private static final int DEFAULT_MAX_DATAGRAM_SIZE = 8192;
+  private static final boolean DEFAULT_ADAPTIVE_TIMEOUTS = false;
+  private static final int DEFAULT_MIN_REQUEST_TIMEOUT = 50;
+  private static final int DEFAULT_MAX_REQUEST_TIMEOUT = 30000;
 
   private static final boolean DEFAULT_SSL_ENABLED = false;
   private static final String DEFAULT_SSL_PROTOCOL = "TLSv1.2";
+  private static final String DEFAULT_SSL_PROVIDER = "JDK";
+  private static final long DEFAULT_SSL_SESSION_CACHE_SIZE = 0;
+  private static final long DEFAULT_SSL_SESSION_TIMEOUT = 0;
 
   private final PropertiesReader reader;
 
@@ -139,6 +199,242 @@ public final class NettyOptions {
     return reader.getInteger(REQUEST_TIMEOUT, DEFAULT_REQUEST_TIMEOUT);
   }
 
+  /**
+   * The maximum time in milliseconds for which writes are buffered before being flushed.
+   * <p>
+   * A delay of {@code 0} flushes all messages written during an event loop tick at once, and a
+   * negative delay flushes each message individually.
+   */
+  public int flushDelay() {
+    return reader.getInteger(FLUSH_DELAY, DEFAULT_FLUSH_DELAY);
+  }
+
+  /**
+   * The number of buffered bytes after which a delayed flush is forced.
+   */
+  public int flushThreshold() {
+    return reader.getInteger(FLUSH_THRESHOLD, DEFAULT_FLUSH_THRESHOLD);
+  }
+
+  /**
+   * Whether to use the native epoll transport.
+   * <p>
+   * If the native transport is not available on the current platform, the NIO transport is used.
+   */
+  public boolean epoll() {
+    return reader.getBoolean(EPOLL, DEFAULT_EPOLL);
+  }
+
+  /**
+   * The SO_REUSEPORT option.
+   * <p>
+   * When enabled with the epoll transport, servers bind a listening socket for each event loop thread.
+   */
+  public boolean reusePort() {
+    return reader.getBoolean(REUSE_PORT, DEFAULT_REUSE_PORT);
+  }
+
+  /**
+   * The TCP_QUICKACK option. This option only applies to the epoll transport.
+   */
+  public boolean tcpQuickAck() {
+    return reader.getBoolean(TCP_QUICK_ACK, DEFAULT_TCP_QUICK_ACK);
+  }
+
+  /**
+   * The time in microseconds for which idle event loops poll for events before blocking.
+   * <p>
+   * A value of {@code 0} disables busy polling.
+   */
+  public int busyPoll() {
+    return reader.getInteger(BUSY_POLL, DEFAULT_BUSY_POLL);
+  }
+
+  /**
+   * The number of connections the client pools per remote address.
+   * <p>
+   * A value of {@code 0} disables pooling, in which case every call to connect opens a new connection.
+   */
+  public int poolSize() {
+    return reader.getInteger(POOL_SIZE, DEFAULT_POOL_SIZE);
+  }
+
+  /**
+   * The maximum number of requests that may be awaiting a response on a connection.
+   * <p>
+   * Requests sent once the limit has been reached are failed. A value of {@code 0} disables the limit.
+   */
+  public int maxInFlight() {
+    return reader.getInteger(MAX_IN_FLIGHT, DEFAULT_MAX_IN_FLIGHT);
+  }
+
+  /**
+   * The number of messages queued for a server handler context at which the server stops reading from the
+   * channels dispatching to the context.
+   * <p>
+   * Reading resumes once the queue has drained to half this depth. A value of {@code 0} disables read throttling.
+   */
+  public int maxQueueDepth() {
+    return reader.getInteger(MAX_QUEUE_DEPTH, DEFAULT_MAX_QUEUE_DEPTH);
+  }
+
+  /**
+   * The number of messages queued for a server handler context at which the server rejects new requests
+   * without handling them.
+   * <p>
+   * A value of {@code 0} disables rejection.
+   */
+  public int rejectQueueDepth() {
+    return reader.getInteger(REJECT_QUEUE_DEPTH, DEFAULT_REJECT_QUEUE_DEPTH);
+  }
+
+  /**
+   * The number of queued outbound bytes below which an unwritable connection becomes writable again.
+   */
+  public int writeBufferLowWaterMark() {
+    return reader.getInteger(WRITE_BUFFER_LOW_WATER_MARK, DEFAULT_WRITE_BUFFER_LOW_WATER_MARK);
+  }
+
+  /**
+   * The number of queued outbound bytes above which a connection becomes unwritable.
+   */
+  public int writeBufferHighWaterMark() {
+    return reader.getInteger(WRITE_BUFFER_HIGH_WATER_MARK, DEFAULT_WRITE_BUFFER_HIGH_WATER_MARK);
+  }
+
+  /**
+   * The initial time in milliseconds to wait before reconnecting a pooled connection.
+   */
+  public int reconnectBackoff() {
+    return reader.getInteger(RECONNECT_BACKOFF, DEFAULT_RECONNECT_BACKOFF);
+  }
+
+  /**
+   * The maximum time in milliseconds to wait before reconnecting a pooled connection.
+   */
+  public int maxReconnectBackoff() {
+    return reader.getInteger(MAX_RECONNECT_BACKOFF, DEFAULT_MAX_RECONNECT_BACKOFF);
+  }
+
+  /**
+   * Whether to send the request timeout with each request so that servers can drop expired requests.
+   * <p>
+   * Servers always accept requests with deadlines, so deadline propagation should only be enabled once all
+   * servers have been upgraded.
+   */
+  public boolean propagateDeadlines() {
+    return reader.getBoolean(PROPAGATE_DEADLINES, DEFAULT_PROPAGATE_DEADLINES);
+  }
+
+  /**
+   * Whether to send one-way messages without requesting a response.
+   * <p>
+   * When disabled, one-way messages are sent as requests whose responses are ignored. Servers always accept
+   * one-way messages, so they should only be enabled once all servers have been upgraded.
+   */
+  public boolean oneWayMessages() {
+    return reader.getBoolean(ONE_WAY_MESSAGES, DEFAULT_ONE_WAY_MESSAGES);
+  }
+
+  /**
+   * Whether connections send high priority messages ahead of large normal priority messages.
+   * <p>
+   * Peers always accept prioritized and fragmented frames, so priority lanes should only be enabled once all
+   * peers have been upgraded.
+   */
+  public boolean priorityLanes() {
+    return reader.getBoolean(PRIORITY_LANES, DEFAULT_PRIORITY_LANES);
+  }
+
+  /**
+   * The priorities of message types, keyed by {@code priority.<class name>}.
+   * <p>
+   * Messages of types that are not in the map are sent with {@link Priority#NORMAL} priority.
+   */
+  public Map<Class<?>, Priority> priorities() {
+    return reader.getMap(PRIORITY, this::typeToClass, this::stringToPriority);
+  }
+
+  /**
+   * The maximum number of bytes sent in each chunk of a stream.
+   */
+  public int streamChunkSize() {
+    return reader.getInteger(STREAM_CHUNK_SIZE, DEFAULT_STREAM_CHUNK_SIZE);
+  }
+
+  /**
+   * The maximum number of chunks of a stream that have been sent but not yet consumed by the receiver.
+   */
+  public int streamWindow() {
+    return reader.getInteger(STREAM_WINDOW, DEFAULT_STREAM_WINDOW);
+  }
+
+  /**
+   * Whether to use Unix domain sockets for connections to servers on the same host.
+   */
+  public boolean domainSockets() {
+    return reader.getBoolean(DOMAIN_SOCKETS, DEFAULT_DOMAIN_SOCKETS);
+  }
+
+  /**
+   * The directory in which servers create Unix domain sockets.
+   */
+  public String domainSocketDirectory() {
+    return reader.getString(DOMAIN_SOCKET_DIRECTORY, DEFAULT_DOMAIN_SOCKET_DIRECTORY);
+  }
+
+  /**
+   * The maximum size of a datagram sent or received by a datagram transport.
+   */
+  public int maxDatagramSize() {
+    return reader.getInteger(MAX_DATAGRAM_SIZE, DEFAULT_MAX_DATAGRAM_SIZE);
+  }
+
+  /**
+   * Whether request timeouts are derived from the round trip time observed on each connection.
+   * <p>
+   * When enabled, the {@link #requestTimeout()} is only used until the first response has been received.
+   */
+  public boolean adaptiveTimeouts() {
+    return reader.getBoolean(ADAPTIVE_TIMEOUTS, DEFAULT_ADAPTIVE_TIMEOUTS);
+  }
+
+  /**
+   * The minimum adaptive request timeout in milliseconds.
+   */
+  public int minRequestTimeout() {
+    return reader.getInteger(MIN_REQUEST_TIMEOUT, DEFAULT_MIN_REQUEST_TIMEOUT);
+  }
+
+  /**
+   * The maximum adaptive request timeout in milliseconds.
+   */
+  public int maxRequestTimeout() {
+    return reader.getInteger(MAX_REQUEST_TIMEOUT, DEFAULT_MAX_REQUEST_TIMEOUT);
+  }
+
+  /**
+   * Converts a string to a class.
+   */
+  private Class<?> typeToClass(String type) {
+    try {
+      return Class.forName(type);
+    } catch (ClassNotFoundException e) {
+      throw new ConfigurationException("unknown message type: " + type, e);
+    }
+  }
+
+  /**
+   * Converts a string to a priority.
+   */
+  private Priority stringToPriority(String priority) {
+    try {
+      return Priority.valueOf(priority.toUpperCase());
+    } catch (IllegalArgumentException e) {
+      throw new ConfigurationException("unknown priority: " + priority, e);
+    }
+  }
+
   /**
    * The SSL enable.
    */
@@ -158,6 +454,32 @@ public final class NettyOptions {
     }
   }
 
+  /**
+   * The SSL provider.
+   */
+  public SslProvider sslProvider() {
+    String provider = reader.getString(SSL_PROVIDER, DEFAULT_SSL_PROVIDER).toUpperCase();
+    try {
+      return SslProvider.valueOf(provider);
+    } catch (IllegalArgumentException e) {
+      throw new ConfigurationException("unknown SSL provider: " + provider, e);
+    }
+  }
+
+  /**
+   * The maximum number of cached SSL sessions, or {@code 0} to use the provider default.
+   */
+  public long sslSessionCacheSize() {
+    return reader.getLong(SSL_SESSION_CACHE_SIZE, DEFAULT_SSL_SESSION_CACHE_SIZE);
+  }
+
+  /**
+   * The SSL session timeout in seconds, or {@code 0} to use the provider default.
+   */
+  public long sslSessionTimeout() {
+    return reader.getLong(SSL_SESSION_TIMEOUT, DEFAULT_SSL_SESSION_TIMEOUT);
+  }
+
   /**
    * The SSL trust store path.
    */
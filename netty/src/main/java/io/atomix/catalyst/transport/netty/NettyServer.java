@@ -19,27 +19,33 @@ import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.transport.Connection;
 import io.atomix.catalyst.transport.Server;
+import io.atomix.catalyst.transport.TransportMetrics;
 import io.atomix.catalyst.util.Assert;
 import io.netty.bootstrap.ServerBootstrap;
 import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.PooledByteBufAllocator;
 import io.netty.channel.*;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.socket.SocketChannel;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
 import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.netty.handler.codec.LengthFieldPrepender;
 import io.netty.handler.logging.LogLevel;
 import io.netty.handler.logging.LoggingHandler;
-import io.netty.handler.ssl.SslHandler;
 import io.netty.util.concurrent.GlobalEventExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 /**
@@ -51,14 +57,17 @@ public class NettyServer implements Server {
   private static final Logger LOGGER = LoggerFactory.getLogger(NettyServer.class);
   private static final ByteBufAllocator ALLOCATOR = new PooledByteBufAllocator(true);
   private static final ChannelHandler FIELD_PREPENDER = new LengthFieldPrepender(4);
+  private static final ChannelHandler FILE_FRAME_ENCODER = new FileFrame.Encoder();
 
   private final NettyTransport transport;
   private final Map<Channel, NettyConnection> connections = new ConcurrentHashMap<>();
+  private final TransportMetrics metrics = new TransportMetrics();
   private ServerHandler handler;
   private ChannelGroup channelGroup;
   private final Object listenLock = new Object();
   private volatile boolean listening;
   private CompletableFuture<Void> listenFuture;
+  private volatile DomainSocketAddress domainSocketAddress;
 
   public NettyServer(NettyTransport transport) {
     this.transport = Assert.notNull(transport, "transport");
@@ -87,29 +96,38 @@ public class NettyServer implements Server {
   private void listen(Address address, Consumer<Connection> listener, ThreadContext context) {
     channelGroup = new DefaultChannelGroup("catalyst-acceptor-channels", GlobalEventExecutor.INSTANCE);
 
-    handler = new ServerHandler(connections, listener, context, transport.properties());
+    NettyOptions options = transport.properties();
+    AdmissionControl admission = options.maxQueueDepth() > 0 || options.rejectQueueDepth() > 0
+      ? new AdmissionControl(options.maxQueueDepth(), options.rejectQueueDepth())
+      : null;
+    handler = new ServerHandler(connections, listener, context, transport, metrics, admission);
+
+    ChannelHandler initializer = new ChannelInitializer<Channel>() {
+      @Override
+      public void initChannel(Channel channel) throws Exception {
+        ChannelPipeline pipeline = channel.pipeline();
+        if (transport.properties().sslEnabled()) {
+          pipeline.addFirst(transport.tls().newServerHandler(channel.alloc()));
+        } else {
+          pipeline.addLast(FILE_FRAME_ENCODER);
+        }
+        pipeline.addLast(FIELD_PREPENDER);
+        pipeline.addLast(new LengthFieldBasedFrameDecoder(transport.properties().maxFrameSize(), 0, 4, 0, 4));
+        pipeline.addLast(handler);
+      }
+    };
 
     final ServerBootstrap bootstrap = new ServerBootstrap();
     bootstrap.group(transport.eventLoopGroup())
-      .channel(NioServerSocketChannel.class)
+      .channel(transport.serverChannelClass())
       .handler(new LoggingHandler(LogLevel.DEBUG))
-      .childHandler(new ChannelInitializer<SocketChannel>() {
-        @Override
-        public void initChannel(SocketChannel channel) throws Exception {
-          ChannelPipeline pipeline = channel.pipeline();
-          if (transport.properties().sslEnabled()) {
-            pipeline.addFirst(new SslHandler(new NettyTls(transport.properties()).initSslEngine(false)));
-          }
-          pipeline.addLast(FIELD_PREPENDER);
-          pipeline.addLast(new LengthFieldBasedFrameDecoder(transport.properties().maxFrameSize(), 0, 4, 0, 4));
-          pipeline.addLast(handler);
-        }
-      })
+      .childHandler(initializer)
       .option(ChannelOption.SO_BACKLOG, transport.properties().acceptBacklog())
       .option(ChannelOption.TCP_NODELAY, transport.properties().tcpNoDelay())
       .option(ChannelOption.SO_REUSEADDR, transport.properties().reuseAddress())
       .childOption(ChannelOption.ALLOCATOR, ALLOCATOR)
-      .childOption(ChannelOption.SO_KEEPALIVE, transport.properties().tcpKeepAlive());
+      .childOption(ChannelOption.SO_KEEPALIVE, transport.properties().tcpKeepAlive())
+      .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(transport.properties().writeBufferLowWaterMark(), transport.properties().writeBufferHighWaterMark()));
 
     if (transport.properties().sendBufferSize() != -1) {
       bootstrap.childOption(ChannelOption.SO_SNDBUF, transport.properties().sendBufferSize());
@@ -118,21 +136,126 @@ public class NettyServer implements Server {
       bootstrap.childOption(ChannelOption.SO_RCVBUF, transport.properties().receiveBufferSize());
     }
 
+    // With SO_REUSEPORT, bind a listening socket per event loop thread to spread accepts across threads.
+    int binds = 1;
+    if (transport.isEpoll()) {
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+        .option(EpollChannelOption.SO_REUSEPORT, transport.properties().reusePort())
+        .childOption(EpollChannelOption.EPOLL_MODE, EpollMode.EDGE_TRIGGERED)
+        .childOption(EpollChannelOption.TCP_QUICKACK, transport.properties().tcpQuickAck());
+      if (transport.properties().reusePort()) {
+        binds = transport.properties().threads();
+      }
+    }
+
+    // Servers on the same host as their clients also listen on a domain socket named after their host and port.
+    final ServerBootstrap domainBootstrap;
+    if (transport.isDomainSockets()) {
+      domainBootstrap = new ServerBootstrap();
+      domainBootstrap.group(transport.eventLoopGroup())
+        .channel(EpollServerDomainSocketChannel.class)
+        .childHandler(initializer)
+        .option(ChannelOption.SO_BACKLOG, transport.properties().acceptBacklog())
+        .childOption(ChannelOption.ALLOCATOR, ALLOCATOR)
+        .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, new WriteBufferWaterMark(transport.properties().writeBufferLowWaterMark(), transport.properties().writeBufferHighWaterMark()));
+    } else {
+      domainBootstrap = null;
+    }
+
     LOGGER.info("Binding to {}", address);
 
-    ChannelFuture bindFuture = bootstrap.bind(address.socketAddress());
+    // Resolve the address off the calling thread since the first resolution of a host may block on DNS.
+    int bindCount = binds;
+    address.resolve().whenComplete((socketAddress, error) -> {
+      if (error != null) {
+        context.execute(() -> listenFuture.completeExceptionally(error));
+        return;
+      }
+
+      // Bind the first socket before the others so that they all share its port if the port is ephemeral.
+      ChannelFuture bindFuture = bootstrap.bind(socketAddress);
+      channelGroup.add(bindFuture.channel());
+      bindFuture.addListener((ChannelFutureListener) channelFuture -> {
+        if (!channelFuture.isSuccess()) {
+          bindFailed(channelFuture.cause(), context);
+          return;
+        }
+
+        InetSocketAddress localAddress = (InetSocketAddress) channelFuture.channel().localAddress();
+        int remainingBinds = domainBootstrap != null ? bindCount : bindCount - 1;
+        if (remainingBinds == 0) {
+          listening(localAddress, context);
+          return;
+        }
+
+        AtomicInteger remaining = new AtomicInteger(remainingBinds);
+        for (int i = 1; i < bindCount; i++) {
+          bind(bootstrap, new InetSocketAddress(socketAddress.getAddress(), localAddress.getPort()), localAddress, remaining, context);
+        }
+
+        if (domainBootstrap != null) {
+          domainSocketAddress = transport.domainSocketAddress(socketAddress.getAddress(), localAddress.getPort());
+          File file = new File(domainSocketAddress.path());
+          if (file.exists() && !file.delete()) {
+            LOGGER.warn("Failed to delete stale domain socket {}", file);
+          }
+          bind(domainBootstrap, domainSocketAddress, localAddress, remaining, context);
+        }
+      });
+    });
+  }
+
+  /**
+   * Binds the given bootstrap, completing the listen future once all binds have succeeded.
+   */
+  private void bind(ServerBootstrap bootstrap, SocketAddress address, SocketAddress localAddress, AtomicInteger remaining, ThreadContext context) {
+    ChannelFuture bindFuture = bootstrap.bind(address);
+    channelGroup.add(bindFuture.channel());
     bindFuture.addListener((ChannelFutureListener) channelFuture -> {
       if (channelFuture.isSuccess()) {
-        listening = true;
-        context.executor().execute(() -> {
-          LOGGER.info("Listening at {}", bindFuture.channel().localAddress());
-          listenFuture.complete(null);
-        });
+        if (remaining.decrementAndGet() == 0) {
+          listening(localAddress, context);
+        }
       } else {
-        context.execute(() -> listenFuture.completeExceptionally(channelFuture.cause()));
+        bindFailed(channelFuture.cause(), context);
       }
     });
-    channelGroup.add(bindFuture.channel());
+  }
+
+  /**
+   * Completes the listen future once all sockets have been bound.
+   */
+  private void listening(SocketAddress localAddress, ThreadContext context) {
+    listening = true;
+    context.executor().execute(() -> {
+      LOGGER.info("Listening at {}", localAddress);
+      listenFuture.complete(null);
+    });
+  }
+
+  /**
+   * Closes the sockets that have already been bound and fails the listen future.
+   */
+  private void bindFailed(Throwable error, ThreadContext context) {
+    channelGroup.close().addListener(channelFuture -> {
+      deleteDomainSocket();
+      context.execute(() -> listenFuture.completeExceptionally(error));
+    });
+  }
+
+  /**
+   * Deletes the domain socket if the server listens on one.
+   */
+  private void deleteDomainSocket() {
+    DomainSocketAddress domainSocketAddress = this.domainSocketAddress;
+    if (domainSocketAddress != null) {
+      new File(domainSocketAddress.path()).delete();
+    }
+  }
+
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
   }
 
   @Override
@@ -146,6 +269,7 @@ public class NettyServer implements Server {
     CompletableFuture<Void> future = new CompletableFuture<>();
     CompletableFuture.allOf(futures).whenComplete((result, error) -> {
       channelGroup.close().addListener(channelFuture -> {
+        deleteDomainSocket();
         future.complete(null);
       });
     });
@@ -157,8 +281,8 @@ public class NettyServer implements Server {
    */
   @ChannelHandler.Sharable
   private static class ServerHandler extends NettyHandler {
-    private ServerHandler(Map<Channel, NettyConnection> connections, Consumer<Connection> listener, ThreadContext context, NettyOptions options) {
-      super(connections, listener, context, options);
+    private ServerHandler(Map<Channel, NettyConnection> connections, Consumer<Connection> listener, ThreadContext context, NettyTransport transport, TransportMetrics metrics, AdmissionControl admission) {
+      super(connections, listener, context, transport, metrics, admission);
     }
   }
 
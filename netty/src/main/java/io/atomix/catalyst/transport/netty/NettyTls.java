@@ -15,7 +15,15 @@
  */
 package io.atomix.catalyst.transport.netty;
 
+import io.atomix.catalyst.transport.Address;
 import io.atomix.catalyst.util.Assert;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.ssl.ClientAuth;
+import io.netty.handler.ssl.OpenSsl;
+import io.netty.handler.ssl.SslContext;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.SslHandler;
+import io.netty.handler.ssl.SslProvider;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -26,24 +34,19 @@ import java.security.KeyStore;
 
 /**
  * Netty TLS.
+ * <p>
+ * The key and trust stores are loaded and the SSL contexts built once when the TLS instance is created.
+ * Contexts are shared by all channels of a transport, so TLS sessions are cached and can be resumed
+ * across connections.
  *
  * @author <a href="http://github.com/electrical">Richard Pijnenburg</a>
  */
 final class NettyTls {
   private static final Logger LOGGER = LoggerFactory.getLogger(NettyTls.class);
-  private NettyOptions properties;
+  private final SslContext serverContext;
+  private final SslContext clientContext;
 
-  public NettyTls(NettyOptions properties) {
-    this.properties = properties;
-  }
-
-  /**
-   * Initializes an SSL engine.
-   *
-   * @param client Indicates whether the engine is being initialized for a client.
-   * @return The initialized SSL engine.
-   */
-  public SSLEngine initSslEngine(boolean client) throws Exception {
+  public NettyTls(NettyOptions properties) throws Exception {
     // Load the keystore
     KeyStore keyStore = loadKeystore(properties.sslKeyStorePath(), properties.sslKeyStorePassword());
 
@@ -66,18 +69,67 @@ final class NettyTls {
     TrustManagerFactory trustManagerFactory = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
     trustManagerFactory.init(trustStore);
 
-    KeyManager[] keyManagers = keyManagerFactory.getKeyManagers();
-    TrustManager[] trustManagers = trustManagerFactory.getTrustManagers();
+    SslProvider provider = sslProvider(properties);
+
+    serverContext = SslContextBuilder.forServer(keyManagerFactory)
+      .trustManager(trustManagerFactory)
+      .clientAuth(ClientAuth.OPTIONAL)
+      .sslProvider(provider)
+      .sessionCacheSize(properties.sslSessionCacheSize())
+      .sessionTimeout(properties.sslSessionTimeout())
+      .build();
+
+    clientContext = SslContextBuilder.forClient()
+      .keyManager(keyManagerFactory)
+      .trustManager(trustManagerFactory)
+      .sslProvider(provider)
+      .sessionCacheSize(properties.sslSessionCacheSize())
+      .sessionTimeout(properties.sslSessionTimeout())
+      .build();
+  }
+
+  /**
+   * Returns the SSL provider to use, falling back to the JDK provider if OpenSSL is not available.
+   */
+  private SslProvider sslProvider(NettyOptions properties) {
+    SslProvider provider = properties.sslProvider();
+    if (provider != SslProvider.JDK && !OpenSsl.isAvailable()) {
+      LOGGER.warn("OpenSSL is not available, falling back to the JDK SSL provider", OpenSsl.unavailabilityCause());
+      return SslProvider.JDK;
+    }
+    return provider;
+  }
+
+  /**
+   * Creates a new server-side SSL handler.
+   *
+   * @param allocator The channel's buffer allocator.
+   * @return A new server-side SSL handler.
+   */
+  public SslHandler newServerHandler(ByteBufAllocator allocator) {
+    return new SslHandler(initSslEngine(serverContext.newEngine(allocator)));
+  }
+
+  /**
+   * Creates a new client-side SSL handler.
+   * <p>
+   * The engine is created with the peer address so that cached sessions for the peer can be resumed.
+   *
+   * @param allocator The channel's buffer allocator.
+   * @param address The address of the server to which the client is connecting.
+   * @return A new client-side SSL handler.
+   */
+  public SslHandler newClientHandler(ByteBufAllocator allocator, Address address) {
+    return new SslHandler(initSslEngine(clientContext.newEngine(allocator, address.host(), address.port())));
+  }
 
-    SSLContext sslContext = SSLContext.getInstance("TLS");
-    sslContext.init(keyManagers, trustManagers, null);
-    SSLEngine sslEngine = sslContext.createSSLEngine();
-    sslEngine.setUseClientMode(client);
-    sslEngine.setWantClientAuth(true);
+  /**
+   * Initializes an SSL engine.
+   */
+  private SSLEngine initSslEngine(SSLEngine sslEngine) {
     sslEngine.setEnabledProtocols(sslEngine.getSupportedProtocols());
     sslEngine.setEnabledCipherSuites(sslEngine.getSupportedCipherSuites());
     sslEngine.setEnableSessionCreation(true);
-
     return sslEngine;
   }
 
@@ -16,14 +16,54 @@
 package io.atomix.catalyst.transport.netty;
 
 import io.atomix.catalyst.concurrent.CatalystThreadFactory;
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.SingleThreadContext;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.serializer.SerializationException;
+import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.transport.Client;
+import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.Priority;
 import io.atomix.catalyst.transport.Server;
 import io.atomix.catalyst.transport.Transport;
 import io.atomix.catalyst.util.Assert;
+import io.atomix.catalyst.util.ConfigurationException;
+import io.atomix.catalyst.util.reference.ReferenceCounted;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.DefaultSelectStrategyFactory;
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
+import io.netty.channel.SelectStrategyFactory;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.netty.handler.ssl.SslProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.File;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.nio.channels.spi.SelectorProvider;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadFactory;
 
 /**
@@ -32,6 +72,8 @@ import java.util.concurrent.ThreadFactory;
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class NettyTransport implements Transport {
+  private static final Logger LOGGER = LoggerFactory.getLogger(NettyTransport.class);
+  private static final String[] WILDCARD_HOSTS = {"0.0.0.0", "0:0:0:0:0:0:0:0"};
 
   /**
    * Returns a new Netty transport builder.
@@ -44,6 +86,10 @@ public class NettyTransport implements Transport {
 
   private final NettyOptions properties;
   private final EventLoopGroup eventLoopGroup;
+  private final boolean epoll;
+  private final boolean domainSockets;
+  private final NettyTls tls;
+  private final Map<EventLoop, Map<Serializer, ThreadContext>> contexts = new ConcurrentHashMap<>();
 
   public NettyTransport() {
     this(new NettyOptions(new Properties()));
@@ -56,7 +102,36 @@ public class NettyTransport implements Transport {
   public NettyTransport(NettyOptions properties) {
     this.properties = Assert.notNull(properties, "properties");
     ThreadFactory threadFactory = new CatalystThreadFactory("catalyst-event-loop-%d");
-    eventLoopGroup = new NioEventLoopGroup(properties.threads(), threadFactory);
+    SelectStrategyFactory selectStrategyFactory = properties.busyPoll() > 0
+      ? new BusyPollSelectStrategy.Factory(properties.busyPoll())
+      : DefaultSelectStrategyFactory.INSTANCE;
+
+    if (properties.epoll() && !Epoll.isAvailable()) {
+      LOGGER.warn("Native epoll transport is not available, falling back to NIO", Epoll.unavailabilityCause());
+    }
+
+    epoll = properties.epoll() && Epoll.isAvailable();
+    if (epoll) {
+      eventLoopGroup = new EpollEventLoopGroup(properties.threads(), threadFactory, selectStrategyFactory);
+    } else {
+      eventLoopGroup = new NioEventLoopGroup(properties.threads(), threadFactory, SelectorProvider.provider(), selectStrategyFactory);
+    }
+
+    if (properties.domainSockets() && !epoll) {
+      LOGGER.warn("Domain sockets require the native epoll transport, falling back to TCP");
+    }
+    domainSockets = properties.domainSockets() && epoll;
+
+    if (properties.sslEnabled()) {
+      try {
+        tls = new NettyTls(properties);
+      } catch (Exception e) {
+        eventLoopGroup.shutdownGracefully();
+        throw new ConfigurationException(e, "failed to initialize SSL");
+      }
+    } else {
+      tls = null;
+    }
   }
 
   /**
@@ -77,6 +152,142 @@ public class NettyTransport implements Transport {
     return eventLoopGroup;
   }
 
+  /**
+   * Returns the context shared by all channels bound to the given event loop on behalf of the given serializer.
+   * <p>
+   * A context is created for each serializer the first time a channel using it is bound to the event loop, so
+   * clients and servers with different serializer registrations never share a serializer. Contexts are held for the
+   * lifetime of the transport, so serializer caches stay warm across connections. Event loop threads only hold a
+   * weak reference to their context, so the transport must retain it. This method must be called on the given
+   * event loop.
+   *
+   * @param eventLoop The event loop for which to return the context.
+   * @param serializer The serializer to clone if a context needs to be created.
+   * @return The event loop context.
+   */
+  ThreadContext context(EventLoop eventLoop, Serializer serializer) {
+    Map<Serializer, ThreadContext> contexts = this.contexts.get(eventLoop);
+    if (contexts == null) {
+      contexts = this.contexts.computeIfAbsent(eventLoop, loop -> new IdentityHashMap<>());
+    }
+    // The map for an event loop is only accessed on that event loop.
+    ThreadContext context = contexts.get(serializer);
+    if (context == null) {
+      context = new SingleThreadContext(Thread.currentThread(), eventLoop, serializer.clone());
+      contexts.put(serializer, context);
+    }
+    return context;
+  }
+
+  /**
+   * Returns a boolean indicating whether the transport uses the native epoll transport.
+   */
+  boolean isEpoll() {
+    return epoll;
+  }
+
+  /**
+   * Returns the transport TLS contexts, or {@code null} if SSL is disabled.
+   */
+  NettyTls tls() {
+    return tls;
+  }
+
+  /**
+   * Returns the server channel class for the transport.
+   */
+  Class<? extends ServerChannel> serverChannelClass() {
+    return epoll ? EpollServerSocketChannel.class : NioServerSocketChannel.class;
+  }
+
+  /**
+   * Returns the client channel class for the transport.
+   */
+  Class<? extends Channel> channelClass() {
+    return epoll ? EpollSocketChannel.class : NioSocketChannel.class;
+  }
+
+  /**
+   * Returns the datagram channel class.
+   */
+  Class<? extends DatagramChannel> datagramChannelClass() {
+    return epoll ? EpollDatagramChannel.class : NioDatagramChannel.class;
+  }
+
+  /**
+   * Returns a new datagram transport that shares this transport's event loops and options.
+   *
+   * @return A new datagram transport.
+   */
+  public NettyDatagramTransport datagrams() {
+    return new NettyDatagramTransport(this);
+  }
+
+  /**
+   * Returns a boolean indicating whether the transport uses domain sockets for connections on the same host.
+   */
+  boolean isDomainSockets() {
+    return domainSockets;
+  }
+
+  /**
+   * Returns the domain socket address for a server listening on the given host and port.
+   * <p>
+   * Sockets are named after both the host and port so that servers bound to different interfaces on the same
+   * port do not share a socket.
+   */
+  DomainSocketAddress domainSocketAddress(InetAddress host, int port) {
+    return domainSocketAddress(host.getHostAddress(), port);
+  }
+
+  /**
+   * Returns the domain socket address for a server listening on the given host address and port.
+   */
+  private DomainSocketAddress domainSocketAddress(String host, int port) {
+    String name = host.replaceAll("[^A-Za-z0-9.]", "_");
+    return new DomainSocketAddress(new File(properties.domainSocketDirectory(), String.format("catalyst-%s-%d.sock", name, port)));
+  }
+
+  /**
+   * Returns the domain socket for the given address if the address is on this host and a server is listening on it.
+   * <p>
+   * The socket of a server bound to the address itself is preferred over that of a server bound to the wildcard
+   * address.
+   *
+   * @param address The resolved address to which to connect.
+   * @return The domain socket address or {@code null} if the address should be connected over TCP.
+   */
+  DomainSocketAddress domainSocketAddress(InetSocketAddress address) {
+    if (!domainSockets || address.isUnresolved() || !isLocal(address.getAddress())) {
+      return null;
+    }
+    DomainSocketAddress domainSocketAddress = domainSocketAddress(address.getAddress(), address.getPort());
+    if (new File(domainSocketAddress.path()).exists()) {
+      return domainSocketAddress;
+    }
+    for (String wildcard : WILDCARD_HOSTS) {
+      domainSocketAddress = domainSocketAddress(wildcard, address.getPort());
+      if (new File(domainSocketAddress.path()).exists()) {
+        return domainSocketAddress;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns a boolean indicating whether the given address belongs to this host.
+   */
+  private static boolean isLocal(InetAddress address) {
+    if (address.isLoopbackAddress() || address.isAnyLocalAddress()) {
+      return true;
+    }
+    try {
+      return NetworkInterface.getByInetAddress(address) != null;
+    } catch (SocketException e) {
+      return false;
+    }
+  }
+
   @Override
   public Client client() {
     return new NettyClient(this);
@@ -87,12 +298,66 @@ public class NettyTransport implements Transport {
     return new NettyServer(this);
   }
 
+  /**
+   * {@inheritDoc}
+   * <p>
+   * The message is serialized once into a pooled buffer, and a retained duplicate of the buffer is written to each
+   * Netty connection, so the cost of serialization does not grow with the number of connections.
+   */
+  @Override
+  public <T, U> List<CompletableFuture<U>> broadcast(List<Connection> connections, T message) {
+    Assert.notNull(connections, "connections");
+    Assert.notNull(message, "message");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    List<CompletableFuture<U>> futures = new ArrayList<>(connections.size());
+    ByteBuf payload = null;
+    SerializationException error = null;
+    for (Connection connection : connections) {
+      NettyConnection nettyConnection = null;
+      if (connection instanceof NettyConnection) {
+        nettyConnection = (NettyConnection) connection;
+      } else if (connection instanceof PooledConnection) {
+        nettyConnection = ((PooledConnection) connection).select();
+      }
+
+      if (nettyConnection != null) {
+        if (payload == null && error == null) {
+          try {
+            payload = nettyConnection.serialize(message, context);
+          } catch (SerializationException e) {
+            error = e;
+          }
+        }
+
+        if (error != null) {
+          futures.add(Futures.exceptionalFuture(error));
+        } else {
+          futures.add(nettyConnection.sendAndReceive(payload.retainedDuplicate(), context, nettyConnection.isHighPriority(message)));
+        }
+      } else {
+        if (message instanceof ReferenceCounted) {
+          ((ReferenceCounted<?>) message).acquire();
+        }
+        futures.add(connection.sendAndReceive(message));
+      }
+    }
+
+    if (payload != null) {
+      payload.release();
+    }
+    if (message instanceof ReferenceCounted) {
+      ((ReferenceCounted<?>) message).release();
+    }
+    return futures;
+  }
+
   @Override
   public void close() {
     try {
       eventLoopGroup.shutdownGracefully().sync();
     } catch (InterruptedException e) {
     }
+    contexts.clear();
   }
 
   /**
@@ -241,6 +506,412 @@ public class NettyTransport implements Transport {
       return this;
     }
 
+    /**
+     * Sets the flush delay.
+     * <p>
+     * Messages written within the flush delay are flushed to the socket together. A delay of {@code 0}
+     * flushes once per event loop tick, and a negative delay flushes every message immediately.
+     *
+     * @param flushDelay The flush delay in milliseconds.
+     * @return The Netty transport builder.
+     */
+    public Builder withFlushDelay(int flushDelay) {
+      properties.setProperty(NettyOptions.FLUSH_DELAY, String.valueOf(flushDelay));
+      return this;
+    }
+
+    /**
+     * Sets the number of buffered bytes after which a delayed flush is forced.
+     *
+     * @param flushThreshold The flush threshold in bytes.
+     * @return The Netty transport builder.
+     */
+    public Builder withFlushThreshold(int flushThreshold) {
+      properties.setProperty(NettyOptions.FLUSH_THRESHOLD, String.valueOf(Assert.argNot(flushThreshold, flushThreshold <= 0, "flush threshold must be positive")));
+      return this;
+    }
+
+    /**
+     * Enables the native epoll transport.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withEpoll() {
+      return withEpoll(true);
+    }
+
+    /**
+     * Sets whether to use the native epoll transport.
+     * <p>
+     * If the native transport is not available on the current platform, the NIO transport is used.
+     *
+     * @param epoll Whether to use the native epoll transport.
+     * @return The Netty transport builder.
+     */
+    public Builder withEpoll(boolean epoll) {
+      properties.setProperty(NettyOptions.EPOLL, String.valueOf(epoll));
+      return this;
+    }
+
+    /**
+     * Enables the SO_REUSEPORT option.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withReusePort() {
+      return withReusePort(true);
+    }
+
+    /**
+     * Sets the SO_REUSEPORT option.
+     *
+     * @param reusePort Whether to enable SO_REUSEPORT.
+     * @return The Netty transport builder.
+     */
+    public Builder withReusePort(boolean reusePort) {
+      properties.setProperty(NettyOptions.REUSE_PORT, String.valueOf(reusePort));
+      return this;
+    }
+
+    /**
+     * Enables the TCP_QUICKACK option.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withTcpQuickAck() {
+      return withTcpQuickAck(true);
+    }
+
+    /**
+     * Sets the TCP_QUICKACK option.
+     *
+     * @param tcpQuickAck Whether to enable TCP_QUICKACK.
+     * @return The Netty transport builder.
+     */
+    public Builder withTcpQuickAck(boolean tcpQuickAck) {
+      properties.setProperty(NettyOptions.TCP_QUICK_ACK, String.valueOf(tcpQuickAck));
+      return this;
+    }
+
+    /**
+     * Sets the time for which idle event loops poll for events before blocking.
+     *
+     * @param busyPoll The busy poll time in microseconds, or {@code 0} to disable busy polling.
+     * @return The Netty transport builder.
+     */
+    public Builder withBusyPoll(int busyPoll) {
+      properties.setProperty(NettyOptions.BUSY_POLL, String.valueOf(Assert.argNot(busyPoll, busyPoll < 0, "busy poll cannot be negative")));
+      return this;
+    }
+
+    /**
+     * Sets the number of connections the client pools per remote address.
+     * <p>
+     * When pooling is enabled, connecting to an address returns a connection that is shared by all callers
+     * and spreads requests across the pooled connections.
+     *
+     * @param poolSize The number of connections per remote address, or {@code 0} to disable pooling.
+     * @return The Netty transport builder.
+     */
+    public Builder withPoolSize(int poolSize) {
+      properties.setProperty(NettyOptions.POOL_SIZE, String.valueOf(Assert.argNot(poolSize, poolSize < 0, "pool size cannot be negative")));
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of requests that may be awaiting a response on a connection.
+     * <p>
+     * Requests sent once the limit has been reached are failed. Callers can throttle via
+     * {@link Connection#awaitWritable()} to stay within the limit.
+     *
+     * @param maxInFlight The maximum number of requests in flight, or {@code 0} to disable the limit.
+     * @return The Netty transport builder.
+     */
+    public Builder withMaxInFlight(int maxInFlight) {
+      properties.setProperty(NettyOptions.MAX_IN_FLIGHT, String.valueOf(Assert.argNot(maxInFlight, maxInFlight < 0, "max in flight cannot be negative")));
+      return this;
+    }
+
+    /**
+     * Sets the number of messages queued for a server handler context at which the server stops reading.
+     * <p>
+     * Reading resumes once the queue has drained to half this depth.
+     *
+     * @param maxQueueDepth The maximum queue depth, or {@code 0} to disable read throttling.
+     * @return The Netty transport builder.
+     */
+    public Builder withMaxQueueDepth(int maxQueueDepth) {
+      properties.setProperty(NettyOptions.MAX_QUEUE_DEPTH, String.valueOf(Assert.argNot(maxQueueDepth, maxQueueDepth < 0, "max queue depth cannot be negative")));
+      return this;
+    }
+
+    /**
+     * Sets the number of messages queued for a server handler context at which the server rejects new requests.
+     * <p>
+     * Rejected requests are failed with a {@link io.atomix.catalyst.transport.TransportException} without being
+     * deserialized or handled.
+     *
+     * @param rejectQueueDepth The reject queue depth, or {@code 0} to disable rejection.
+     * @return The Netty transport builder.
+     */
+    public Builder withRejectQueueDepth(int rejectQueueDepth) {
+      properties.setProperty(NettyOptions.REJECT_QUEUE_DEPTH, String.valueOf(Assert.argNot(rejectQueueDepth, rejectQueueDepth < 0, "reject queue depth cannot be negative")));
+      return this;
+    }
+
+    /**
+     * Sets the write buffer water marks.
+     * <p>
+     * A connection becomes unwritable once more than {@code high} bytes are queued for writing, and becomes
+     * writable again once the queued bytes drop below {@code low}.
+     *
+     * @param low The low water mark in bytes.
+     * @param high The high water mark in bytes.
+     * @return The Netty transport builder.
+     */
+    public Builder withWriteBufferWaterMark(int low, int high) {
+      Assert.argNot(low, low < 0, "low water mark cannot be negative");
+      Assert.argNot(high, high < low, "high water mark cannot be less than low water mark");
+      properties.setProperty(NettyOptions.WRITE_BUFFER_LOW_WATER_MARK, String.valueOf(low));
+      properties.setProperty(NettyOptions.WRITE_BUFFER_HIGH_WATER_MARK, String.valueOf(high));
+      return this;
+    }
+
+    /**
+     * Sets the initial time to wait before reconnecting a pooled connection.
+     *
+     * @param reconnectBackoff The initial reconnect backoff in milliseconds.
+     * @return The Netty transport builder.
+     */
+    public Builder withReconnectBackoff(int reconnectBackoff) {
+      properties.setProperty(NettyOptions.RECONNECT_BACKOFF, String.valueOf(Assert.argNot(reconnectBackoff, reconnectBackoff <= 0, "reconnect backoff must be positive")));
+      return this;
+    }
+
+    /**
+     * Sets the maximum time to wait before reconnecting a pooled connection.
+     *
+     * @param maxReconnectBackoff The maximum reconnect backoff in milliseconds.
+     * @return The Netty transport builder.
+     */
+    public Builder withMaxReconnectBackoff(int maxReconnectBackoff) {
+      properties.setProperty(NettyOptions.MAX_RECONNECT_BACKOFF, String.valueOf(Assert.argNot(maxReconnectBackoff, maxReconnectBackoff <= 0, "max reconnect backoff must be positive")));
+      return this;
+    }
+
+    /**
+     * Enables request deadline propagation.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withDeadlinePropagation() {
+      return withDeadlinePropagation(true);
+    }
+
+    /**
+     * Sets whether to propagate request deadlines.
+     * <p>
+     * When enabled, each request carries the time remaining until the request times out. Servers drop requests
+     * whose deadline passes before they're handled and expose the deadline to handlers via
+     * {@link io.atomix.catalyst.transport.Deadline#current()}.
+     *
+     * @param propagateDeadlines Whether to propagate request deadlines.
+     * @return The Netty transport builder.
+     */
+    public Builder withDeadlinePropagation(boolean propagateDeadlines) {
+      properties.setProperty(NettyOptions.PROPAGATE_DEADLINES, String.valueOf(propagateDeadlines));
+      return this;
+    }
+
+    /**
+     * Enables one-way messages.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withOneWayMessages() {
+      return withOneWayMessages(true);
+    }
+
+    /**
+     * Sets whether to send one-way messages without requesting a response.
+     * <p>
+     * When enabled, {@link io.atomix.catalyst.transport.Connection#send(Object)} writes a message frame to which
+     * the receiver does not respond. When disabled, messages are sent as requests and the receiver's responses
+     * are discarded, which is understood by peers that do not support message frames.
+     *
+     * @param oneWayMessages Whether to enable one-way messages.
+     * @return The Netty transport builder.
+     */
+    public Builder withOneWayMessages(boolean oneWayMessages) {
+      properties.setProperty(NettyOptions.ONE_WAY_MESSAGES, String.valueOf(oneWayMessages));
+      return this;
+    }
+
+    /**
+     * Enables priority lanes.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withPriorityLanes() {
+      return withPriorityLanes(true);
+    }
+
+    /**
+     * Sets whether connections send high priority messages ahead of large normal priority messages.
+     * <p>
+     * When enabled, high priority messages are flagged on the wire and flushed immediately, and normal priority
+     * messages larger than twice the {@link #withStreamChunkSize(int) stream chunk size} are written in
+     * chunk sized fragments so that high priority messages can be interleaved between them. Both lanes share a
+     * single connection, so servers see one connection per client and their handlers apply to both lanes.
+     * <p>
+     * Peers always accept prioritized and fragmented frames, so priority lanes should only be enabled once all
+     * peers have been upgraded.
+     *
+     * @param priorityLanes Whether to enable priority lanes.
+     * @return The Netty transport builder.
+     */
+    public Builder withPriorityLanes(boolean priorityLanes) {
+      properties.setProperty(NettyOptions.PRIORITY_LANES, String.valueOf(priorityLanes));
+      return this;
+    }
+
+    /**
+     * Sets the priority with which messages of the given type are sent.
+     * <p>
+     * The priority only applies when {@link #withPriorityLanes() priority lanes} are enabled.
+     *
+     * @param type The message type.
+     * @param priority The message priority.
+     * @return The Netty transport builder.
+     */
+    public Builder withPriority(Class<?> type, Priority priority) {
+      Assert.notNull(type, "type");
+      Assert.notNull(priority, "priority");
+      properties.setProperty(String.format("%s.%s", NettyOptions.PRIORITY, type.getName()), priority.name());
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes sent in each chunk of a stream.
+     *
+     * @param streamChunkSize The stream chunk size in bytes.
+     * @return The Netty transport builder.
+     */
+    public Builder withStreamChunkSize(int streamChunkSize) {
+      properties.setProperty(NettyOptions.STREAM_CHUNK_SIZE, String.valueOf(Assert.argNot(streamChunkSize, streamChunkSize <= 0, "stream chunk size must be positive")));
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of chunks of a stream that may be sent before the receiver has consumed them.
+     * <p>
+     * The window bounds the memory used by each stream to {@code streamWindow * streamChunkSize} bytes.
+     *
+     * @param streamWindow The stream window in chunks.
+     * @return The Netty transport builder.
+     */
+    public Builder withStreamWindow(int streamWindow) {
+      properties.setProperty(NettyOptions.STREAM_WINDOW, String.valueOf(Assert.argNot(streamWindow, streamWindow <= 0, "stream window must be positive")));
+      return this;
+    }
+
+    /**
+     * Enables Unix domain sockets for connections to servers on the same host.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withDomainSockets() {
+      return withDomainSockets(true);
+    }
+
+    /**
+     * Sets whether to use Unix domain sockets for connections to servers on the same host.
+     * <p>
+     * When enabled, servers also listen on a domain socket named after their host and port in the
+     * {@link #withDomainSocketDirectory(String) domain socket directory}, and clients connect to addresses
+     * that resolve to the local host through the domain socket if one exists. Clients fall back to TCP if the
+     * domain socket cannot be connected. Domain sockets require the {@link #withEpoll() native epoll transport}.
+     *
+     * @param domainSockets Whether to enable domain sockets.
+     * @return The Netty transport builder.
+     */
+    public Builder withDomainSockets(boolean domainSockets) {
+      properties.setProperty(NettyOptions.DOMAIN_SOCKETS, String.valueOf(domainSockets));
+      return this;
+    }
+
+    /**
+     * Sets the directory in which servers create Unix domain sockets.
+     *
+     * @param domainSocketDirectory The domain socket directory.
+     * @return The Netty transport builder.
+     */
+    public Builder withDomainSocketDirectory(String domainSocketDirectory) {
+      properties.setProperty(NettyOptions.DOMAIN_SOCKET_DIRECTORY, Assert.notNull(domainSocketDirectory, "domainSocketDirectory"));
+      return this;
+    }
+
+    /**
+     * Sets the maximum size of a datagram sent or received by a {@link NettyDatagramTransport}.
+     * <p>
+     * Datagrams larger than the path MTU are fragmented by IP, so gossip and heartbeat messages should be kept
+     * well below this size.
+     *
+     * @param maxDatagramSize The maximum datagram size in bytes.
+     * @return The Netty transport builder.
+     */
+    public Builder withMaxDatagramSize(int maxDatagramSize) {
+      properties.setProperty(NettyOptions.MAX_DATAGRAM_SIZE, String.valueOf(Assert.argNot(maxDatagramSize, maxDatagramSize <= 0 || maxDatagramSize > 65507, "max datagram size must be between 1 and 65507")));
+      return this;
+    }
+
+    /**
+     * Enables adaptive request timeouts.
+     *
+     * @return The Netty transport builder.
+     */
+    public Builder withAdaptiveTimeouts() {
+      return withAdaptiveTimeouts(true);
+    }
+
+    /**
+     * Sets whether request timeouts adapt to the round trip time observed on each connection.
+     * <p>
+     * When enabled, each connection keeps a smoothed estimate of the round trip time and its variance, and
+     * times out requests after the estimated round trip time plus four times its variance, bounded by the
+     * {@link #withMinRequestTimeout(int) minimum} and {@link #withMaxRequestTimeout(int) maximum} request
+     * timeouts. The {@link #withRequestTimeout(int) request timeout} is used until the first response is received.
+     *
+     * @param adaptiveTimeouts Whether to enable adaptive request timeouts.
+     * @return The Netty transport builder.
+     */
+    public Builder withAdaptiveTimeouts(boolean adaptiveTimeouts) {
+      properties.setProperty(NettyOptions.ADAPTIVE_TIMEOUTS, String.valueOf(adaptiveTimeouts));
+      return this;
+    }
+
+    /**
+     * Sets the minimum adaptive request timeout.
+     *
+     * @param minRequestTimeout The minimum request timeout in milliseconds.
+     * @return The Netty transport builder.
+     */
+    public Builder withMinRequestTimeout(int minRequestTimeout) {
+      properties.setProperty(NettyOptions.MIN_REQUEST_TIMEOUT, String.valueOf(Assert.argNot(minRequestTimeout, minRequestTimeout <= 0, "min request timeout must be positive")));
+      return this;
+    }
+
+    /**
+     * Sets the maximum adaptive request timeout.
+     *
+     * @param maxRequestTimeout The maximum request timeout in milliseconds.
+     * @return The Netty transport builder.
+     */
+    public Builder withMaxRequestTimeout(int maxRequestTimeout) {
+      properties.setProperty(NettyOptions.MAX_REQUEST_TIMEOUT, String.valueOf(Assert.argNot(maxRequestTimeout, maxRequestTimeout <= 0, "max request timeout must be positive")));
+      return this;
+    }
+
     /**
      * Enables SSL.
      *
@@ -272,6 +943,41 @@ public class NettyTransport implements Transport {
       return this;
     }
 
+    /**
+     * Sets the SSL provider.
+     * <p>
+     * If an OpenSSL provider is configured but OpenSSL is not available, the JDK provider is used.
+     *
+     * @param sslProvider The SSL provider.
+     * @return The Netty transport builder.
+     */
+    public Builder withSslProvider(SslProvider sslProvider) {
+      properties.setProperty(NettyOptions.SSL_PROVIDER, Assert.notNull(sslProvider, "sslProvider").name());
+      return this;
+    }
+
+    /**
+     * Sets the SSL session cache size.
+     *
+     * @param sessionCacheSize The maximum number of cached SSL sessions, or {@code 0} to use the provider default.
+     * @return The Netty transport builder.
+     */
+    public Builder withSslSessionCacheSize(int sessionCacheSize) {
+      properties.setProperty(NettyOptions.SSL_SESSION_CACHE_SIZE, String.valueOf(Assert.argNot(sessionCacheSize, sessionCacheSize < 0, "session cache size cannot be negative")));
+      return this;
+    }
+
+    /**
+     * Sets the SSL session timeout.
+     *
+     * @param sessionTimeout The SSL session timeout in seconds, or {@code 0} to use the provider default.
+     * @return The Netty transport builder.
+     */
+    public Builder withSslSessionTimeout(int sessionTimeout) {
+      properties.setProperty(NettyOptions.SSL_SESSION_TIMEOUT, String.valueOf(Assert.argNot(sessionTimeout, sessionTimeout < 0, "session timeout cannot be negative")));
+      return this;
+    }
+
     /**
      * Sets the SSL trust store path.
      *
@@ -0,0 +1,426 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.buffer.Buffer;
+import io.atomix.catalyst.concurrent.ComposableFuture;
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.concurrent.Listeners;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.Priority;
+import io.atomix.catalyst.transport.StreamListener;
+import io.atomix.catalyst.transport.TransportMetrics;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.catalyst.util.reference.ReferenceCounted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Pooled Netty connection.
+ * <p>
+ * The pooled connection multiplexes requests across a fixed number of connections to the same remote address.
+ * Each request is sent on the connection with the fewest requests in flight, starting the search at the next
+ * connection in round-robin order so that idle connections share the load. Connections that are closed are
+ * reconnected with exponential backoff as long as another connection in the pool remains open. Once every
+ * connection in the pool has been closed, the remote address is considered unreachable and the pool itself is
+ * closed, notifying its close listeners just as a single connection would.
+ * <p>
+ * Each pool belongs to the caller that opened it and is never shared between calls to
+ * {@link NettyClient#connect(Address)}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+class PooledConnection implements Connection {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PooledConnection.class);
+
+  private final NettyClient client;
+  private final Address address;
+  private final ThreadContext context;
+  private final NettyOptions options;
+  private final TransportMetrics metrics;
+  private final AtomicReferenceArray<NettyConnection> connections;
+  private final AtomicInteger next = new AtomicInteger();
+  private final Map<Class<?>, HandlerHolder> handlers = new ConcurrentHashMap<>();
+  private final Map<Class<?>, HandlerHolder> streamHandlers = new ConcurrentHashMap<>();
+  private final Listeners<Throwable> exceptionListeners = new Listeners<>();
+  private final Listeners<Connection> closeListeners = new Listeners<>();
+  private CompletableFuture<Connection> openFuture;
+  private volatile boolean closed;
+
+  PooledConnection(NettyClient client, Address address, ThreadContext context, NettyOptions options, TransportMetrics metrics) {
+    this.client = client;
+    this.address = address;
+    this.context = context;
+    this.options = options;
+    this.metrics = new TransportMetrics(metrics);
+    this.connections = new AtomicReferenceArray<>(options.poolSize());
+  }
+
+  /**
+   * Opens all the connections in the pool.
+   * <p>
+   * The returned future is completed once the first connection has been established. The remaining connections
+   * are warmed in the background. If every connection fails, the pool is closed and the future is failed.
+   *
+   * @return A future to be completed once the pool is able to send requests.
+   */
+  synchronized CompletableFuture<Connection> open() {
+    if (openFuture == null) {
+      openFuture = new CompletableFuture<>();
+      AtomicInteger failures = new AtomicInteger();
+      for (int i = 0; i < connections.length(); i++) {
+        int index = i;
+        client.connect(address, metrics, context).whenComplete((connection, error) -> {
+          if (error == null) {
+            register(index, (NettyConnection) connection);
+            openFuture.complete(this);
+          } else if (failures.incrementAndGet() == connections.length()) {
+            closed = true;
+            client.removePool(this);
+            openFuture.completeExceptionally(error);
+          } else {
+            reconnect(index, options.reconnectBackoff());
+          }
+        });
+      }
+    }
+    return openFuture;
+  }
+
+  /**
+   * Registers a connection in the given slot of the pool.
+   */
+  @SuppressWarnings("unchecked")
+  private void register(int index, NettyConnection connection) {
+    if (closed) {
+      connection.close();
+      return;
+    }
+
+    for (Map.Entry<Class<?>, HandlerHolder> entry : handlers.entrySet()) {
+      connection.handler(entry.getKey(), entry.getValue().handler, entry.getValue().context);
+    }
+    for (Map.Entry<Class<?>, HandlerHolder> entry : streamHandlers.entrySet()) {
+      connection.streamHandler(entry.getKey(), (Function<?, StreamListener>) entry.getValue().handler, entry.getValue().context);
+    }
+
+    connection.onException(error -> {
+      for (Listener<Throwable> listener : exceptionListeners) {
+        listener.accept(error);
+      }
+    });
+    connection.onClose(c -> {
+      if (connections.compareAndSet(index, connection, null) && !closed) {
+        if (select() == null) {
+          LOGGER.debug("All pooled connections to {} closed", address);
+          close();
+        } else {
+          LOGGER.debug("Pooled connection to {} closed, reconnecting", address);
+          reconnect(index, options.reconnectBackoff());
+        }
+      }
+    });
+    connections.set(index, connection);
+  }
+
+  /**
+   * Reconnects the given slot of the pool after the given backoff, doubling the backoff on failure.
+   */
+  private void reconnect(int index, int backoff) {
+    if (closed) {
+      return;
+    }
+
+    context.schedule(Duration.ofMillis(backoff), () -> {
+      if (closed) {
+        return;
+      }
+      client.connect(address, metrics, context).whenComplete((connection, error) -> {
+        if (error == null) {
+          register(index, (NettyConnection) connection);
+        } else {
+          reconnect(index, (int) Math.min(backoff * 2L, options.maxReconnectBackoff()));
+        }
+      });
+    });
+  }
+
+  /**
+   * Selects the connection on which to send the next request.
+   *
+   * @return The connection with the fewest requests in flight or {@code null} if no connection is open.
+   */
+  NettyConnection select() {
+    int size = connections.length();
+    int start = Math.floorMod(next.getAndIncrement(), size);
+    NettyConnection selected = null;
+    long selectedInFlight = Long.MAX_VALUE;
+    for (int i = 0; i < size; i++) {
+      NettyConnection connection = connections.get((start + i) % size);
+      if (connection != null) {
+        long inFlight = connection.metrics().inFlightRequests();
+        if (inFlight < selectedInFlight) {
+          selected = connection;
+          selectedInFlight = inFlight;
+          if (inFlight == 0) {
+            break;
+          }
+        }
+      }
+    }
+    return selected;
+  }
+
+  @Override
+  public CompletableFuture<Void> send(Object message) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      return closed(message);
+    }
+    return connection.send(message);
+  }
+
+  @Override
+  public CompletableFuture<Void> send(Object message, Priority priority) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      return closed(message);
+    }
+    return connection.send(message, priority);
+  }
+
+  @Override
+  public <T, U> CompletableFuture<U> sendAndReceive(T message) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      return closed(message);
+    }
+    return connection.sendAndReceive(message);
+  }
+
+  @Override
+  public <T, U> CompletableFuture<U> sendAndReceive(T message, Priority priority) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      return closed(message);
+    }
+    return connection.sendAndReceive(message, priority);
+  }
+
+  @Override
+  public <T, U> CompletableFuture<U> sendAndReceive(T message, long timeout) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      return closed(message);
+    }
+    return connection.sendAndReceive(message, timeout);
+  }
+
+  @Override
+  public <T, U> List<CompletableFuture<U>> sendAndReceiveAll(List<T> messages) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      List<CompletableFuture<U>> futures = new ArrayList<>(messages.size());
+      for (T message : messages) {
+        futures.add(closed(message));
+      }
+      return futures;
+    }
+    return connection.sendAndReceiveAll(messages);
+  }
+
+  @Override
+  public CompletableFuture<Void> stream(Object message, InputStream data) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      try {
+        data.close();
+      } catch (IOException e) {
+      }
+      return closed(message);
+    }
+    return connection.stream(message, data);
+  }
+
+  @Override
+  public CompletableFuture<Void> stream(Object message, Buffer data) {
+    NettyConnection connection = select();
+    if (connection == null) {
+      return closed(message);
+    }
+    return connection.stream(message, data);
+  }
+
+  /**
+   * Fails a message that cannot be sent because no connection is open.
+   */
+  private <T> CompletableFuture<T> closed(Object message) {
+    Assert.notNull(message, "message");
+    if (message instanceof ReferenceCounted) {
+      ((ReferenceCounted<?>) message).release();
+    }
+    return Futures.exceptionalFuture(new ConnectException("connection closed"));
+  }
+
+  @Override
+  public <T, U> Connection handler(Class<T> type, Consumer<T> handler) {
+    return handler(type, r -> {
+      handler.accept(r);
+      return ComposableFuture.completedFuture(null);
+    });
+  }
+
+  @Override
+  public <T, U> Connection handler(Class<T> type, Function<T, CompletableFuture<U>> handler) {
+    Assert.notNull(type, "type");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    if (handler != null) {
+      handlers.put(type, new HandlerHolder(handler, context));
+    } else {
+      handlers.remove(type);
+    }
+
+    for (int i = 0; i < connections.length(); i++) {
+      NettyConnection connection = connections.get(i);
+      if (connection != null) {
+        connection.handler(type, handler, context);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public <T> Connection streamHandler(Class<T> type, Function<T, StreamListener> handler) {
+    Assert.notNull(type, "type");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    if (handler != null) {
+      streamHandlers.put(type, new HandlerHolder(handler, context));
+    } else {
+      streamHandlers.remove(type);
+    }
+
+    for (int i = 0; i < connections.length(); i++) {
+      NettyConnection connection = connections.get(i);
+      if (connection != null) {
+        connection.streamHandler(type, handler, context);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public boolean isWritable() {
+    for (int i = 0; i < connections.length(); i++) {
+      NettyConnection connection = connections.get(i);
+      if (connection != null && connection.isWritable()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public CompletableFuture<Void> awaitWritable() {
+    ThreadContext.currentContextOrThrow();
+    if (closed) {
+      return Futures.exceptionalFuture(new ConnectException("connection closed"));
+    } else if (isWritable()) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>(connections.length());
+    for (int i = 0; i < connections.length(); i++) {
+      NettyConnection connection = connections.get(i);
+      if (connection != null) {
+        futures.add(connection.awaitWritable());
+      }
+    }
+
+    if (futures.isEmpty()) {
+      return Futures.exceptionalFuture(new ConnectException("connection closed"));
+    }
+    return CompletableFuture.anyOf(futures.toArray(new CompletableFuture[futures.size()])).thenApply(result -> null);
+  }
+
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
+  @Override
+  public Listener<Throwable> onException(Consumer<Throwable> listener) {
+    return exceptionListeners.add(Assert.notNull(listener, "listener"));
+  }
+
+  @Override
+  public Listener<Connection> onClose(Consumer<Connection> listener) {
+    return closeListeners.add(Assert.notNull(listener, "listener"));
+  }
+
+  @Override
+  public synchronized CompletableFuture<Void> close() {
+    if (closed) {
+      return CompletableFuture.completedFuture(null);
+    }
+    closed = true;
+    client.removePool(this);
+
+    List<CompletableFuture<Void>> futures = new ArrayList<>(connections.length());
+    for (int i = 0; i < connections.length(); i++) {
+      NettyConnection connection = connections.getAndSet(i, null);
+      if (connection != null) {
+        futures.add(connection.close());
+      }
+    }
+
+    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).whenComplete((result, error) -> {
+      for (Listener<Connection> listener : closeListeners) {
+        listener.accept(this);
+      }
+    });
+  }
+
+  /**
+   * Holds a message handler and the context on which to call it.
+   */
+  private static class HandlerHolder {
+    private final Function<?, ?> handler;
+    private final ThreadContext context;
+
+    private HandlerHolder(Function<?, ?> handler, ThreadContext context) {
+      this.handler = handler;
+      this.context = context;
+    }
+  }
+
+}
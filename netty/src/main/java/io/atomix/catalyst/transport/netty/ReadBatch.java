@@ -0,0 +1,96 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.concurrent.ThreadContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tasks dispatched to thread contexts during a channel read.
+ * <p>
+ * Rather than submitting a task to a context for every frame read from a channel, tasks are collected per context
+ * until the read is complete and then submitted to each context as a single task that runs them in order. This
+ * reduces the number of cross-thread handoffs and wakeups from one per frame to one per context per read.
+ * <p>
+ * Each task in a batch is run in isolation, so a task that throws an exception is logged and does not prevent the
+ * remaining tasks in the batch from completing their requests and releasing their buffers.
+ * <p>
+ * Read batches are only accessed from the channel's event loop.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class ReadBatch {
+  private static final Logger LOGGER = LoggerFactory.getLogger(ReadBatch.class);
+  private final Map<ThreadContext, Tasks> tasks = new IdentityHashMap<>();
+
+  /**
+   * Adds a task to be submitted to the given context once the read is complete.
+   *
+   * @param context The context on which to run the task.
+   * @param task The task to run.
+   */
+  void add(ThreadContext context, Runnable task) {
+    Tasks tasks = this.tasks.get(context);
+    if (tasks == null) {
+      tasks = new Tasks();
+      this.tasks.put(context, tasks);
+    }
+    tasks.add(task);
+  }
+
+  /**
+   * Submits the tasks collected for each context.
+   */
+  void flush() {
+    if (tasks.isEmpty()) {
+      return;
+    }
+
+    for (Map.Entry<ThreadContext, Tasks> entry : tasks.entrySet()) {
+      entry.getKey().executor().execute(entry.getValue());
+    }
+    tasks.clear();
+  }
+
+  /**
+   * Tasks to run on a single context.
+   */
+  private static final class Tasks implements Runnable {
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private void add(Runnable task) {
+      tasks.add(task);
+    }
+
+    @Override
+    public void run() {
+      for (Runnable task : tasks) {
+        try {
+          task.run();
+        } catch (Throwable t) {
+          LOGGER.error("An uncaught exception occurred", t);
+        }
+      }
+    }
+  }
+
+}
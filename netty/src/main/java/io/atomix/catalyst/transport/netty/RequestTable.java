@@ -0,0 +1,290 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.util.Assert;
+
+/**
+ * In-flight request table.
+ * <p>
+ * The table maps request IDs to response futures using an open-addressed hash table with linear probing
+ * over primitive {@code long} keys, and tracks request timeouts in a hashed timing wheel. Futures are linked
+ * directly into the wheel buckets, so registering, completing and expiring a request are all constant time
+ * operations that neither box request IDs nor allocate entries.
+ * <p>
+ * The table is not thread safe. It must only be accessed from the event loop of the connection that owns it.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class RequestTable {
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int WHEEL_SIZE = 512;
+
+  private final long tickTime;
+  private final ContextualFuture<?>[] wheel = new ContextualFuture[WHEEL_SIZE];
+  private long tick;
+  private long[] keys = new long[INITIAL_CAPACITY];
+  private ContextualFuture<?>[] values = new ContextualFuture[INITIAL_CAPACITY];
+  private int mask = INITIAL_CAPACITY - 1;
+  private int size;
+
+  /**
+   * @param tickTime The timing wheel tick duration in milliseconds.
+   * @param time The current time in milliseconds.
+   */
+  RequestTable(long tickTime, long time) {
+    this.tickTime = Assert.argNot(tickTime, tickTime <= 0, "tickTime must be positive");
+    this.tick = time / tickTime;
+  }
+
+  /**
+   * Returns the number of requests in the table.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Adds a request to the table.
+   *
+   * @param requestId The request ID. Request IDs must be non-zero.
+   * @param future The request future.
+   * @param timeout The request timeout in milliseconds.
+   * @param time The current time in milliseconds.
+   */
+  void add(long requestId, ContextualFuture<?> future, long timeout, long time) {
+    Assert.argNot(requestId == 0, "requestId cannot be 0");
+    future.requestId = requestId;
+    put(requestId, future);
+
+    long deadline = (time + timeout + tickTime - 1) / tickTime;
+    future.deadline = deadline > tick ? deadline : tick + 1;
+    link(future);
+  }
+
+  /**
+   * Returns the future for the given request ID.
+   *
+   * @return The request future or {@code null} if the request is not in the table.
+   */
+  ContextualFuture<?> get(long requestId) {
+    int index = index(requestId);
+    long key;
+    while ((key = keys[index]) != 0) {
+      if (key == requestId) {
+        return values[index];
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Removes the future for the given request ID.
+   *
+   * @return The removed future or {@code null} if the request is not in the table.
+   */
+  ContextualFuture<?> remove(long requestId) {
+    int index = index(requestId);
+    long key;
+    while ((key = keys[index]) != 0) {
+      if (key == requestId) {
+        ContextualFuture<?> future = values[index];
+        delete(index);
+        unlink(future);
+        return future;
+      }
+      index = (index + 1) & mask;
+    }
+    return null;
+  }
+
+  /**
+   * Advances the timing wheel to the given time and removes all expired requests.
+   *
+   * @param time The current time in milliseconds.
+   * @return The first expired future. Subsequent expired futures are linked via {@link ContextualFuture#next}.
+   */
+  ContextualFuture<?> expire(long time) {
+    long now = time / tickTime;
+    if (now <= tick) {
+      return null;
+    }
+
+    ContextualFuture<?> expired = null;
+    long ticks = Math.min(now - tick, WHEEL_SIZE);
+    for (long i = 1; i <= ticks; i++) {
+      int bucket = (int) ((tick + i) & (WHEEL_SIZE - 1));
+      ContextualFuture<?> future = wheel[bucket];
+      while (future != null) {
+        ContextualFuture<?> next = future.next;
+        if (future.deadline <= now) {
+          unlink(future);
+          delete(find(future.requestId));
+          future.next = expired;
+          expired = future;
+        }
+        future = next;
+      }
+    }
+    tick = now;
+    return expired;
+  }
+
+  /**
+   * Removes all requests from the table.
+   *
+   * @return The first removed future. Subsequent futures are linked via {@link ContextualFuture#next}.
+   */
+  ContextualFuture<?> clear() {
+    ContextualFuture<?> removed = null;
+    for (int i = 0; i < values.length; i++) {
+      ContextualFuture<?> future = values[i];
+      if (future != null) {
+        future.prev = null;
+        future.next = removed;
+        removed = future;
+        keys[i] = 0;
+        values[i] = null;
+      }
+    }
+    for (int i = 0; i < wheel.length; i++) {
+      wheel[i] = null;
+    }
+    size = 0;
+    return removed;
+  }
+
+  /**
+   * Returns the hash table index for the given key.
+   */
+  private int index(long key) {
+    long hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+
+  /**
+   * Returns the hash table index of the given key, which must be in the table.
+   */
+  private int find(long key) {
+    int index = index(key);
+    while (keys[index] != key) {
+      index = (index + 1) & mask;
+    }
+    return index;
+  }
+
+  /**
+   * Inserts a future into the hash table.
+   */
+  private void put(long key, ContextualFuture<?> future) {
+    if (size + 1 > keys.length >> 1) {
+      resize(keys.length << 1);
+    }
+
+    int index = index(key);
+    while (keys[index] != 0) {
+      if (keys[index] == key) {
+        values[index] = future;
+        return;
+      }
+      index = (index + 1) & mask;
+    }
+    keys[index] = key;
+    values[index] = future;
+    size++;
+  }
+
+  /**
+   * Deletes the entry at the given index, shifting back subsequent entries in the probe sequence.
+   */
+  private void delete(int index) {
+    int next = index;
+    for (;;) {
+      next = (next + 1) & mask;
+      long key = keys[next];
+      if (key == 0) {
+        break;
+      }
+
+      // Entries whose ideal slot lies cyclically in (index, next] are already reachable and must not move.
+      int ideal = index(key);
+      if (index <= next ? (index < ideal && ideal <= next) : (index < ideal || ideal <= next)) {
+        continue;
+      }
+      keys[index] = key;
+      values[index] = values[next];
+      index = next;
+    }
+    keys[index] = 0;
+    values[index] = null;
+    size--;
+  }
+
+  /**
+   * Resizes the hash table.
+   */
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    ContextualFuture<?>[] oldValues = values;
+    keys = new long[capacity];
+    values = new ContextualFuture[capacity];
+    mask = capacity - 1;
+    for (int i = 0; i < oldKeys.length; i++) {
+      long key = oldKeys[i];
+      if (key != 0) {
+        int index = index(key);
+        while (keys[index] != 0) {
+          index = (index + 1) & mask;
+        }
+        keys[index] = key;
+        values[index] = oldValues[i];
+      }
+    }
+  }
+
+  /**
+   * Links a future into its timing wheel bucket.
+   */
+  private void link(ContextualFuture<?> future) {
+    int bucket = (int) (future.deadline & (WHEEL_SIZE - 1));
+    ContextualFuture<?> head = wheel[bucket];
+    future.prev = null;
+    future.next = head;
+    if (head != null) {
+      head.prev = future;
+    }
+    wheel[bucket] = future;
+  }
+
+  /**
+   * Unlinks a future from its timing wheel bucket.
+   */
+  private void unlink(ContextualFuture<?> future) {
+    int bucket = (int) (future.deadline & (WHEEL_SIZE - 1));
+    if (future.prev != null) {
+      future.prev.next = future.next;
+    } else if (wheel[bucket] == future) {
+      wheel[bucket] = future.next;
+    }
+    if (future.next != null) {
+      future.next.prev = future.prev;
+    }
+    future.prev = null;
+    future.next = null;
+  }
+
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.util.Assert;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Round trip time estimator.
+ * <p>
+ * The estimator derives request timeouts from observed round trip times the way TCP derives its retransmission
+ * timeout: it keeps a smoothed mean and mean deviation of the round trip time, and the timeout is the mean plus
+ * four times the deviation, bounded by the configured minimum and maximum. Each time requests time out, the
+ * timeout is doubled until the next round trip time sample.
+ * <p>
+ * Samples and backoff must only be recorded from the event loop of the connection that owns the estimator, but the
+ * timeout may be read from any thread.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class RttEstimator {
+  private final long minTimeout;
+  private final long maxTimeout;
+  private boolean sampled;
+  private long srtt;
+  private long rttvar;
+  private volatile long timeout;
+
+  /**
+   * @param initialTimeout The timeout in milliseconds to use until the first sample.
+   * @param minTimeout The minimum timeout in milliseconds.
+   * @param maxTimeout The maximum timeout in milliseconds.
+   */
+  RttEstimator(long initialTimeout, long minTimeout, long maxTimeout) {
+    Assert.argNot(minTimeout <= 0, "minTimeout must be positive");
+    Assert.argNot(maxTimeout < minTimeout, "maxTimeout cannot be less than minTimeout");
+    this.minTimeout = minTimeout;
+    this.maxTimeout = maxTimeout;
+    this.timeout = bound(initialTimeout);
+  }
+
+  /**
+   * Returns the current request timeout in milliseconds.
+   */
+  long timeout() {
+    return timeout;
+  }
+
+  /**
+   * Returns the smoothed round trip time in nanoseconds, or {@code 0} if no samples have been recorded.
+   */
+  long rtt() {
+    return srtt;
+  }
+
+  /**
+   * Records a round trip time sample.
+   *
+   * @param rtt The round trip time in nanoseconds.
+   */
+  void sample(long rtt) {
+    if (!sampled) {
+      srtt = rtt;
+      rttvar = rtt / 2;
+      sampled = true;
+    } else {
+      long delta = rtt - srtt;
+      srtt += delta >> 3;
+      rttvar += (Math.abs(delta) - rttvar) >> 2;
+    }
+    timeout = bound(TimeUnit.NANOSECONDS.toMillis(srtt + 4 * rttvar) + 1);
+  }
+
+  /**
+   * Doubles the timeout after requests have timed out.
+   */
+  void backoff() {
+    timeout = Math.min(timeout * 2, maxTimeout);
+  }
+
+  /**
+   * Bounds the given timeout by the minimum and maximum timeouts.
+   */
+  private long bound(long timeout) {
+    return Math.max(minTimeout, Math.min(timeout, maxTimeout));
+  }
+
+}
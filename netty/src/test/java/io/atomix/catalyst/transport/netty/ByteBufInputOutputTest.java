@@ -0,0 +1,219 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.buffer.Buffer;
+import io.atomix.catalyst.buffer.Bytes;
+import io.atomix.catalyst.buffer.DirectBuffer;
+import io.atomix.catalyst.buffer.DirectBytes;
+import io.atomix.catalyst.buffer.HeapBuffer;
+import io.atomix.catalyst.buffer.HeapBytes;
+import io.atomix.catalyst.buffer.UnsafeDirectBuffer;
+import io.atomix.catalyst.buffer.UnsafeDirectBytes;
+import io.atomix.catalyst.buffer.UnsafeHeapBuffer;
+import io.atomix.catalyst.buffer.UnsafeHeapBytes;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.testng.annotations.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteOrder;
+
+import static org.testng.Assert.*;
+
+/**
+ * Byte buffer input and output test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class ByteBufInputOutputTest {
+  private static final int OFFSET = 7;
+  private static final byte[] DATA = new byte[100];
+
+  static {
+    for (int i = 0; i < DATA.length; i++) {
+      DATA[i] = (byte) (i + 1);
+    }
+  }
+
+  /**
+   * Returns buffers of each kind of bytes: heap and direct byte buffers, unsafe heap arrays, native memory and
+   * byte order swapped bytes wrapping native memory.
+   */
+  private Buffer[] buffers() {
+    return new Buffer[]{
+      HeapBuffer.allocate(256),
+      DirectBuffer.allocate(256),
+      UnsafeHeapBuffer.allocate(256),
+      UnsafeDirectBuffer.allocate(256),
+      UnsafeDirectBuffer.allocate(256).order(ByteOrder.LITTLE_ENDIAN)
+    };
+  }
+
+  /**
+   * Returns bytes of each kind.
+   */
+  private Bytes[] bytes() {
+    return new Bytes[]{
+      HeapBytes.allocate(256),
+      DirectBytes.allocate(256),
+      UnsafeHeapBytes.allocate(256),
+      UnsafeDirectBytes.allocate(256),
+      UnsafeDirectBytes.allocate(256).order(ByteOrder.LITTLE_ENDIAN)
+    };
+  }
+
+  /**
+   * Returns heap and direct Netty buffers.
+   */
+  private ByteBuf[] byteBufs() {
+    return new ByteBuf[]{
+      Unpooled.buffer(256),
+      Unpooled.directBuffer(256)
+    };
+  }
+
+  /**
+   * Tests writing a sliced buffer at a non-zero offset to a Netty buffer and reading it back into a sliced buffer.
+   */
+  public void testBufferRoundTrip() {
+    for (Buffer source : buffers()) {
+      for (Buffer target : buffers()) {
+        for (ByteBuf byteBuf : byteBufs()) {
+          source.clear().write(new byte[OFFSET]).write(DATA);
+          new ByteBufOutput().setByteBuf(byteBuf).write(source.slice(OFFSET, DATA.length));
+          assertEquals(byteBuf.readableBytes(), DATA.length);
+
+          Buffer slice = target.clear().slice(OFFSET, DATA.length);
+          new ByteBufInput().setByteBuf(byteBuf).read(slice);
+          assertEquals(slice.position(), DATA.length);
+          assertFalse(byteBuf.isReadable());
+
+          byte[] bytes = new byte[DATA.length];
+          target.position(OFFSET).read(bytes);
+          assertEquals(bytes, DATA, source + " -> " + target);
+          byteBuf.release();
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests writing bytes at a non-zero offset to a Netty buffer and reading them back at a non-zero offset.
+   */
+  public void testBytesRoundTrip() {
+    for (Bytes source : bytes()) {
+      for (Bytes target : bytes()) {
+        for (ByteBuf byteBuf : byteBufs()) {
+          source.write(OFFSET, DATA, 0, DATA.length);
+          new ByteBufOutput().setByteBuf(byteBuf).write(source, OFFSET, DATA.length);
+          assertEquals(byteBuf.readableBytes(), DATA.length);
+
+          new ByteBufInput().setByteBuf(byteBuf).read(target, OFFSET * 2, DATA.length);
+          assertFalse(byteBuf.isReadable());
+
+          byte[] bytes = new byte[DATA.length];
+          target.read(OFFSET * 2, bytes, 0, bytes.length);
+          assertEquals(bytes, DATA, source + " -> " + target);
+          byteBuf.release();
+        }
+      }
+    }
+  }
+
+  /**
+   * Tests that copies outside the bounds of the bytes fail rather than touching memory outside of them.
+   */
+  public void testOutOfBounds() {
+    for (Bytes bytes : bytes()) {
+      ByteBuf byteBuf = Unpooled.buffer(256);
+      try {
+        new ByteBufOutput().setByteBuf(byteBuf).write(bytes, 250, 10);
+        fail("expected BufferUnderflowException for " + bytes);
+      } catch (BufferUnderflowException e) {
+      }
+      try {
+        new ByteBufOutput().setByteBuf(byteBuf).write(bytes, -1, 10);
+        fail("expected IndexOutOfBoundsException for " + bytes);
+      } catch (IndexOutOfBoundsException e) {
+      }
+      assertEquals(byteBuf.writerIndex(), 0);
+
+      byteBuf.writeBytes(DATA);
+      try {
+        new ByteBufInput().setByteBuf(byteBuf).read(bytes, 250, 10);
+        fail("expected BufferOverflowException for " + bytes);
+      } catch (BufferOverflowException e) {
+      }
+      try {
+        new ByteBufInput().setByteBuf(byteBuf).read(bytes, 257, 1);
+        fail("expected IndexOutOfBoundsException for " + bytes);
+      } catch (IndexOutOfBoundsException e) {
+      }
+      assertEquals(byteBuf.readerIndex(), 0);
+      byteBuf.release();
+    }
+  }
+
+  /**
+   * Tests reading more bytes than remain in the Netty buffer.
+   */
+  public void testReadPastEnd() {
+    for (Buffer target : buffers()) {
+      ByteBuf byteBuf = Unpooled.buffer(256).writeBytes(DATA);
+      byteBuf.skipBytes(OFFSET);
+
+      new ByteBufInput().setByteBuf(byteBuf).read(target.clear());
+      assertEquals(target.position(), DATA.length - OFFSET);
+      assertFalse(byteBuf.isReadable());
+
+      byte[] bytes = new byte[DATA.length - OFFSET];
+      target.flip().read(bytes);
+      for (int i = 0; i < bytes.length; i++) {
+        assertEquals(bytes[i], DATA[i + OFFSET]);
+      }
+      byteBuf.release();
+    }
+  }
+
+  /**
+   * Tests reading into a buffer past the end of its initial capacity.
+   */
+  public void testReadPastCapacity() {
+    Buffer[] targets = new Buffer[]{
+      HeapBuffer.allocate(16, 1024),
+      DirectBuffer.allocate(16, 1024),
+      UnsafeHeapBuffer.allocate(16, 1024),
+      UnsafeDirectBuffer.allocate(16, 1024)
+    };
+
+    for (Buffer target : targets) {
+      ByteBuf byteBuf = Unpooled.buffer(256).writeBytes(DATA);
+      target.write(new byte[OFFSET]);
+      new ByteBufInput().setByteBuf(byteBuf).read(target);
+      assertEquals(target.position(), OFFSET + DATA.length);
+      assertTrue(target.capacity() >= OFFSET + DATA.length);
+
+      byte[] bytes = new byte[DATA.length];
+      target.position(OFFSET).read(bytes);
+      assertEquals(bytes, DATA, target.toString());
+      byteBuf.release();
+    }
+  }
+
+}
@@ -15,14 +15,17 @@
  */
 package io.atomix.catalyst.transport.netty;
 
+import io.atomix.catalyst.transport.Priority;
 import io.atomix.catalyst.transport.netty.NettyOptions;
 import io.atomix.catalyst.util.PropertiesReader;
+import io.netty.handler.ssl.SslProvider;
 
 import org.testng.annotations.Test;
 
 import java.util.Properties;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 /**
  * Netty properties test.
@@ -45,6 +48,35 @@ public class NettyOptionsTest {
     assertEquals(options.tcpKeepAlive(), true);
     assertEquals(options.tcpNoDelay(), false);
     assertEquals(options.acceptBacklog(), 1024);
+    assertEquals(options.flushDelay(), 0);
+    assertEquals(options.flushThreshold(), 64 * 1024);
+    assertEquals(options.epoll(), false);
+    assertEquals(options.reusePort(), false);
+    assertEquals(options.tcpQuickAck(), false);
+    assertEquals(options.busyPoll(), 0);
+    assertEquals(options.poolSize(), 0);
+    assertEquals(options.maxInFlight(), 0);
+    assertEquals(options.maxQueueDepth(), 0);
+    assertEquals(options.rejectQueueDepth(), 0);
+    assertEquals(options.writeBufferLowWaterMark(), 32 * 1024);
+    assertEquals(options.writeBufferHighWaterMark(), 64 * 1024);
+    assertEquals(options.propagateDeadlines(), false);
+    assertEquals(options.oneWayMessages(), false);
+    assertEquals(options.priorityLanes(), false);
+    assertTrue(options.priorities().isEmpty());
+    assertEquals(options.streamChunkSize(), 64 * 1024);
+    assertEquals(options.streamWindow(), 16);
+    assertEquals(options.domainSockets(), false);
+    assertEquals(options.domainSocketDirectory(), System.getProperty("java.io.tmpdir"));
+    assertEquals(options.maxDatagramSize(), 8192);
+    assertEquals(options.adaptiveTimeouts(), false);
+    assertEquals(options.minRequestTimeout(), 50);
+    assertEquals(options.maxRequestTimeout(), 30000);
+    assertEquals(options.reconnectBackoff(), 100);
+    assertEquals(options.maxReconnectBackoff(), 10000);
+    assertEquals(options.sslProvider(), SslProvider.JDK);
+    assertEquals(options.sslSessionCacheSize(), 0);
+    assertEquals(options.sslSessionTimeout(), 0);
   }
 
   /**
@@ -60,6 +92,35 @@ public class NettyOptionsTest {
     properties.put(NettyOptions.TCP_KEEP_ALIVE, "false");
     properties.put(NettyOptions.TCP_NO_DELAY, "true");
     properties.put(NettyOptions.ACCEPT_BACKLOG, "1234");
+    properties.put(NettyOptions.FLUSH_DELAY, "5");
+    properties.put(NettyOptions.FLUSH_THRESHOLD, "1024");
+    properties.put(NettyOptions.EPOLL, "true");
+    properties.put(NettyOptions.REUSE_PORT, "true");
+    properties.put(NettyOptions.TCP_QUICK_ACK, "true");
+    properties.put(NettyOptions.BUSY_POLL, "50");
+    properties.put(NettyOptions.POOL_SIZE, "4");
+    properties.put(NettyOptions.MAX_IN_FLIGHT, "100");
+    properties.put(NettyOptions.MAX_QUEUE_DEPTH, "1000");
+    properties.put(NettyOptions.REJECT_QUEUE_DEPTH, "2000");
+    properties.put(NettyOptions.WRITE_BUFFER_LOW_WATER_MARK, "1024");
+    properties.put(NettyOptions.WRITE_BUFFER_HIGH_WATER_MARK, "2048");
+    properties.put(NettyOptions.RECONNECT_BACKOFF, "10");
+    properties.put(NettyOptions.MAX_RECONNECT_BACKOFF, "1000");
+    properties.put(NettyOptions.PROPAGATE_DEADLINES, "true");
+    properties.put(NettyOptions.ONE_WAY_MESSAGES, "true");
+    properties.put(NettyOptions.PRIORITY_LANES, "true");
+    properties.put(NettyOptions.STREAM_CHUNK_SIZE, "1024");
+    properties.put(NettyOptions.STREAM_WINDOW, "4");
+    properties.put(NettyOptions.DOMAIN_SOCKETS, "true");
+    properties.put(NettyOptions.DOMAIN_SOCKET_DIRECTORY, "/var/run/catalyst");
+    properties.put(NettyOptions.MAX_DATAGRAM_SIZE, "1400");
+    properties.put(NettyOptions.ADAPTIVE_TIMEOUTS, "true");
+    properties.put(NettyOptions.MIN_REQUEST_TIMEOUT, "10");
+    properties.put(NettyOptions.MAX_REQUEST_TIMEOUT, "5000");
+    properties.put(NettyOptions.PRIORITY + "." + String.class.getName(), "high");
+    properties.put(NettyOptions.SSL_PROVIDER, "openssl");
+    properties.put(NettyOptions.SSL_SESSION_CACHE_SIZE, "100");
+    properties.put(NettyOptions.SSL_SESSION_TIMEOUT, "60");
 
     NettyOptions options = new NettyOptions(properties);
     assertEquals(options.threads(), 1);
@@ -70,6 +131,35 @@ public class NettyOptionsTest {
     assertEquals(options.tcpKeepAlive(), false);
     assertEquals(options.tcpNoDelay(), true);
     assertEquals(options.acceptBacklog(), 1234);
+    assertEquals(options.flushDelay(), 5);
+    assertEquals(options.flushThreshold(), 1024);
+    assertEquals(options.epoll(), true);
+    assertEquals(options.reusePort(), true);
+    assertEquals(options.tcpQuickAck(), true);
+    assertEquals(options.busyPoll(), 50);
+    assertEquals(options.poolSize(), 4);
+    assertEquals(options.maxInFlight(), 100);
+    assertEquals(options.maxQueueDepth(), 1000);
+    assertEquals(options.rejectQueueDepth(), 2000);
+    assertEquals(options.writeBufferLowWaterMark(), 1024);
+    assertEquals(options.writeBufferHighWaterMark(), 2048);
+    assertEquals(options.reconnectBackoff(), 10);
+    assertEquals(options.maxReconnectBackoff(), 1000);
+    assertEquals(options.propagateDeadlines(), true);
+    assertEquals(options.oneWayMessages(), true);
+    assertEquals(options.priorityLanes(), true);
+    assertEquals(options.streamChunkSize(), 1024);
+    assertEquals(options.streamWindow(), 4);
+    assertEquals(options.domainSockets(), true);
+    assertEquals(options.domainSocketDirectory(), "/var/run/catalyst");
+    assertEquals(options.maxDatagramSize(), 1400);
+    assertEquals(options.adaptiveTimeouts(), true);
+    assertEquals(options.minRequestTimeout(), 10);
+    assertEquals(options.maxRequestTimeout(), 5000);
+    assertEquals(options.priorities().get(String.class), Priority.HIGH);
+    assertEquals(options.sslProvider(), SslProvider.OPENSSL);
+    assertEquals(options.sslSessionCacheSize(), 100);
+    assertEquals(options.sslSessionTimeout(), 60);
   }
 
   /**
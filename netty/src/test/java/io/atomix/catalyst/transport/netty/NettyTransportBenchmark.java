@@ -0,0 +1,225 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.concurrent.SingleThreadContext;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.Client;
+import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.Server;
+import io.atomix.catalyst.transport.Transport;
+import io.netty.handler.ssl.SslProvider;
+import net.jodah.concurrentunit.ConcurrentTestCase;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Netty transport benchmark.
+ * <p>
+ * The benchmark is not run as part of the regular test suite. Run it explicitly with
+ * {@code mvn test -Dtest=NettyTransportBenchmark}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class NettyTransportBenchmark extends ConcurrentTestCase {
+  private static final Logger LOGGER = LoggerFactory.getLogger(NettyTransportBenchmark.class);
+  private static final int WARMUP = 100000;
+  private static final int REQUESTS = 1000000;
+  private static final int WINDOW = 1000;
+  private static final int HANDSHAKES = 1000;
+
+  /**
+   * Benchmarks request throughput when every message is flushed individually.
+   */
+  public void testUnbatchedFlushThroughput() throws Throwable {
+    benchmark("unbatched", NettyTransport.builder().withFlushDelay(-1).build(), 5570);
+  }
+
+  /**
+   * Benchmarks request throughput when flushes are coalesced per event loop tick.
+   */
+  public void testCoalescedFlushThroughput() throws Throwable {
+    benchmark("coalesced", NettyTransport.builder().withFlushDelay(0).build(), 5571);
+  }
+
+  /**
+   * Benchmarks request throughput when flushes are delayed.
+   */
+  public void testDelayedFlushThroughput() throws Throwable {
+    benchmark("delayed", NettyTransport.builder().withFlushDelay(1).build(), 5572);
+  }
+
+  /**
+   * Benchmarks TLS handshake throughput using the JDK SSL engine.
+   */
+  public void testJdkHandshakeThroughput() throws Throwable {
+    handshakeBenchmark("jdk", sslTransport(SslProvider.JDK), 5573);
+  }
+
+  /**
+   * Benchmarks TLS handshake throughput using the OpenSSL engine, if available.
+   */
+  public void testOpenSslHandshakeThroughput() throws Throwable {
+    handshakeBenchmark("openssl", sslTransport(SslProvider.OPENSSL), 5574);
+  }
+
+  /**
+   * Returns a new SSL enabled transport for the given provider.
+   */
+  private Transport sslTransport(SslProvider provider) {
+    return NettyTransport.builder()
+      .withSsl()
+      .withSslProvider(provider)
+      .withKeyStorePath("src/test/resources/test.keystore")
+      .withKeyStorePassword("password")
+      .build();
+  }
+
+  /**
+   * Connects and closes clients sequentially to measure handshake throughput.
+   */
+  private void handshakeBenchmark(String name, Transport transport, int port) throws Throwable {
+    Server server = transport.server();
+    Address address = new Address("localhost", port);
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      server.listen(address, connection -> {
+        connection.<Integer, Integer>handler(Integer.class, message -> {
+          return CompletableFuture.completedFuture(message);
+        });
+      }).thenRun(this::resume);
+    });
+    await(10000);
+
+    connect(context, transport, address, HANDSHAKES / 10);
+
+    long startTime = System.nanoTime();
+    connect(context, transport, address, HANDSHAKES);
+    long endTime = System.nanoTime();
+
+    LOGGER.info("{}: {} handshakes/second", name, (long) (HANDSHAKES / ((endTime - startTime) / 1_000_000_000d)));
+
+    context.executor().execute(() -> server.close().thenRun(this::resume));
+    await(10000);
+    transport.close();
+    context.close();
+  }
+
+  /**
+   * Sequentially connects the given number of clients, completing a request on each connection.
+   */
+  private void connect(ThreadContext context, Transport transport, Address address, int connections) throws Throwable {
+    AtomicInteger connected = new AtomicInteger();
+    context.executor().execute(() -> connect(transport, address, connections, connected));
+    await(60000);
+  }
+
+  /**
+   * Connects a client and connects the next client once a request has been completed.
+   */
+  private void connect(Transport transport, Address address, int connections, AtomicInteger connected) {
+    Client client = transport.client();
+    client.connect(address).thenCompose(connection -> connection.sendAndReceive(1)).whenComplete((response, error) -> {
+      client.close().whenComplete((result, closeError) -> {
+        if (connected.incrementAndGet() == connections) {
+          resume();
+        } else {
+          connect(transport, address, connections, connected);
+        }
+      });
+    });
+  }
+
+  /**
+   * Runs a pipelined request benchmark against the given transport.
+   */
+  private void benchmark(String name, Transport transport, int port) throws Throwable {
+    Server server = transport.server();
+    Client client = transport.client();
+    Address address = new Address("localhost", port);
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      server.listen(address, connection -> {
+        connection.<Integer, Integer>handler(Integer.class, message -> {
+          return CompletableFuture.completedFuture(message);
+        });
+      }).thenRun(this::resume);
+    });
+    await(10000);
+
+    CompletableFuture<Connection> connectionFuture = new CompletableFuture<>();
+    context.executor().execute(() -> client.connect(address).thenAccept(connectionFuture::complete));
+    Connection connection = connectionFuture.get();
+
+    run(context, connection, WARMUP);
+
+    long startTime = System.nanoTime();
+    run(context, connection, REQUESTS);
+    long endTime = System.nanoTime();
+
+    LOGGER.info("{}: {} requests/second", name, (long) (REQUESTS / ((endTime - startTime) / 1_000_000_000d)));
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+    transport.close();
+    context.close();
+  }
+
+  /**
+   * Sends the given number of requests, keeping a fixed window of requests in flight.
+   */
+  private void run(ThreadContext context, Connection connection, int requests) throws Throwable {
+    AtomicInteger sent = new AtomicInteger();
+    AtomicInteger received = new AtomicInteger();
+    context.executor().execute(() -> {
+      for (int i = 0; i < WINDOW; i++) {
+        send(connection, requests, sent, received);
+      }
+    });
+    await(60000);
+  }
+
+  /**
+   * Sends a single request and sends another request once the response is received.
+   */
+  private void send(Connection connection, int requests, AtomicInteger sent, AtomicInteger received) {
+    if (sent.incrementAndGet() > requests) {
+      return;
+    }
+    connection.<Integer, Integer>sendAndReceive(1).whenComplete((response, error) -> {
+      if (received.incrementAndGet() == requests) {
+        resume();
+      } else {
+        send(connection, requests, sent, received);
+      }
+    });
+  }
+
+}
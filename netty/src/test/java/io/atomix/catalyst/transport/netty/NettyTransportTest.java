@@ -15,20 +15,35 @@
  */
 package io.atomix.catalyst.transport.netty;
 
+import io.atomix.catalyst.buffer.Buffer;
+import io.atomix.catalyst.buffer.BufferInput;
+import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.buffer.FileBuffer;
+import io.atomix.catalyst.buffer.HeapBuffer;
 import io.atomix.catalyst.concurrent.SingleThreadContext;
 import io.atomix.catalyst.concurrent.ThreadContext;
 import io.atomix.catalyst.serializer.SerializationException;
 import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.serializer.TypeSerializer;
 import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.BufferStreamListener;
 import io.atomix.catalyst.transport.Client;
+import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.Priority;
 import io.atomix.catalyst.transport.Server;
+import io.atomix.catalyst.transport.StreamListener;
 import io.atomix.catalyst.transport.Transport;
+import io.atomix.catalyst.transport.TransportException;
 
+import java.io.File;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Properties;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import net.jodah.concurrentunit.ConcurrentTestCase;
 
@@ -90,6 +105,59 @@ public class NettyTransportTest extends ConcurrentTestCase {
     await(10000, 2);
   }
 
+  /**
+   * Tests that client, server and connection metrics are recorded.
+   */
+  public void testMetrics() throws Throwable {
+    Transport transport = new NettyTransport();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5555)), connection -> {
+          connection.<String, String>handler(String.class, message -> {
+            return CompletableFuture.completedFuture("Hello world back!");
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5555))).thenAccept(connection -> {
+          connection.sendAndReceive("Hello world!").thenAccept(response -> {
+            threadAssertEquals(1L, connection.metrics().messagesOut());
+            threadAssertEquals(1L, connection.metrics().messagesIn());
+            threadAssertTrue(connection.metrics().bytesOut() > 0);
+            threadAssertTrue(connection.metrics().bytesIn() > 0);
+            threadAssertEquals(1L, client.metrics().messagesOut());
+            threadAssertEquals(1L, client.metrics().messagesIn());
+            threadAssertEquals(1L, server.metrics().messagesIn());
+            threadAssertEquals(1L, server.metrics().messageCount(String.class));
+            threadAssertTrue(server.metrics().bytesIn() > 0);
+            resume();
+          });
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
   /**
    * Tests failing a message that's not serializable.
    */
@@ -171,7 +239,7 @@ public class NettyTransportTest extends ConcurrentTestCase {
     context.executor().execute(() -> {
       try {
         client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5555))).thenAccept(connection -> {
-          connection.send("Hello world!").thenAccept(response -> {
+          connection.sendAndReceive("Hello world!").thenAccept(response -> {
             threadAssertEquals("Hello world back!", response);
             resume();
           });
@@ -195,4 +263,658 @@ public class NettyTransportTest extends ConcurrentTestCase {
   private static class NotSerializable {
   }
 
+  /**
+   * Tests sending a message serialized through the abstract registration of a concrete base class.
+   */
+  public void testSendReceiveAbstract() throws Throwable {
+    Transport transport = new NettyTransport();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    Serializer serializer = new Serializer();
+    serializer.registerAbstract(BaseMessage.class, 100, type -> new BaseMessageSerializer());
+    ThreadContext context = new SingleThreadContext("test-thread-%d", serializer);
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5555)), connection -> {
+          connection.<ConcreteMessage, String>handler(ConcreteMessage.class, message -> {
+            return CompletableFuture.completedFuture(message.value + " back!");
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5555))).thenAccept(connection -> {
+          connection.sendAndReceive(new ConcreteMessage("Hello world!")).thenAccept(response -> {
+            threadAssertEquals("Hello world! back!", response);
+            resume();
+          });
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  private static class BaseMessage {
+  }
+
+  private static class ConcreteMessage extends BaseMessage {
+    private final String value;
+
+    private ConcreteMessage(String value) {
+      this.value = value;
+    }
+  }
+
+  private static class BaseMessageSerializer implements TypeSerializer<BaseMessage> {
+    @Override
+    public void write(BaseMessage object, BufferOutput buffer, Serializer serializer) {
+      buffer.writeUTF8(((ConcreteMessage) object).value);
+    }
+
+    @Override
+    public BaseMessage read(Class<BaseMessage> type, BufferInput buffer, Serializer serializer) {
+      return new ConcreteMessage(buffer.readUTF8());
+    }
+  }
+
+  /**
+   * Tests sending a one-way message.
+   */
+  public void testSend() throws Throwable {
+    testSend(new NettyTransport());
+  }
+
+  /**
+   * Tests sending a one-way message with message frames enabled.
+   */
+  public void testSendOneWay() throws Throwable {
+    testSend(NettyTransport.builder().withOneWayMessages().build());
+  }
+
+  /**
+   * Tests sending a message on the given transport.
+   */
+  private void testSend(Transport transport) throws Throwable {
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5557)), connection -> {
+          connection.<String, String>handler(String.class, message -> {
+            threadAssertEquals("Hello world!", message);
+            resume();
+            return null;
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5557))).thenAccept(connection -> {
+          connection.send("Hello world!").thenRun(this::resume);
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 2);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests sending a batch of messages.
+   */
+  public void testSendReceiveAll() throws Throwable {
+    Transport transport = new NettyTransport();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5558)), connection -> {
+          connection.<Integer, Integer>handler(Integer.class, message -> {
+            return CompletableFuture.completedFuture(message * 2);
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5558))).thenAccept(connection -> {
+          List<CompletableFuture<Integer>> futures = connection.sendAndReceiveAll(Arrays.asList(1, 2, 3));
+          threadAssertEquals(futures.size(), 3);
+          for (int i = 0; i < futures.size(); i++) {
+            int expected = (i + 1) * 2;
+            futures.get(i).thenAccept(response -> {
+              threadAssertEquals(expected, response);
+              resume();
+            });
+          }
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 3);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests that responses to a batch of messages are not held back by a slow request in the batch.
+   */
+  public void testSendReceiveAllSlowRequest() throws Throwable {
+    Transport transport = new NettyTransport();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+    CompletableFuture<Integer> slow = new CompletableFuture<>();
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5565)), connection -> {
+          connection.<Integer, Integer>handler(Integer.class, message -> {
+            return message == 1 ? slow : CompletableFuture.completedFuture(message * 2);
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    AtomicInteger completed = new AtomicInteger();
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5565))).thenAccept(connection -> {
+          List<CompletableFuture<Integer>> futures = connection.sendAndReceiveAll(Arrays.asList(1, 2, 3));
+          for (int i = 0; i < futures.size(); i++) {
+            int expected = (i + 1) * 2;
+            futures.get(i).thenAccept(response -> {
+              threadAssertEquals(expected, response);
+              completed.incrementAndGet();
+              resume();
+            });
+          }
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 2);
+    threadAssertEquals(2, completed.get());
+
+    slow.complete(2);
+    await(10000);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests broadcasting a message to multiple connections.
+   */
+  public void testBroadcast() throws Throwable {
+    Transport transport = new NettyTransport();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5559)), connection -> {
+          connection.<String, String>handler(String.class, message -> {
+            threadAssertEquals("Hello world!", message);
+            return CompletableFuture.completedFuture("Hello world back!");
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        Address address = new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5559));
+        client.connect(address).thenCombine(client.connect(address), Arrays::<Connection>asList).thenAccept(connections -> {
+          List<CompletableFuture<String>> futures = transport.broadcast(connections, "Hello world!");
+          threadAssertEquals(futures.size(), 2);
+          for (CompletableFuture<String> future : futures) {
+            future.thenAccept(response -> {
+              threadAssertEquals("Hello world back!", response);
+              resume();
+            });
+          }
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 2);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests that each connection to the same address has its own connection pool.
+   */
+  public void testPooledSendReceive() throws Throwable {
+    Transport transport = NettyTransport.builder().withPoolSize(2).build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5560)), connection -> {
+          connection.<String, String>handler(String.class, message -> {
+            threadAssertEquals("Hello world!", message);
+            return CompletableFuture.completedFuture("Hello world back!");
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        Address address = new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5560));
+        client.connect(address).thenCombine(client.connect(address), (first, second) -> {
+          threadAssertTrue(first != second);
+          return first.close().thenApply(v -> second);
+        }).thenCompose(future -> future).thenAcceptAsync(connection -> {
+          for (int i = 0; i < 4; i++) {
+            connection.sendAndReceive("Hello world!").thenAccept(response -> {
+              threadAssertEquals("Hello world back!", response);
+              resume();
+            });
+          }
+        }, context.executor());
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 4);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests sending messages over priority lanes.
+   */
+  public void testPriorityLanes() throws Throwable {
+    Transport transport = NettyTransport.builder()
+      .withPriorityLanes()
+      .withPriority(Integer.class, Priority.HIGH)
+      .withStreamChunkSize(1024)
+      .build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+    AtomicInteger connections = new AtomicInteger();
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5562)), connection -> {
+          connections.incrementAndGet();
+          connection.<String, String>handler(String.class, message -> {
+            return CompletableFuture.completedFuture(message);
+          });
+          connection.<Integer, Integer>handler(Integer.class, message -> {
+            return CompletableFuture.completedFuture(message + 1);
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5562))).thenAccept(connection -> {
+          connection.sendAndReceive("Hello world!").thenAccept(response -> {
+            threadAssertEquals("Hello world!", response);
+            resume();
+          });
+          connection.sendAndReceive("Hello world!", Priority.HIGH).thenAccept(response -> {
+            threadAssertEquals("Hello world!", response);
+            resume();
+          });
+          connection.sendAndReceive(1).thenAccept(response -> {
+            threadAssertEquals(2, response);
+            resume();
+          });
+
+          // Messages larger than twice the chunk size are fragmented.
+          String large = new String(new char[16 * 1024]).replace('\0', 'a');
+          connection.sendAndReceive(large).thenAccept(response -> {
+            threadAssertEquals(large, response);
+            resume();
+          });
+          connection.sendAndReceive(2).thenAccept(response -> {
+            threadAssertEquals(3, response);
+            resume();
+          });
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 5);
+    threadAssertEquals(connections.get(), 1);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests streaming a buffer in chunks.
+   */
+  public void testStream() throws Throwable {
+    Transport transport = NettyTransport.builder()
+      .withStreamChunkSize(16)
+      .withStreamWindow(2)
+      .build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+    Buffer data = HeapBuffer.allocate(1000);
+    for (int i = 0; i < 1000; i++) {
+      data.writeByte(i);
+    }
+    data.flip();
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5563)), connection -> {
+          connection.streamHandler(String.class, message -> {
+            threadAssertEquals("Hello world!", message);
+            Buffer received = HeapBuffer.allocate(1000);
+            return new StreamListener() {
+              @Override
+              public void onChunk(Buffer chunk) {
+                threadAssertTrue(chunk.remaining() <= 16);
+                received.write(chunk);
+              }
+
+              @Override
+              public void onComplete() {
+                threadAssertEquals(received.position(), 1000L);
+                for (int i = 0; i < 1000; i++) {
+                  threadAssertEquals(received.readByte(i), (byte) i);
+                }
+                resume();
+              }
+
+              @Override
+              public void onError(Throwable error) {
+                threadFail(error);
+              }
+            };
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5563))).thenAccept(connection -> {
+          connection.stream("Hello world!", data).whenComplete((result, error) -> {
+            threadAssertNull(error);
+            resume();
+          });
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 2);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests streaming a file buffer into a file buffer.
+   */
+  public void testFileStream() throws Throwable {
+    Transport transport = NettyTransport.builder()
+      .withStreamChunkSize(1024)
+      .build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+    File source = File.createTempFile("source", ".log");
+    File target = File.createTempFile("target", ".log");
+    source.deleteOnExit();
+    target.deleteOnExit();
+
+    FileBuffer data = FileBuffer.allocate(source);
+    for (int i = 0; i < 10000; i++) {
+      data.writeInt(i);
+    }
+    data.flip();
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5564)), connection -> {
+          connection.streamHandler(String.class, message -> {
+            BufferStreamListener listener = new BufferStreamListener(FileBuffer.allocate(target));
+            listener.future().thenAccept(buffer -> {
+              buffer.flip();
+              for (int i = 0; i < 10000; i++) {
+                threadAssertEquals(buffer.readInt(), i);
+              }
+              resume();
+            });
+            return listener;
+          });
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5564))).thenAccept(connection -> {
+          connection.stream("Hello world!", data).whenComplete((result, error) -> {
+            threadAssertNull(error);
+            resume();
+          });
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 2);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests that requests beyond the in-flight window are rejected until the connection is writable again.
+   */
+  public void testMaxInFlight() throws Throwable {
+    Transport transport = NettyTransport.builder().withMaxInFlight(1).build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+    CompletableFuture<String> reply = new CompletableFuture<>();
+
+    context.executor().execute(() -> {
+      try {
+        server.listen(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5561)), connection -> {
+          connection.<String, String>handler(String.class, message -> reply);
+        }).thenRun(this::resume);
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      try {
+        client.connect(new Address(new InetSocketAddress(InetAddress.getByName("localhost"), 5561))).thenAccept(connection -> {
+          connection.sendAndReceive("Hello world!").thenAccept(response -> {
+            threadAssertEquals("Hello world back!", response);
+            resume();
+          });
+          connection.sendAndReceive("Hello world!").whenComplete((response, error) -> {
+            threadAssertTrue(error instanceof TransportException);
+            threadAssertFalse(connection.isWritable());
+            connection.awaitWritable().thenRun(this::resume);
+            reply.complete("Hello world back!");
+          });
+        });
+      } catch (UnknownHostException e) {
+        threadFail(e);
+      }
+    });
+    await(10000, 2);
+
+    context.executor().execute(() -> {
+      client.close().thenRun(this::resume);
+      server.close().thenRun(this::resume);
+    });
+    await(10000, 2);
+  }
+
+  /**
+   * Tests sending a message as a datagram.
+   */
+  public void testDatagram() throws Throwable {
+    NettyTransport transport = new NettyTransport();
+    NettyDatagramTransport receiver = transport.datagrams();
+    NettyDatagramTransport sender = transport.datagrams();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      receiver.handler(String.class, (address, message) -> {
+        threadAssertEquals("Hello world!", message);
+        resume();
+      });
+      receiver.bind(new Address("localhost", 5565)).thenRun(this::resume);
+      sender.bind(new Address("localhost", 0)).thenRun(this::resume);
+    });
+    await(10000, 2);
+
+    context.executor().execute(() -> {
+      sender.send(new Address("localhost", 5565), "Hello world!").thenRun(this::resume);
+    });
+    await(10000, 2);
+
+    sender.close();
+    receiver.close();
+    context.close();
+  }
+
+  /**
+   * Tests that datagrams sent while the transport is closing complete their futures.
+   */
+  public void testDatagramClose() throws Throwable {
+    NettyTransport transport = new NettyTransport();
+    NettyDatagramTransport sender = transport.datagrams();
+
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    context.executor().execute(() -> {
+      sender.bind(new Address("localhost", 0)).thenRun(this::resume);
+    });
+    await(10000);
+
+    context.executor().execute(() -> {
+      for (int i = 0; i < 10; i++) {
+        sender.send(new Address("localhost", 5567), "Hello world!").whenComplete((result, error) -> resume());
+      }
+      sender.close();
+    });
+    await(10000, 10);
+
+    context.close();
+  }
+
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import io.atomix.catalyst.concurrent.SingleThreadContext;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.serializer.Serializer;
+import net.jodah.concurrentunit.ConcurrentTestCase;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read batch test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class ReadBatchTest extends ConcurrentTestCase {
+
+  /**
+   * Tests that tasks are run in order on their contexts once the batch is flushed.
+   */
+  public void testFlush() throws Throwable {
+    ThreadContext context1 = new SingleThreadContext("test-thread-%d", new Serializer());
+    ThreadContext context2 = new SingleThreadContext("test-thread-%d", new Serializer());
+    AtomicInteger counter1 = new AtomicInteger();
+    AtomicInteger counter2 = new AtomicInteger();
+
+    ReadBatch batch = new ReadBatch();
+    for (int i = 0; i < 10; i++) {
+      int index = i;
+      batch.add(context1, () -> {
+        threadAssertEquals(index, counter1.getAndIncrement());
+        resume();
+      });
+      batch.add(context2, () -> {
+        threadAssertEquals(index, counter2.getAndIncrement());
+        resume();
+      });
+    }
+
+    threadAssertEquals(0, counter1.get());
+    batch.flush();
+    await(10000, 20);
+
+    context1.close();
+    context2.close();
+  }
+
+  /**
+   * Tests that a task that throws an exception does not prevent the remaining tasks in the batch from running.
+   */
+  public void testTaskFailure() throws Throwable {
+    ThreadContext context = new SingleThreadContext("test-thread-%d", new Serializer());
+
+    ReadBatch batch = new ReadBatch();
+    batch.add(context, this::resume);
+    batch.add(context, () -> {
+      throw new IllegalStateException();
+    });
+    batch.add(context, this::resume);
+    batch.flush();
+    await(10000, 2);
+
+    context.close();
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Request table test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class RequestTableTest {
+
+  /**
+   * Tests adding and removing requests.
+   */
+  public void testAddRemove() {
+    RequestTable table = new RequestTable(10, 0);
+    for (long i = 1; i <= 1000; i++) {
+      table.add(i, new ContextualFuture<>(0, null), 100, 0);
+    }
+    assertEquals(table.size(), 1000);
+
+    for (long i = 1; i <= 1000; i += 2) {
+      ContextualFuture<?> future = table.remove(i);
+      assertNotNull(future);
+      assertEquals(future.requestId, i);
+    }
+    assertEquals(table.size(), 500);
+
+    for (long i = 1; i <= 1000; i++) {
+      if (i % 2 == 0) {
+        assertEquals(table.get(i).requestId, i);
+      } else {
+        assertNull(table.get(i));
+      }
+    }
+    assertNull(table.remove(1));
+  }
+
+  /**
+   * Tests expiring requests.
+   */
+  public void testExpire() {
+    RequestTable table = new RequestTable(10, 0);
+    table.add(1, new ContextualFuture<>(0, null), 100, 0);
+    table.add(2, new ContextualFuture<>(0, null), 200, 0);
+    table.add(3, new ContextualFuture<>(0, null), 100, 0);
+    table.add(4, new ContextualFuture<>(0, null), 10000, 0);
+    table.remove(3);
+
+    assertNull(table.expire(50));
+
+    ContextualFuture<?> expired = table.expire(100);
+    assertNotNull(expired);
+    assertEquals(expired.requestId, 1);
+    assertNull(expired.next);
+    assertNull(table.get(1));
+    assertEquals(table.size(), 2);
+
+    expired = table.expire(250);
+    assertEquals(expired.requestId, 2);
+    assertNull(expired.next);
+
+    // Requests scheduled beyond a full rotation of the wheel must not expire early.
+    assertNull(table.expire(6000));
+    expired = table.expire(10000);
+    assertEquals(expired.requestId, 4);
+    assertEquals(table.size(), 0);
+  }
+
+  /**
+   * Tests clearing the table.
+   */
+  public void testClear() {
+    RequestTable table = new RequestTable(10, 0);
+    for (long i = 1; i <= 100; i++) {
+      table.add(i, new ContextualFuture<>(0, null), 100, 0);
+    }
+
+    int count = 0;
+    ContextualFuture<?> future = table.clear();
+    while (future != null) {
+      count++;
+      future = future.next;
+    }
+    assertEquals(count, 100);
+    assertEquals(table.size(), 0);
+    assertNull(table.expire(1000));
+  }
+
+}
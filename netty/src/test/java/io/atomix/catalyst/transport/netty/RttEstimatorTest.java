@@ -0,0 +1,95 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.netty;
+
+import org.testng.annotations.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.*;
+
+/**
+ * Round trip time estimator test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class RttEstimatorTest {
+
+  /**
+   * Tests that the initial timeout is used until the first sample.
+   */
+  public void testInitialTimeout() {
+    RttEstimator estimator = new RttEstimator(500, 10, 10000);
+    assertEquals(estimator.timeout(), 500);
+    assertEquals(estimator.rtt(), 0);
+  }
+
+  /**
+   * Tests that the timeout converges on stable round trip times.
+   */
+  public void testSample() {
+    RttEstimator estimator = new RttEstimator(500, 1, 10000);
+    estimator.sample(TimeUnit.MILLISECONDS.toNanos(20));
+    assertEquals(estimator.timeout(), 61);
+
+    for (int i = 0; i < 100; i++) {
+      estimator.sample(TimeUnit.MILLISECONDS.toNanos(20));
+    }
+    assertEquals(TimeUnit.NANOSECONDS.toMillis(estimator.rtt()), 20);
+    assertTrue(estimator.timeout() >= 20 && estimator.timeout() <= 22);
+  }
+
+  /**
+   * Tests that the timeout grows with round trip time variance.
+   */
+  public void testVariance() {
+    RttEstimator stable = new RttEstimator(500, 1, 10000);
+    RttEstimator variable = new RttEstimator(500, 1, 10000);
+    for (int i = 0; i < 100; i++) {
+      stable.sample(TimeUnit.MILLISECONDS.toNanos(20));
+      variable.sample(TimeUnit.MILLISECONDS.toNanos(i % 2 == 0 ? 10 : 30));
+    }
+    assertTrue(variable.timeout() > stable.timeout());
+  }
+
+  /**
+   * Tests that the timeout is bounded by the minimum and maximum timeouts.
+   */
+  public void testBounds() {
+    RttEstimator estimator = new RttEstimator(500, 50, 1000);
+    estimator.sample(TimeUnit.MICROSECONDS.toNanos(100));
+    assertEquals(estimator.timeout(), 50);
+    estimator.sample(TimeUnit.SECONDS.toNanos(10));
+    assertEquals(estimator.timeout(), 1000);
+  }
+
+  /**
+   * Tests backing off the timeout.
+   */
+  public void testBackoff() {
+    RttEstimator estimator = new RttEstimator(100, 10, 1000);
+    estimator.backoff();
+    assertEquals(estimator.timeout(), 200);
+    estimator.backoff();
+    estimator.backoff();
+    estimator.backoff();
+    assertEquals(estimator.timeout(), 1000);
+    estimator.sample(TimeUnit.MILLISECONDS.toNanos(20));
+    assertEquals(estimator.timeout(), 61);
+  }
+
+}
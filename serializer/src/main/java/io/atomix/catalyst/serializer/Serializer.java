@@ -1019,6 +1019,38 @@ public class Serializer {
     }
   }
 
+  /**
+   * Reads the type of an object from the given buffer without reading the object itself.
+   * <p>
+   * The type header written by {@link #writeObject(Object, BufferOutput)} will be read from the buffer starting
+   * at the current position, leaving the buffer positioned at the start of the serialized object. This allows
+   * callers to route serialized objects by type before paying the cost of deserializing them.
+   *
+   * @param buffer The buffer from which to read the type.
+   * @param <T> The object type.
+   * @return The serialized object type or {@code null} if a {@code null} object was written to the buffer.
+   * @throws SerializationException If no type could be read from the provided buffer.
+   */
+  @SuppressWarnings("unchecked")
+  public <T> Class<T> readType(BufferInput<?> buffer) {
+    int code = buffer.readByte();
+    Identifier identifier = Identifier.forCode(code);
+    switch (identifier) {
+      case NULL:
+        return null;
+      case CLASS:
+        String name = buffer.readUTF8();
+        if (whitelistRequired.get())
+          throw new SerializationException("cannot deserialize unregistered type: " + name);
+        return (Class<T>) loadClass(name);
+      default:
+        Class<T> type = (Class<T>) registry.type(identifier.read(buffer));
+        if (type == null)
+          throw new SerializationException("cannot deserialize: unknown type");
+        return type;
+    }
+  }
+
   /**
    * Reads a serializable object.
    *
@@ -1053,10 +1085,22 @@ public class Serializer {
     if (whitelistRequired.get())
       throw new SerializationException("cannot deserialize unregistered type: " + name);
 
-    Class<T> type = (Class<T>) types.get(name);
+    Class<T> type = (Class<T>) loadClass(name);
+    TypeSerializer<T> serializer = getSerializer(type);
+    if (serializer == null)
+      throw new SerializationException("cannot deserialize unregistered type: " + name);
+
+    return serializer.read(type, buffer, this);
+  }
+
+  /**
+   * Loads the class with the given name from the type cache.
+   */
+  private Class<?> loadClass(String name) {
+    Class<?> type = types.get(name);
     if (type == null) {
       try {
-        type = (Class<T>) Class.forName(name);
+        type = Class.forName(name);
         if (type == null)
           throw new SerializationException("cannot deserialize: unknown type");
         types.put(name, type);
@@ -1064,12 +1108,7 @@ public class Serializer {
         throw new SerializationException("object class not found: " + name, e);
       }
     }
-
-    TypeSerializer<T> serializer = getSerializer(type);
-    if (serializer == null)
-      throw new SerializationException("cannot deserialize unregistered type: " + name);
-
-    return serializer.read(type, buffer, this);
+    return type;
   }
 
   /**
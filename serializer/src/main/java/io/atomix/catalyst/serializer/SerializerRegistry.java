@@ -333,6 +333,20 @@ public class SerializerRegistry {
     return 0;
   }
 
+  /**
+   * Returns whether the given type was registered as an abstract type.
+   * <p>
+   * The serializable type ID of a type registered with {@link #registerAbstract(Class, int, TypeSerializerFactory)}
+   * is written for all of its subtypes, so an object read with the ID of an abstract type may be an instance of any
+   * subtype of it, whether or not the abstract type is itself concrete.
+   *
+   * @param type The type to check.
+   * @return Whether the given type was registered as an abstract type.
+   */
+  public boolean isAbstract(Class<?> type) {
+    return abstractFactories.containsKey(type);
+  }
+
   /**
    * Returns the type for the given ID.
    *
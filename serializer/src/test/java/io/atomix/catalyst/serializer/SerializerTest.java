@@ -18,6 +18,7 @@ package io.atomix.catalyst.serializer;
 import io.atomix.catalyst.buffer.Buffer;
 import io.atomix.catalyst.buffer.BufferInput;
 import io.atomix.catalyst.buffer.BufferOutput;
+import io.atomix.catalyst.serializer.util.CatalystSerializableSerializer;
 import org.testng.annotations.Test;
 
 import java.io.*;
@@ -531,6 +532,33 @@ public class SerializerTest {
     assertEquals(result.string, "Hello world!");
   }
 
+  /**
+   * Tests reading a serialized type without reading the object.
+   */
+  public void testReadType() {
+    Serializer serializer = new Serializer();
+    serializer.register(TestSerializable.class);
+    TestSerializable serializable = new TestSerializable();
+    serializable.string = "Hello world!";
+    Buffer buffer = serializer.writeObject(serializable).flip();
+    assertEquals(serializer.readType(buffer), TestSerializable.class);
+    assertEquals(serializer.readType(serializer.writeObject("Hello world!").flip()), String.class);
+    assertNull(serializer.readType(serializer.writeObject(null).flip()));
+  }
+
+  /**
+   * Tests reading the type of an object serialized through an abstract registration of a concrete class.
+   */
+  public void testReadAbstractType() {
+    Serializer serializer = new Serializer()
+      .register(TestSerializable.class)
+      .registerAbstract(TestCatalystSerializable.class, 200, CatalystSerializableSerializer.class);
+    Buffer buffer = serializer.writeObject(new TestCatalystSerializable()).flip();
+    assertEquals(serializer.readType(buffer), TestCatalystSerializable.class);
+    assertTrue(serializer.registry().isAbstract(TestCatalystSerializable.class));
+    assertFalse(serializer.registry().isAbstract(TestSerializable.class));
+  }
+
   public static class TestCatalystSerializable implements CatalystSerializable {
     protected long primitive;
     protected Object object;
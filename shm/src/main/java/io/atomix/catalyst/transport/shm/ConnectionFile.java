@@ -0,0 +1,175 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.buffer.util.MappedMemory;
+import sun.misc.Unsafe;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Memory-mapped connection file.
+ * <p>
+ * A connection file holds the connection state followed by two {@link RingBuffer}s, one for each direction of the
+ * connection. The client creates and initializes the file under a temporary name and then atomically renames it
+ * into the server's directory, so the server never sees a partially initialized file. The server accepts the
+ * connection by switching the state from {@link #CONNECTING} to {@link #ACCEPTED}, and either side closes it by
+ * switching the state to {@link #CLOSED}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class ConnectionFile {
+  static final int CONNECTING = 0;
+  static final int ACCEPTED = 1;
+  static final int CLOSED = 2;
+
+  private static final int STATE_OFFSET = 0;
+  private static final int CAPACITY_OFFSET = 8;
+  private static final int RINGS_OFFSET = 64;
+
+  /**
+   * Creates a new connection file.
+   *
+   * @param file The file to create.
+   * @param capacity The capacity of each ring buffer.
+   * @return The connection file.
+   * @throws IOException if the file cannot be created
+   */
+  static ConnectionFile create(File file, int capacity) throws IOException {
+    File temp = new File(file.getParentFile(), file.getName() + ".tmp");
+    MappedMemory memory = MappedMemory.allocate(temp, size(capacity));
+    memory.putInt(CAPACITY_OFFSET, capacity);
+    try {
+      Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      memory.close();
+      temp.delete();
+      throw e;
+    }
+    return new ConnectionFile(file, memory, capacity);
+  }
+
+  /**
+   * Opens an existing connection file.
+   *
+   * @param file The file to open.
+   * @return The connection file.
+   * @throws IOException if the file is not a valid connection file
+   */
+  static ConnectionFile open(File file) throws IOException {
+    long length = file.length();
+    if (length < RINGS_OFFSET)
+      throw new IOException("invalid connection file " + file);
+
+    MappedMemory memory = MappedMemory.allocate(file, length);
+    int capacity = memory.getInt(CAPACITY_OFFSET);
+    if (capacity <= 0 || size(capacity) != length) {
+      memory.close();
+      throw new IOException("invalid connection file " + file);
+    }
+    return new ConnectionFile(file, memory, capacity);
+  }
+
+  /**
+   * Returns the size of a connection file with the given ring capacity.
+   */
+  private static long size(int capacity) {
+    return RINGS_OFFSET + RingBuffer.size(capacity) * 2;
+  }
+
+  private final File file;
+  private final MappedMemory memory;
+  private final Unsafe unsafe;
+  private final long stateAddress;
+  private final RingBuffer clientRing;
+  private final RingBuffer serverRing;
+
+  private ConnectionFile(File file, MappedMemory memory, int capacity) {
+    this.file = file;
+    this.memory = memory;
+    this.unsafe = memory.unsafe();
+    this.stateAddress = memory.address(STATE_OFFSET);
+    this.clientRing = new RingBuffer(memory, RINGS_OFFSET, capacity);
+    this.serverRing = new RingBuffer(memory, RINGS_OFFSET + RingBuffer.size(capacity), capacity);
+  }
+
+  /**
+   * Returns the file name.
+   */
+  String name() {
+    return file.getName();
+  }
+
+  /**
+   * Returns the ring to which the client writes and from which the server reads.
+   */
+  RingBuffer clientRing() {
+    return clientRing;
+  }
+
+  /**
+   * Returns the ring to which the server writes and from which the client reads.
+   */
+  RingBuffer serverRing() {
+    return serverRing;
+  }
+
+  /**
+   * Returns the connection state.
+   */
+  int state() {
+    return unsafe.getIntVolatile(null, stateAddress);
+  }
+
+  /**
+   * Accepts the connection.
+   *
+   * @return Indicates whether the connection was accepted, or {@code false} if it was already closed.
+   */
+  boolean accept() {
+    return unsafe.compareAndSwapInt(null, stateAddress, CONNECTING, ACCEPTED);
+  }
+
+  /**
+   * Abandons a connection that has not been accepted.
+   *
+   * @return Indicates whether the connection was abandoned, or {@code false} if it was accepted in the meantime.
+   */
+  boolean abandon() {
+    return unsafe.compareAndSwapInt(null, stateAddress, CONNECTING, CLOSED);
+  }
+
+  /**
+   * Marks the connection closed.
+   */
+  void close() {
+    unsafe.putIntVolatile(null, stateAddress, CLOSED);
+  }
+
+  /**
+   * Unmaps and deletes the file.
+   * <p>
+   * The rings must not be accessed once the file has been released.
+   */
+  void release() {
+    memory.close();
+    file.delete();
+  }
+
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.buffer.util.HeapMemory;
+import io.atomix.catalyst.buffer.util.Memory;
+import io.atomix.catalyst.buffer.util.NativeMemory;
+import sun.misc.Unsafe;
+
+/**
+ * Single-producer/single-consumer ring buffer in native memory.
+ * <p>
+ * The ring consists of a producer position and a consumer position, each on its own cache line, followed by the
+ * record data. Each record is a {@code [length:4][type:4][id:8]} header followed by the payload, padded to eight
+ * bytes. Records never wrap: a record that does not fit before the end of the ring is preceded by a padding record
+ * that fills the remainder. The padding is published on its own so that the consumer can release it before the
+ * record is written. The producer publishes records with an ordered write of its position once the record has been
+ * written, and the consumer releases space with an ordered write of its position once the record has been read, so
+ * neither side ever takes a lock or makes a system call.
+ * <p>
+ * The ring may be shared between processes by placing it in memory mapped from a shared file.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class RingBuffer {
+  private static final int TAIL_OFFSET = 0;
+  private static final int HEAD_OFFSET = 64;
+  private static final int DATA_OFFSET = 128;
+  private static final int RECORD_HEADER_SIZE = 16;
+  private static final int PADDING = -1;
+
+  /**
+   * Returns the number of bytes of memory required for a ring of the given capacity.
+   */
+  static long size(int capacity) {
+    return DATA_OFFSET + capacity;
+  }
+
+  /**
+   * Returns the maximum payload size of a record in a ring of the given capacity.
+   */
+  static int maxPayloadSize(int capacity) {
+    return capacity - RECORD_HEADER_SIZE;
+  }
+
+  private final Unsafe unsafe;
+  private final long tailAddress;
+  private final long headAddress;
+  private final long dataAddress;
+  private final int capacity;
+  private final int mask;
+  private long tail;
+  private long headCache;
+  private long head;
+
+  /**
+   * @param memory The memory in which the ring is stored.
+   * @param offset The offset of the ring within the memory.
+   * @param capacity The capacity of the ring in bytes. Must be a power of two.
+   */
+  RingBuffer(NativeMemory memory, long offset, int capacity) {
+    if (!Memory.Util.isPow2(capacity) || capacity < RECORD_HEADER_SIZE * 2)
+      throw new IllegalArgumentException("capacity must be a power of two of at least " + RECORD_HEADER_SIZE * 2);
+    this.unsafe = memory.unsafe();
+    this.tailAddress = memory.address(offset + TAIL_OFFSET);
+    this.headAddress = memory.address(offset + HEAD_OFFSET);
+    this.dataAddress = memory.address(offset + DATA_OFFSET);
+    this.capacity = capacity;
+    this.mask = capacity - 1;
+    this.tail = unsafe.getLongVolatile(null, tailAddress);
+    this.head = unsafe.getLongVolatile(null, headAddress);
+    this.headCache = head;
+  }
+
+  /**
+   * Writes a record to the ring.
+   * <p>
+   * This method may only be called by the single producer.
+   *
+   * @param type The record type.
+   * @param id The record identifier.
+   * @param payload The array containing the record payload.
+   * @param length The length of the payload.
+   * @return Indicates whether the record was written, or {@code false} if the ring is full.
+   * @throws IllegalArgumentException if the payload can never fit in the ring
+   */
+  boolean write(int type, long id, byte[] payload, int length) {
+    if (length > maxPayloadSize(capacity))
+      throw new IllegalArgumentException("payload of " + length + " bytes exceeds ring capacity");
+
+    int size = align(RECORD_HEADER_SIZE + length);
+    int index = (int) (tail & mask);
+    int remaining = capacity - index;
+
+    // Publish the padding on its own so that the record only needs its own size free at the start of the next lap.
+    if (size > remaining) {
+      if (!hasCapacity(remaining)) {
+        return false;
+      }
+      unsafe.putInt(dataAddress + index, PADDING);
+      tail += remaining;
+      unsafe.putOrderedLong(null, tailAddress, tail);
+      index = 0;
+    }
+
+    if (!hasCapacity(size)) {
+      return false;
+    }
+
+    long address = dataAddress + index;
+    unsafe.putInt(address, length);
+    unsafe.putInt(address + 4, type);
+    unsafe.putLong(address + 8, id);
+    unsafe.copyMemory(payload, HeapMemory.ARRAY_BASE_OFFSET, null, address + RECORD_HEADER_SIZE, length);
+
+    tail += size;
+    unsafe.putOrderedLong(null, tailAddress, tail);
+    return true;
+  }
+
+  /**
+   * Returns a boolean indicating whether the given number of bytes are free at the producer position, reloading the
+   * consumer position only if the cached position shows too little space.
+   */
+  private boolean hasCapacity(int bytes) {
+    if (tail + bytes - headCache > capacity) {
+      headCache = unsafe.getLongVolatile(null, headAddress);
+      return tail + bytes - headCache <= capacity;
+    }
+    return true;
+  }
+
+  /**
+   * Reads records from the ring.
+   * <p>
+   * This method may only be called by the single consumer.
+   *
+   * @param handler The handler to which to pass records.
+   * @param limit The maximum number of records to read.
+   * @return The number of records read.
+   */
+  int read(RecordHandler handler, int limit) {
+    long tail = unsafe.getLongVolatile(null, tailAddress);
+    int count = 0;
+    try {
+      while (head < tail && count < limit) {
+        int index = (int) (head & mask);
+        long address = dataAddress + index;
+        int length = unsafe.getInt(address);
+        if (length == PADDING) {
+          head += capacity - index;
+          continue;
+        }
+
+        int type = unsafe.getInt(address + 4);
+        long id = unsafe.getLong(address + 8);
+        byte[] payload = new byte[length];
+        unsafe.copyMemory(null, address + RECORD_HEADER_SIZE, payload, HeapMemory.ARRAY_BASE_OFFSET, length);
+        head += align(RECORD_HEADER_SIZE + length);
+        count++;
+        handler.handle(type, id, payload);
+      }
+    } finally {
+      unsafe.putOrderedLong(null, headAddress, head);
+    }
+    return count;
+  }
+
+  /**
+   * Aligns the given size to eight bytes.
+   */
+  private static int align(int size) {
+    return (size + 7) & ~7;
+  }
+
+  /**
+   * Ring buffer record handler.
+   */
+  @FunctionalInterface
+  interface RecordHandler {
+
+    /**
+     * Handles a record read from the ring.
+     *
+     * @param type The record type.
+     * @param id The record identifier.
+     * @param payload The record payload.
+     */
+    void handle(int type, long id, byte[] payload);
+  }
+
+}
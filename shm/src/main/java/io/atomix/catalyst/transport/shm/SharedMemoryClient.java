@@ -0,0 +1,100 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.concurrent.ComposableFuture;
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.Client;
+import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.TransportMetrics;
+import io.atomix.catalyst.util.Assert;
+
+import java.io.File;
+import java.net.ConnectException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared memory client.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SharedMemoryClient implements Client {
+  private final UUID id = UUID.randomUUID();
+  private final SharedMemoryTransport transport;
+  private final Set<SharedMemoryConnection> connections = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final TransportMetrics metrics = new TransportMetrics();
+
+  /**
+   * @throws NullPointerException if {@code transport} is null
+   */
+  public SharedMemoryClient(SharedMemoryTransport transport) {
+    this.transport = Assert.notNull(transport, "transport");
+  }
+
+  @Override
+  public CompletableFuture<Connection> connect(Address address) {
+    Assert.notNull(address, "address");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    File directory = transport.directory(address.port());
+    if (!directory.isDirectory()) {
+      return Futures.exceptionalFutureAsync(new ConnectException("failed to connect"), context.executor());
+    }
+
+    ConnectionFile file;
+    try {
+      file = ConnectionFile.create(new File(directory, UUID.randomUUID().toString() + ".shm"), transport.options().ringSize());
+    } catch (Exception e) {
+      return Futures.exceptionalFutureAsync(new ConnectException("failed to connect: " + e.getMessage()), context.executor());
+    }
+
+    SharedMemoryConnection connection = new SharedMemoryConnection(file, true, context, transport, connections, metrics);
+    connections.add(connection);
+    return connection.connect();
+  }
+
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
+  @Override
+  public CompletableFuture<Void> close() {
+    ComposableFuture<Void> future = new ComposableFuture<>();
+
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    CompletableFuture<?>[] futures = connections.stream().map(SharedMemoryConnection::close).toArray(CompletableFuture[]::new);
+
+    CompletableFuture.allOf(futures).whenCompleteAsync(future, context.executor());
+    return future;
+  }
+
+  @Override
+  public int hashCode() {
+    return id.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    return object instanceof SharedMemoryClient && ((SharedMemoryClient) object).id.equals(id);
+  }
+
+}
@@ -0,0 +1,538 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.buffer.UnsafeHeapBuffer;
+import io.atomix.catalyst.concurrent.ComposableFuture;
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.Listener;
+import io.atomix.catalyst.concurrent.Listeners;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.TransportMetrics;
+import io.atomix.catalyst.util.Assert;
+import io.atomix.catalyst.util.reference.ReferenceCounted;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.ConnectException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Shared memory connection.
+ * <p>
+ * Messages are serialized on the sending thread and written directly into the outbound {@link RingBuffer}. Each
+ * connection has a single poller thread that reads the inbound ring, deserializes messages with its own serializer
+ * and dispatches them to handler contexts. Messages that do not fit in a full outbound ring are queued and written
+ * by the poller thread once the peer has consumed enough of the ring, preserving their order. When idle, the poller
+ * waits with a {@link SpinParkWaitStrategy}.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SharedMemoryConnection implements Connection {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryConnection.class);
+  private static final int REQUEST = 0x01;
+  private static final int SUCCESS = 0x02;
+  private static final int FAILURE = 0x03;
+  private static final int MESSAGE = 0x04;
+  private static final int READ_LIMIT = 64;
+  private static final ThreadLocal<UnsafeHeapBuffer> OUTPUT = ThreadLocal.withInitial(UnsafeHeapBuffer::allocate);
+
+  private final UUID id = UUID.randomUUID();
+  private final ConnectionFile file;
+  private final RingBuffer out;
+  private final RingBuffer in;
+  private final ThreadContext context;
+  private final Serializer serializer;
+  private final SharedMemoryTransport transport;
+  private final Set<SharedMemoryConnection> connections;
+  private final TransportMetrics metrics;
+  private final AtomicLong requestId = new AtomicLong();
+  private final Map<Long, ContextualFuture> futures = new ConcurrentHashMap<>();
+  private final Map<Class<?>, HandlerHolder> handlers = new ConcurrentHashMap<>();
+  private final Listeners<Throwable> exceptionListeners = new Listeners<>();
+  private final Listeners<Connection> closeListeners = new Listeners<>();
+  private final Object writeLock = new Object();
+  private final Queue<PendingWrite> pending = new ArrayDeque<>();
+  private final CompletableFuture<Void> closeFuture = new CompletableFuture<>();
+  private Thread poller;
+  private volatile boolean open = true;
+
+  /**
+   * @param file The connection file.
+   * @param client Whether this is the client side of the connection.
+   * @param context The context on which to notify connection listeners.
+   * @param transport The transport to which the connection belongs.
+   * @param connections The set of open connections from which to remove the connection once closed.
+   * @param metrics The parent metrics to which to propagate connection metrics.
+   */
+  SharedMemoryConnection(ConnectionFile file, boolean client, ThreadContext context, SharedMemoryTransport transport, Set<SharedMemoryConnection> connections, TransportMetrics metrics) {
+    this.file = file;
+    this.out = client ? file.clientRing() : file.serverRing();
+    this.in = client ? file.serverRing() : file.clientRing();
+    this.context = context;
+    this.serializer = context.serializer().clone();
+    this.transport = transport;
+    this.connections = connections;
+    this.metrics = new TransportMetrics(metrics);
+  }
+
+  /**
+   * Returns the connection file.
+   */
+  ConnectionFile file() {
+    return file;
+  }
+
+  /**
+   * Waits for the server to accept the connection and starts polling.
+   *
+   * @return A future to be completed on the connection context once the connection has been accepted.
+   */
+  CompletableFuture<Connection> connect() {
+    ComposableFuture<Connection> future = new ComposableFuture<>();
+    start(() -> {
+      long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(transport.options().connectTimeout());
+      SpinParkWaitStrategy wait = transport.waitStrategy();
+      while (open && file.state() == ConnectionFile.CONNECTING) {
+        if (System.nanoTime() >= deadline && file.abandon()) {
+          break;
+        }
+        wait.idle(0);
+      }
+
+      if (open && file.state() == ConnectionFile.ACCEPTED) {
+        context.executor().execute(() -> future.complete(this));
+        poll();
+      } else {
+        context.executor().execute(() -> future.completeExceptionally(new ConnectException("failed to connect")));
+        open = false;
+        handleClosed();
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Starts polling an accepted connection.
+   */
+  void start() {
+    start(this::poll);
+  }
+
+  /**
+   * Starts the poller thread.
+   */
+  private void start(Runnable task) {
+    poller = transport.threadFactory().newThread(task);
+    poller.setDaemon(true);
+    poller.start();
+  }
+
+  /**
+   * Polls the connection until it is closed.
+   */
+  private void poll() {
+    SpinParkWaitStrategy wait = transport.waitStrategy();
+    try {
+      while (open) {
+        int work = in.read(this::handleRecord, READ_LIMIT) + flush();
+        if (work == 0 && file.state() == ConnectionFile.CLOSED) {
+          break;
+        }
+        wait.idle(work);
+      }
+    } catch (Exception e) {
+      LOGGER.error("Shared memory connection failed", e);
+      handleException(e);
+    } finally {
+      handleClosed();
+    }
+  }
+
+  /**
+   * Writes pending records that did not fit in the ring when they were sent.
+   *
+   * @return The number of records written.
+   */
+  private int flush() {
+    synchronized (writeLock) {
+      int count = 0;
+      PendingWrite write;
+      while ((write = pending.peek()) != null && out.write(write.type, write.id, write.payload, write.payload.length)) {
+        pending.remove();
+        count++;
+      }
+      return count;
+    }
+  }
+
+  /**
+   * Serializes and writes a record to the outbound ring.
+   *
+   * @return Indicates whether the record was written or queued, or {@code false} if the connection is closed.
+   */
+  private boolean write(int type, long id, Object object, Serializer serializer) {
+    UnsafeHeapBuffer buffer = OUTPUT.get();
+    buffer.clear();
+    serializer.writeObject(object, buffer);
+    int length = (int) buffer.position();
+
+    synchronized (writeLock) {
+      if (!open) {
+        return false;
+      }
+      if (pending.isEmpty() && out.write(type, id, buffer.array(), length)) {
+        return true;
+      }
+      if (length > RingBuffer.maxPayloadSize(transport.options().ringSize())) {
+        throw new IllegalArgumentException("message of " + length + " bytes exceeds ring capacity");
+      }
+      pending.add(new PendingWrite(type, id, Arrays.copyOf(buffer.array(), length)));
+    }
+    LockSupport.unpark(poller);
+    return true;
+  }
+
+  @Override
+  public CompletableFuture<Void> send(Object message) {
+    Assert.notNull(message, "message");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    try {
+      if (write(MESSAGE, 0, message, context.serializer())) {
+        metrics.recordMessagesOut(1);
+        return CompletableFuture.completedFuture(null);
+      }
+      return Futures.exceptionalFuture(new ConnectException("connection closed"));
+    } catch (Exception e) {
+      return Futures.exceptionalFuture(e);
+    } finally {
+      if (message instanceof ReferenceCounted) {
+        ((ReferenceCounted<?>) message).release();
+      }
+    }
+  }
+
+  @Override
+  public <T, U> CompletableFuture<U> sendAndReceive(T request) {
+    Assert.notNull(request, "request");
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    long requestId = this.requestId.incrementAndGet();
+    ContextualFuture<U> future = new ContextualFuture<>(context);
+    futures.put(requestId, future);
+    try {
+      if (write(REQUEST, requestId, request, context.serializer())) {
+        metrics.recordRequest();
+        metrics.recordMessagesOut(1);
+        return future;
+      }
+      futures.remove(requestId);
+      return Futures.exceptionalFuture(new ConnectException("connection closed"));
+    } catch (Exception e) {
+      futures.remove(requestId);
+      return Futures.exceptionalFuture(e);
+    } finally {
+      if (request instanceof ReferenceCounted) {
+        ((ReferenceCounted<?>) request).release();
+      }
+    }
+  }
+
+  /**
+   * Handles a record read from the inbound ring on the poller thread.
+   */
+  private void handleRecord(int type, long id, byte[] payload) {
+    Object object;
+    try {
+      object = serializer.readObject(UnsafeHeapBuffer.wrap(payload));
+    } catch (Exception e) {
+      if (type == REQUEST) {
+        respond(id, null, e, serializer);
+      } else {
+        handleException(e);
+      }
+      return;
+    }
+
+    switch (type) {
+      case REQUEST:
+        handleRequest(id, object);
+        break;
+      case SUCCESS:
+        handleResponse(id, object, null);
+        break;
+      case FAILURE:
+        handleResponse(id, null, (Throwable) object);
+        break;
+      case MESSAGE:
+        handleMessage(object);
+        break;
+      default:
+        handleException(new IllegalStateException("unknown record type " + type));
+    }
+  }
+
+  /**
+   * Handles a request.
+   */
+  @SuppressWarnings("unchecked")
+  private void handleRequest(long requestId, Object request) {
+    metrics.recordMessageIn();
+    HandlerHolder holder = handlers.get(request.getClass());
+    if (holder == null) {
+      respond(requestId, null, new ConnectException("no handler registered"), serializer);
+      return;
+    }
+    metrics.recordMessageType(request.getClass());
+
+    Function<Object, CompletableFuture<Object>> handler = (Function<Object, CompletableFuture<Object>>) holder.handler;
+    try {
+      holder.context.executor().execute(() -> {
+        if (!open) {
+          return;
+        }
+        CompletableFuture<Object> responseFuture = handler.apply(request);
+        if (responseFuture != null) {
+          responseFuture.whenComplete((response, error) -> {
+            if (ThreadContext.currentContext() == holder.context) {
+              respond(requestId, response, error, holder.context.serializer());
+            } else {
+              holder.context.executor().execute(() -> respond(requestId, response, error, holder.context.serializer()));
+            }
+          });
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      respond(requestId, null, new ConnectException("connection closed"), serializer);
+    }
+  }
+
+  /**
+   * Writes a response to a request.
+   */
+  private void respond(long requestId, Object response, Throwable error, Serializer serializer) {
+    try {
+      if (error == null) {
+        write(SUCCESS, requestId, response, serializer);
+      } else {
+        write(FAILURE, requestId, error, serializer);
+      }
+      metrics.recordMessagesOut(1);
+    } catch (Exception e) {
+      if (error == null) {
+        respond(requestId, null, e, serializer);
+      } else {
+        LOGGER.warn("Failed to write response to request {}", requestId, e);
+      }
+    }
+  }
+
+  /**
+   * Handles a response.
+   */
+  @SuppressWarnings("unchecked")
+  private void handleResponse(long requestId, Object response, Throwable error) {
+    ContextualFuture future = futures.remove(requestId);
+    if (future == null) {
+      return;
+    }
+
+    metrics.recordMessageIn();
+    if (error == null) {
+      metrics.recordResponse(System.nanoTime() - future.time);
+      future.context.executor().execute(() -> future.complete(response));
+    } else {
+      metrics.recordFailure();
+      future.context.executor().execute(() -> future.completeExceptionally(error));
+    }
+  }
+
+  /**
+   * Handles a one-way message.
+   */
+  @SuppressWarnings("unchecked")
+  private void handleMessage(Object message) {
+    metrics.recordMessageIn();
+    HandlerHolder holder = handlers.get(message.getClass());
+    if (holder == null) {
+      return;
+    }
+    metrics.recordMessageType(message.getClass());
+
+    Function<Object, CompletableFuture<Object>> handler = (Function<Object, CompletableFuture<Object>>) holder.handler;
+    try {
+      holder.context.executor().execute(() -> {
+        if (open) {
+          handler.apply(message);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+    }
+  }
+
+  /**
+   * Handles an exception.
+   */
+  private void handleException(Throwable error) {
+    for (Listener<Throwable> listener : exceptionListeners) {
+      try {
+        context.executor().execute(() -> listener.accept(error));
+      } catch (RejectedExecutionException e) {
+      }
+    }
+  }
+
+  /**
+   * Releases the connection once the poller has stopped.
+   */
+  private void handleClosed() {
+    synchronized (writeLock) {
+      open = false;
+      pending.clear();
+      file.close();
+      file.release();
+    }
+    connections.remove(this);
+
+    for (ContextualFuture future : futures.values()) {
+      metrics.recordFailure();
+      try {
+        future.context.executor().execute(() -> future.completeExceptionally(new ConnectException("connection closed")));
+      } catch (RejectedExecutionException e) {
+      }
+    }
+    futures.clear();
+
+    for (Listener<Connection> listener : closeListeners) {
+      try {
+        context.executor().execute(() -> listener.accept(this));
+      } catch (RejectedExecutionException e) {
+      }
+    }
+    closeFuture.complete(null);
+  }
+
+  @Override
+  public <T, U> Connection handler(Class<T> type, Consumer<T> handler) {
+    return handler(type, r -> {
+      handler.accept(r);
+      return ComposableFuture.completedFuture(null);
+    });
+  }
+
+  @Override
+  public <T, U> Connection handler(Class<T> type, Function<T, CompletableFuture<U>> handler) {
+    Assert.notNull(type, "type");
+    if (handler != null) {
+      handlers.put(type, new HandlerHolder(handler, ThreadContext.currentContextOrThrow()));
+    } else {
+      handlers.remove(type);
+    }
+    return this;
+  }
+
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
+  @Override
+  public Listener<Throwable> onException(Consumer<Throwable> listener) {
+    return exceptionListeners.add(Assert.notNull(listener, "listener"));
+  }
+
+  @Override
+  public Listener<Connection> onClose(Consumer<Connection> listener) {
+    return closeListeners.add(Assert.notNull(listener, "listener"));
+  }
+
+  @Override
+  public CompletableFuture<Void> close() {
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    if (open) {
+      open = false;
+      LockSupport.unpark(poller);
+    }
+    ComposableFuture<Void> future = new ComposableFuture<>();
+    closeFuture.whenCompleteAsync(future, context.executor());
+    return future;
+  }
+
+  /**
+   * Contextual future.
+   */
+  private static class ContextualFuture<T> extends CompletableFuture<T> {
+    private final long time = System.nanoTime();
+    private final ThreadContext context;
+
+    private ContextualFuture(ThreadContext context) {
+      this.context = context;
+    }
+  }
+
+  /**
+   * Holds message handler and thread context.
+   */
+  private static class HandlerHolder {
+    private final Function handler;
+    private final ThreadContext context;
+
+    private HandlerHolder(Function handler, ThreadContext context) {
+      this.handler = handler;
+      this.context = context;
+    }
+  }
+
+  /**
+   * Record waiting for space in the outbound ring.
+   */
+  private static class PendingWrite {
+    private final int type;
+    private final long id;
+    private final byte[] payload;
+
+    private PendingWrite(int type, long id, byte[] payload) {
+      this.type = type;
+      this.id = id;
+      this.payload = payload;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return id.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    return object instanceof SharedMemoryConnection && ((SharedMemoryConnection) object).id.equals(id);
+  }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.util.PropertiesReader;
+
+import java.io.File;
+import java.util.Properties;
+
+/**
+ * Shared memory transport options.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class SharedMemoryOptions {
+  public static final String DIRECTORY = "directory";
+  public static final String RING_SIZE = "ringSize";
+  public static final String CONNECT_TIMEOUT = "connectTimeout";
+  public static final String ACCEPT_INTERVAL = "acceptInterval";
+  public static final String SPIN_ITERATIONS = "spinIterations";
+  public static final String MAX_PARK_NANOS = "maxParkNanos";
+
+  private static final File DEFAULT_DIRECTORY = new File(System.getProperty("java.io.tmpdir"), "catalyst-shm");
+  private static final int DEFAULT_RING_SIZE = 1024 * 1024;
+  private static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+  private static final int DEFAULT_ACCEPT_INTERVAL = 10;
+  private static final int DEFAULT_SPIN_ITERATIONS = 10000;
+  private static final long DEFAULT_MAX_PARK_NANOS = 1000000;
+
+  private final PropertiesReader reader;
+
+  public SharedMemoryOptions(Properties properties) {
+    this.reader = new PropertiesReader(properties);
+  }
+
+  /**
+   * The directory in which servers create their connection files.
+   */
+  public File directory() {
+    return reader.getFile(DIRECTORY, DEFAULT_DIRECTORY);
+  }
+
+  /**
+   * The size in bytes of the ring buffer in each direction of a connection.
+   */
+  public int ringSize() {
+    return reader.getInteger(RING_SIZE, DEFAULT_RING_SIZE);
+  }
+
+  /**
+   * The connect timeout in milliseconds.
+   */
+  public int connectTimeout() {
+    return reader.getInteger(CONNECT_TIMEOUT, DEFAULT_CONNECT_TIMEOUT);
+  }
+
+  /**
+   * The interval in milliseconds at which servers check for new connections.
+   */
+  public int acceptInterval() {
+    return reader.getInteger(ACCEPT_INTERVAL, DEFAULT_ACCEPT_INTERVAL);
+  }
+
+  /**
+   * The number of times an idle connection spins before yielding and parking.
+   */
+  public int spinIterations() {
+    return reader.getInteger(SPIN_ITERATIONS, DEFAULT_SPIN_ITERATIONS);
+  }
+
+  /**
+   * The maximum time in nanoseconds an idle connection parks between checks for new messages.
+   */
+  public long maxParkNanos() {
+    return reader.getLong(MAX_PARK_NANOS, DEFAULT_MAX_PARK_NANOS);
+  }
+
+}
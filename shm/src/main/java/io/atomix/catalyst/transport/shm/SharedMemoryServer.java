@@ -0,0 +1,192 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.concurrent.Futures;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.Connection;
+import io.atomix.catalyst.transport.Server;
+import io.atomix.catalyst.transport.TransportMetrics;
+import io.atomix.catalyst.util.Assert;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Shared memory server.
+ * <p>
+ * The server accepts connections by periodically checking its directory for connection files created by clients.
+ * Connection setup is the only part of the transport that touches the file system; once a connection has been
+ * accepted, messages are exchanged entirely through shared memory.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SharedMemoryServer implements Server {
+  private static final Logger LOGGER = LoggerFactory.getLogger(SharedMemoryServer.class);
+
+  private final UUID id = UUID.randomUUID();
+  private final SharedMemoryTransport transport;
+  private final Set<SharedMemoryConnection> connections = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final Set<String> accepted = Collections.newSetFromMap(new ConcurrentHashMap<>());
+  private final TransportMetrics metrics = new TransportMetrics();
+  private volatile Address address;
+  private volatile File directory;
+  private volatile Thread acceptor;
+
+  /**
+   * @throws NullPointerException if {@code transport} is null
+   */
+  public SharedMemoryServer(SharedMemoryTransport transport) {
+    this.transport = Assert.notNull(transport, "transport");
+  }
+
+  @Override
+  public synchronized CompletableFuture<Void> listen(Address address, Consumer<Connection> listener) {
+    Assert.notNull(address, "address");
+    Assert.notNull(listener, "listener");
+    if (this.address != null) {
+      if (!this.address.equals(address)) {
+        throw new IllegalStateException(String.format("already listening at %s", this.address));
+      }
+      return CompletableFuture.completedFuture(null);
+    }
+
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    File directory = transport.directory(address.port());
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      return Futures.exceptionalFutureAsync(new IOException("failed to create " + directory), context.executor());
+    }
+
+    // Remove connection files left behind by a previous server.
+    File[] files = directory.listFiles();
+    if (files != null) {
+      for (File file : files) {
+        file.delete();
+      }
+    }
+
+    this.address = address;
+    this.directory = directory;
+    this.acceptor = transport.threadFactory().newThread(() -> acceptAll(directory, listener, context));
+    acceptor.setDaemon(true);
+    acceptor.start();
+
+    LOGGER.info("Listening at {}", directory);
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    context.execute(() -> future.complete(null));
+    return future;
+  }
+
+  /**
+   * Accepts connections until the server is closed.
+   */
+  private void acceptAll(File directory, Consumer<Connection> listener, ThreadContext context) {
+    while (this.directory == directory) {
+      File[] files = directory.listFiles((dir, name) -> name.endsWith(".shm"));
+      if (files != null) {
+        for (File file : files) {
+          if (accepted.add(file.getName())) {
+            accept(file, listener, context);
+          }
+        }
+      }
+
+      try {
+        Thread.sleep(transport.options().acceptInterval());
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Accepts a single connection file.
+   */
+  private void accept(File file, Consumer<Connection> listener, ThreadContext context) {
+    ConnectionFile connectionFile;
+    try {
+      connectionFile = ConnectionFile.open(file);
+    } catch (Exception e) {
+      LOGGER.debug("Failed to open connection file {}", file, e);
+      accepted.remove(file.getName());
+      return;
+    }
+
+    if (!connectionFile.accept()) {
+      connectionFile.release();
+      accepted.remove(file.getName());
+      return;
+    }
+
+    SharedMemoryConnection connection = new SharedMemoryConnection(connectionFile, false, context, transport, connections, metrics);
+    connections.add(connection);
+    connection.onClose(c -> accepted.remove(connectionFile.name()));
+
+    // Start polling once the listener has registered its handlers. Messages sent by the client in the meantime
+    // wait in the ring.
+    context.executor().execute(() -> {
+      listener.accept(connection);
+      connection.start();
+    });
+  }
+
+  @Override
+  public TransportMetrics metrics() {
+    return metrics;
+  }
+
+  @Override
+  public synchronized CompletableFuture<Void> close() {
+    if (address == null)
+      return CompletableFuture.completedFuture(null);
+
+    Thread acceptor = this.acceptor;
+    File directory = this.directory;
+    address = null;
+    this.directory = null;
+    this.acceptor = null;
+    acceptor.interrupt();
+
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    ThreadContext context = ThreadContext.currentContextOrThrow();
+    CompletableFuture<?>[] futures = connections.stream().map(SharedMemoryConnection::close).toArray(CompletableFuture[]::new);
+    CompletableFuture.allOf(futures).whenCompleteAsync((result, error) -> {
+      directory.delete();
+      future.complete(null);
+    }, context.executor());
+    return future;
+  }
+
+  @Override
+  public int hashCode() {
+    return id.hashCode();
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    return object instanceof SharedMemoryServer && ((SharedMemoryServer) object).id.equals(id);
+  }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.buffer.util.Memory;
+import io.atomix.catalyst.concurrent.CatalystThreadFactory;
+import io.atomix.catalyst.transport.Client;
+import io.atomix.catalyst.transport.Server;
+import io.atomix.catalyst.transport.Transport;
+import io.atomix.catalyst.util.Assert;
+
+import java.io.File;
+import java.util.Properties;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Shared memory transport.
+ * <p>
+ * The shared memory transport connects processes on the same host through pairs of single-producer/single-consumer
+ * ring buffers in memory-mapped files, so messages are exchanged without system calls on the data path. Servers are
+ * identified by the port of the address on which they listen, and clients can only connect to servers on the same
+ * host. Each connection is polled by a dedicated thread that spins briefly before parking when idle.
+ * <pre>
+ *   {@code
+ *   Transport transport = SharedMemoryTransport.builder()
+ *     .withDirectory(new File("/dev/shm/catalyst"))
+ *     .withRingSize(1024 * 1024)
+ *     .build();
+ *   }
+ * </pre>
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class SharedMemoryTransport implements Transport {
+
+  /**
+   * Returns a new shared memory transport builder.
+   *
+   * @return A new shared memory transport builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final SharedMemoryOptions options;
+  private final ThreadFactory threadFactory = new CatalystThreadFactory("catalyst-shm-%d");
+
+  public SharedMemoryTransport() {
+    this(new SharedMemoryOptions(new Properties()));
+  }
+
+  public SharedMemoryTransport(Properties properties) {
+    this(new SharedMemoryOptions(properties));
+  }
+
+  public SharedMemoryTransport(SharedMemoryOptions options) {
+    this.options = Assert.notNull(options, "options");
+    Assert.arg(Memory.Util.isPow2(options.ringSize()), "ring size must be a power of two");
+  }
+
+  /**
+   * Returns the shared memory transport options.
+   *
+   * @return The shared memory transport options.
+   */
+  public SharedMemoryOptions options() {
+    return options;
+  }
+
+  /**
+   * Returns the directory in which the server listening on the given port accepts connections.
+   */
+  File directory(int port) {
+    return new File(options.directory(), String.valueOf(port));
+  }
+
+  /**
+   * Returns the factory with which to create connection and acceptor threads.
+   */
+  ThreadFactory threadFactory() {
+    return threadFactory;
+  }
+
+  /**
+   * Returns a new wait strategy for an idle thread.
+   */
+  SpinParkWaitStrategy waitStrategy() {
+    return new SpinParkWaitStrategy(options.spinIterations(), options.maxParkNanos());
+  }
+
+  @Override
+  public Client client() {
+    return new SharedMemoryClient(this);
+  }
+
+  @Override
+  public Server server() {
+    return new SharedMemoryServer(this);
+  }
+
+  /**
+   * Shared memory transport builder.
+   */
+  public static class Builder implements Transport.Builder {
+    private final Properties properties = new Properties();
+
+    private Builder() {
+    }
+
+    /**
+     * Sets the directory in which servers accept connections.
+     * <p>
+     * For the lowest latency, the directory should be on a memory-backed file system such as {@code /dev/shm}.
+     *
+     * @param directory The connection directory.
+     * @return The shared memory transport builder.
+     */
+    public Builder withDirectory(File directory) {
+      properties.setProperty(SharedMemoryOptions.DIRECTORY, Assert.notNull(directory, "directory").getAbsolutePath());
+      return this;
+    }
+
+    /**
+     * Sets the size of the ring buffer in each direction of a connection.
+     * <p>
+     * The ring size limits the size of a single serialized message.
+     *
+     * @param ringSize The ring size in bytes. Must be a power of two.
+     * @return The shared memory transport builder.
+     */
+    public Builder withRingSize(int ringSize) {
+      properties.setProperty(SharedMemoryOptions.RING_SIZE, String.valueOf(Assert.argNot(ringSize, !Memory.Util.isPow2(ringSize), "ring size must be a power of two")));
+      return this;
+    }
+
+    /**
+     * Sets the connect timeout.
+     *
+     * @param timeout The connect timeout in milliseconds.
+     * @return The shared memory transport builder.
+     */
+    public Builder withConnectTimeout(int timeout) {
+      properties.setProperty(SharedMemoryOptions.CONNECT_TIMEOUT, String.valueOf(Assert.argNot(timeout, timeout <= 0, "timeout must be positive")));
+      return this;
+    }
+
+    /**
+     * Sets the interval at which servers check for new connections.
+     *
+     * @param acceptInterval The accept interval in milliseconds.
+     * @return The shared memory transport builder.
+     */
+    public Builder withAcceptInterval(int acceptInterval) {
+      properties.setProperty(SharedMemoryOptions.ACCEPT_INTERVAL, String.valueOf(Assert.argNot(acceptInterval, acceptInterval <= 0, "accept interval must be positive")));
+      return this;
+    }
+
+    /**
+     * Sets the number of times an idle connection spins before yielding and parking.
+     *
+     * @param spinIterations The number of spin iterations.
+     * @return The shared memory transport builder.
+     */
+    public Builder withSpinIterations(int spinIterations) {
+      properties.setProperty(SharedMemoryOptions.SPIN_ITERATIONS, String.valueOf(Assert.argNot(spinIterations, spinIterations < 0, "spin iterations cannot be negative")));
+      return this;
+    }
+
+    /**
+     * Sets the maximum time an idle connection parks between checks for new messages.
+     *
+     * @param maxParkNanos The maximum park time in nanoseconds.
+     * @return The shared memory transport builder.
+     */
+    public Builder withMaxParkNanos(long maxParkNanos) {
+      properties.setProperty(SharedMemoryOptions.MAX_PARK_NANOS, String.valueOf(Assert.argNot(maxParkNanos, maxParkNanos <= 0, "max park time must be positive")));
+      return this;
+    }
+
+    @Override
+    public Transport build() {
+      return new SharedMemoryTransport(properties);
+    }
+  }
+
+}
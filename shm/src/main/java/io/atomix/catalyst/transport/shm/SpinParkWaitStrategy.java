@@ -0,0 +1,72 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Spin-then-park wait strategy.
+ * <p>
+ * An idle thread first busy spins so that messages arriving shortly after the last one are picked up without a
+ * context switch, then yields, and finally parks for exponentially increasing periods up to the maximum park time.
+ * Any work resets the strategy to spinning.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class SpinParkWaitStrategy {
+  private static final int MAX_YIELDS = 100;
+  private static final long MIN_PARK_NANOS = 1000;
+
+  private final int maxSpins;
+  private final long maxParkNanos;
+  private int spins;
+  private int yields;
+  private long parkNanos = MIN_PARK_NANOS;
+
+  SpinParkWaitStrategy(int maxSpins, long maxParkNanos) {
+    this.maxSpins = maxSpins;
+    this.maxParkNanos = maxParkNanos;
+  }
+
+  /**
+   * Waits after a unit of work.
+   *
+   * @param work The amount of work done since the last call, or {@code 0} if the thread was idle.
+   */
+  void idle(int work) {
+    if (work > 0) {
+      reset();
+    } else if (spins < maxSpins) {
+      spins++;
+    } else if (yields < MAX_YIELDS) {
+      yields++;
+      Thread.yield();
+    } else {
+      LockSupport.parkNanos(parkNanos);
+      parkNanos = Math.min(parkNanos * 2, maxParkNanos);
+    }
+  }
+
+  /**
+   * Resets the strategy to spinning.
+   */
+  void reset() {
+    spins = 0;
+    yields = 0;
+    parkNanos = MIN_PARK_NANOS;
+  }
+
+}
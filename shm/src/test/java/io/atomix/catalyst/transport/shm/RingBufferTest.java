@@ -0,0 +1,88 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.buffer.util.DirectMemory;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.testng.Assert.*;
+
+/**
+ * Ring buffer test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class RingBufferTest {
+
+  /**
+   * Tests writing and reading records.
+   */
+  public void testWriteRead() {
+    DirectMemory memory = DirectMemory.allocate(RingBuffer.size(1024));
+    try {
+      RingBuffer ring = new RingBuffer(memory, 0, 1024);
+      for (int i = 0; i < 100; i++) {
+        assertTrue(ring.write(1, i, new byte[]{(byte) i}, 1));
+        List<Long> ids = new ArrayList<>();
+        assertEquals(ring.read((type, id, payload) -> {
+          assertEquals(payload[0], (byte) id);
+          ids.add(id);
+        }, 10), 1);
+        assertEquals(ids.get(0), Long.valueOf(i));
+      }
+    } finally {
+      memory.free();
+    }
+  }
+
+  /**
+   * Tests writing a record larger than half the ring once the producer is past the start of the ring.
+   */
+  public void testWriteLargeRecordAfterOffset() {
+    DirectMemory memory = DirectMemory.allocate(RingBuffer.size(1024));
+    try {
+      RingBuffer ring = new RingBuffer(memory, 0, 1024);
+      // Move the producer to offset 400, which leaves less room before the end of the ring than the record needs
+      // and less room after the start of the ring than the padding and the record need together.
+      assertTrue(ring.write(1, 1, new byte[384], 384));
+      assertEquals(ring.read((type, id, payload) -> {}, 10), 1);
+
+      byte[] large = new byte[700];
+      large[699] = 7;
+      for (int i = 0; i < 3; i++) {
+        boolean written = ring.write(1, 2 + i, large, large.length);
+        if (!written) {
+          // The padding was published, so the record fits once the consumer has released it.
+          ring.read((type, id, payload) -> fail("unexpected record"), 10);
+          written = ring.write(1, 2 + i, large, large.length);
+        }
+        assertTrue(written);
+
+        List<byte[]> payloads = new ArrayList<>();
+        assertEquals(ring.read((type, id, payload) -> payloads.add(payload), 10), 1);
+        assertEquals(payloads.get(0).length, 700);
+        assertEquals(payloads.get(0)[699], 7);
+      }
+    } finally {
+      memory.free();
+    }
+  }
+
+}
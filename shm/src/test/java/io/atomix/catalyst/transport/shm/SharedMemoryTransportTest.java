@@ -0,0 +1,163 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport.shm;
+
+import io.atomix.catalyst.concurrent.SingleThreadContext;
+import io.atomix.catalyst.concurrent.ThreadContext;
+import io.atomix.catalyst.serializer.Serializer;
+import io.atomix.catalyst.transport.Address;
+import io.atomix.catalyst.transport.Client;
+import io.atomix.catalyst.transport.Server;
+import io.atomix.catalyst.transport.Transport;
+import net.jodah.concurrentunit.ConcurrentTestCase;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Shared memory transport test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class SharedMemoryTransportTest extends ConcurrentTestCase {
+  private File directory;
+  private ThreadContext context;
+
+  @BeforeMethod
+  public void setup() throws Exception {
+    directory = Files.createTempDirectory("catalyst-shm").toFile();
+    context = new SingleThreadContext("test-thread-%d", new Serializer());
+  }
+
+  @AfterMethod
+  public void teardown() {
+    context.close();
+    directory.delete();
+  }
+
+  /**
+   * Tests connecting to a server and sending a request.
+   */
+  public void testSendReceive() throws Throwable {
+    Transport transport = SharedMemoryTransport.builder()
+      .withDirectory(directory)
+      .build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    context.executor().execute(() -> {
+      server.listen(new Address("localhost", 5555), connection -> {
+        connection.<String, String>handler(String.class, message -> {
+          threadAssertEquals("Hello world!", message);
+          return CompletableFuture.completedFuture("Hello world back!");
+        });
+      }).thenRun(this::resume);
+    });
+    await();
+
+    context.executor().execute(() -> {
+      client.connect(new Address("localhost", 5555)).thenAccept(connection -> {
+        connection.sendAndReceive("Hello world!").thenAccept(response -> {
+          threadAssertEquals("Hello world back!", response);
+          resume();
+        });
+      });
+    });
+    await();
+
+    context.executor().execute(() -> client.close().thenCompose(v -> server.close()).thenRun(this::resume));
+    await();
+  }
+
+  /**
+   * Tests sending a one-way message.
+   */
+  public void testSend() throws Throwable {
+    Transport transport = SharedMemoryTransport.builder()
+      .withDirectory(directory)
+      .build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    context.executor().execute(() -> {
+      server.listen(new Address("localhost", 5556), connection -> {
+        connection.<String, String>handler(String.class, message -> {
+          threadAssertEquals("Hello world!", message);
+          resume();
+          return null;
+        });
+      }).thenRun(this::resume);
+    });
+    await();
+
+    context.executor().execute(() -> {
+      client.connect(new Address("localhost", 5556)).thenAccept(connection -> {
+        connection.send("Hello world!").thenRun(this::resume);
+      });
+    });
+    await(5000, 2);
+
+    context.executor().execute(() -> client.close().thenCompose(v -> server.close()).thenRun(this::resume));
+    await();
+  }
+
+  /**
+   * Tests sending more requests than fit in the ring at once.
+   */
+  public void testRingWrap() throws Throwable {
+    Transport transport = SharedMemoryTransport.builder()
+      .withDirectory(directory)
+      .withRingSize(4096)
+      .build();
+
+    Server server = transport.server();
+    Client client = transport.client();
+
+    context.executor().execute(() -> {
+      server.listen(new Address("localhost", 5557), connection -> {
+        connection.<String, Integer>handler(String.class, message -> {
+          return CompletableFuture.completedFuture(message.length());
+        });
+      }).thenRun(this::resume);
+    });
+    await();
+
+    int count = 100;
+    context.executor().execute(() -> {
+      client.connect(new Address("localhost", 5557)).thenAccept(connection -> {
+        for (int i = 0; i < count; i++) {
+          String message = new String(new char[100 + i * 7]).replace('\0', 'a');
+          connection.<String, Integer>sendAndReceive(message).thenAccept(length -> {
+            threadAssertEquals(message.length(), length);
+            resume();
+          });
+        }
+      });
+    });
+    await(10000, count);
+
+    context.executor().execute(() -> client.close().thenCompose(v -> server.close()).thenRun(this::resume));
+    await();
+  }
+
+}
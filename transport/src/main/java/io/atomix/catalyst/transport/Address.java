@@ -21,17 +21,26 @@ import io.atomix.catalyst.serializer.CatalystSerializable;
 import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.util.Assert;
 
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Network address.
+ * <p>
+ * Addresses are unresolved when constructed or deserialized. The host is resolved through a shared cache the
+ * first time the {@link #socketAddress() socket address} is requested, and cached resolutions are refreshed in
+ * the background once stale. Use {@link #resolve()} to resolve an address without blocking the calling thread.
+ * Addresses are equal if their host strings and ports are equal, so comparing or hashing an address never resolves
+ * its host. Addresses that name the same host differently, such as {@code localhost:5000} and
+ * {@code 127.0.0.1:5000}, are not equal.
  *
  * @author <a href="http://github.com/kuujo>Jordan Halterman</a>
  */
 public class Address implements CatalystSerializable {
-  private String host;
+  private AddressResolver.Host host;
   private int port;
-  private InetSocketAddress address;
+  private volatile InetSocketAddress address;
 
   public Address() {
   }
@@ -41,31 +50,31 @@ public class Address implements CatalystSerializable {
     String[] components = address.split(":");
     Assert.arg(components.length == 2, "%s must contain address:port", address);
 
-    this.host = components[0];
+    this.host = AddressResolver.INSTANCE.host(components[0]);
     try {
       this.port = Integer.parseInt(components[1]);
     } catch (NumberFormatException e) {
       throw new IllegalArgumentException(components[1] + " is not a number");
     }
-    this.address = new InetSocketAddress(host, port);
   }
 
   public Address(Address address) {
-    this(address.host, address.port, Assert.notNull(address, "address").address);
+    Assert.notNull(address, "address");
+    this.host = address.host;
+    this.port = address.port;
+    this.address = address.address;
   }
 
   public Address(String host, int port) {
-    this(host, port, new InetSocketAddress(host, port));
+    this.host = AddressResolver.INSTANCE.host(Assert.notNull(host, "host"));
+    this.port = port;
   }
 
   public Address(InetSocketAddress address) {
-    this(address.getHostName(), address.getPort(), address);
-  }
-
-  private Address(String host, int port, InetSocketAddress address) {
-    this.host = Assert.notNull(host, "host");
-    this.port = port;
-    this.address = Assert.notNull(address, "address");
+    Assert.notNull(address, "address");
+    this.host = AddressResolver.INSTANCE.host(address.getHostString());
+    this.port = address.getPort();
+    this.address = address;
   }
 
   /**
@@ -74,7 +83,7 @@ public class Address implements CatalystSerializable {
    * @return The address host.
    */
   public String host() {
-    return address.getHostString();
+    return host.name();
   }
 
   /**
@@ -83,15 +92,47 @@ public class Address implements CatalystSerializable {
    * @return The address port.
    */
   public int port() {
-    return address.getPort();
+    return port;
   }
 
   /**
    * Returns the underlying address.
+   * <p>
+   * If the host has never been resolved, this method blocks while the host is resolved. Stale resolutions are
+   * returned immediately and refreshed in the background.
    *
    * @return The underlying address.
    */
   public InetSocketAddress socketAddress() {
+    InetSocketAddress address = this.address;
+    if (address != null && !address.isUnresolved() && host.cached() == null) {
+      return address;
+    }
+    return socketAddress(host.resolve());
+  }
+
+  /**
+   * Resolves the underlying address without blocking the calling thread.
+   *
+   * @return A future to be completed with the underlying address.
+   */
+  public CompletableFuture<InetSocketAddress> resolve() {
+    InetSocketAddress address = this.address;
+    if (address != null && !address.isUnresolved() && host.cached() == null) {
+      return CompletableFuture.completedFuture(address);
+    }
+    return host.resolveAsync().thenApply(this::socketAddress);
+  }
+
+  /**
+   * Returns the socket address for the given resolved host address.
+   */
+  private InetSocketAddress socketAddress(InetAddress resolved) {
+    InetSocketAddress address = this.address;
+    if (address == null || address.getAddress() != resolved) {
+      address = resolved != null ? new InetSocketAddress(resolved, port) : InetSocketAddress.createUnresolved(host.name(), port);
+      this.address = address;
+    }
     return address;
   }
 
@@ -102,24 +143,31 @@ public class Address implements CatalystSerializable {
 
   @Override
   public void readObject(BufferInput<?> buffer, Serializer serializer) {
-    address = new InetSocketAddress(buffer.readUTF8(), buffer.readInt());
+    host = AddressResolver.INSTANCE.host(buffer.readUTF8());
+    port = buffer.readInt();
+    address = null;
   }
 
   @Override
   public boolean equals(Object object) {
-    return object instanceof Address && ((Address) object).address.equals(address);
+    if (!(object instanceof Address)) {
+      return false;
+    }
+    Address address = (Address) object;
+    return address.port == port && (address.host == host || address.host.name().equals(host.name()));
   }
 
   @Override
   public int hashCode() {
     int hashCode = 23;
-    hashCode = 37 * hashCode + address.hashCode();
+    hashCode = 37 * hashCode + host.name().hashCode();
+    hashCode = 37 * hashCode + port;
     return hashCode;
   }
 
   @Override
   public String toString() {
-    return address.toString();
+    return String.format("%s:%d", host.name(), port);
   }
 
 }
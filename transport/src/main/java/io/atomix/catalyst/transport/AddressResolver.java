@@ -0,0 +1,183 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Shared host name resolution cache.
+ * <p>
+ * The resolver holds a single interned {@link Host} per host name, evicting the least recently used hosts once
+ * the cache is full. A host is resolved the first time its address is requested and the result is cached for the
+ * configured TTL. Once the TTL has passed, the stale address continues to be returned while a refresh runs in the
+ * background, so only the first resolution of a host ever waits on DNS. Failed lookups are cached for the negative
+ * TTL, and concurrent lookups of a host share a single resolution.
+ * <p>
+ * The TTLs and cache size of the shared resolver can be set with the {@code catalyst.address.ttl},
+ * {@code catalyst.address.negativeTtl} and {@code catalyst.address.cacheSize} system properties.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+final class AddressResolver {
+  private static final String TTL_PROPERTY = "catalyst.address.ttl";
+  private static final String NEGATIVE_TTL_PROPERTY = "catalyst.address.negativeTtl";
+  private static final String CACHE_SIZE_PROPERTY = "catalyst.address.cacheSize";
+  private static final long DEFAULT_TTL = 30000;
+  private static final long DEFAULT_NEGATIVE_TTL = 5000;
+  private static final int DEFAULT_CACHE_SIZE = 1024;
+
+  /**
+   * Shared address resolver.
+   */
+  static final AddressResolver INSTANCE = new AddressResolver(
+    Long.getLong(TTL_PROPERTY, DEFAULT_TTL),
+    Long.getLong(NEGATIVE_TTL_PROPERTY, DEFAULT_NEGATIVE_TTL),
+    Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE));
+
+  private static final AtomicInteger THREAD_NUMBER = new AtomicInteger(1);
+  private static final Executor EXECUTOR = Executors.newCachedThreadPool(r -> {
+    Thread thread = new Thread(r, "catalyst-address-resolver-" + THREAD_NUMBER.getAndIncrement());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final long ttl;
+  private final long negativeTtl;
+  private final Map<String, Host> hosts;
+
+  /**
+   * @param ttl The time in milliseconds for which to cache resolved addresses.
+   * @param negativeTtl The time in milliseconds for which to cache failed lookups.
+   * @param cacheSize The maximum number of hosts to cache.
+   */
+  AddressResolver(long ttl, long negativeTtl, int cacheSize) {
+    this.ttl = ttl;
+    this.negativeTtl = negativeTtl;
+    this.hosts = new LinkedHashMap<String, Host>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Host> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Returns the interned host for the given host name.
+   */
+  synchronized Host host(String name) {
+    return hosts.computeIfAbsent(name, Host::new);
+  }
+
+  /**
+   * Cached resolution of a single host name.
+   */
+  final class Host {
+    private final String name;
+    private volatile InetAddress address;
+    private volatile long expires;
+    private CompletableFuture<InetAddress> lookup;
+
+    private Host(String name) {
+      this.name = name;
+    }
+
+    /**
+     * Returns the interned host name.
+     */
+    String name() {
+      return name;
+    }
+
+    /**
+     * Returns the cached address without resolving the host.
+     *
+     * @return The cached address or {@code null} if the host has not been resolved.
+     */
+    InetAddress cached() {
+      return address;
+    }
+
+    /**
+     * Returns the resolved address, blocking only if the host has never been resolved.
+     *
+     * @return The resolved address or {@code null} if the host cannot be resolved.
+     */
+    InetAddress resolve() {
+      InetAddress address = this.address;
+      if (address == null) {
+        return System.currentTimeMillis() < expires ? null : lookupAsync().join();
+      } else if (System.currentTimeMillis() >= expires) {
+        lookupAsync();
+      }
+      return address;
+    }
+
+    /**
+     * Resolves the address without blocking the calling thread.
+     *
+     * @return A future to be completed with the resolved address or {@code null} if the host cannot be resolved.
+     */
+    CompletableFuture<InetAddress> resolveAsync() {
+      InetAddress address = this.address;
+      if (address == null) {
+        return System.currentTimeMillis() < expires ? CompletableFuture.completedFuture(null) : lookupAsync();
+      } else if (System.currentTimeMillis() >= expires) {
+        lookupAsync();
+      }
+      return CompletableFuture.completedFuture(address);
+    }
+
+    /**
+     * Looks up the host in the background, joining the lookup that is already in progress if any.
+     */
+    private synchronized CompletableFuture<InetAddress> lookupAsync() {
+      CompletableFuture<InetAddress> lookup = this.lookup;
+      if (lookup == null) {
+        lookup = CompletableFuture.supplyAsync(this::lookup, EXECUTOR);
+        this.lookup = lookup;
+        lookup.whenComplete((address, error) -> {
+          synchronized (this) {
+            this.lookup = null;
+          }
+        });
+      }
+      return lookup;
+    }
+
+    /**
+     * Performs a blocking lookup of the host, retaining the previous address if the lookup fails.
+     */
+    private InetAddress lookup() {
+      try {
+        InetAddress address = InetAddress.getByName(name);
+        this.address = address;
+        this.expires = System.currentTimeMillis() + ttl;
+        return address;
+      } catch (UnknownHostException e) {
+        this.expires = System.currentTimeMillis() + negativeTtl;
+        return address;
+      }
+    }
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+import io.atomix.catalyst.buffer.Buffer;
+import io.atomix.catalyst.util.Assert;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stream listener that writes a stream into a buffer.
+ * <p>
+ * Each chunk is written directly into the target buffer as it's received, so streams can be received into a
+ * {@link io.atomix.catalyst.buffer.FileBuffer} or {@link io.atomix.catalyst.buffer.MappedBuffer} without being
+ * held in memory:
+ * <pre>
+ *   {@code
+ *   connection.streamHandler(InstallRequest.class, request -> {
+ *     BufferStreamListener listener = new BufferStreamListener(FileBuffer.allocate(file));
+ *     listener.future().thenAccept(buffer -> install(request, buffer));
+ *     return listener;
+ *   });
+ *   }
+ * </pre>
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class BufferStreamListener implements StreamListener {
+  private final Buffer buffer;
+  private final CompletableFuture<Buffer> future = new CompletableFuture<>();
+
+  /**
+   * @param buffer The buffer to which to write the stream.
+   * @throws NullPointerException if {@code buffer} is null
+   */
+  public BufferStreamListener(Buffer buffer) {
+    this.buffer = Assert.notNull(buffer, "buffer");
+  }
+
+  /**
+   * Returns a future to be completed with the buffer once the entire stream has been written to it.
+   * <p>
+   * The buffer is flushed before the future is completed.
+   *
+   * @return A future to be completed with the buffer once the stream is complete.
+   */
+  public CompletableFuture<Buffer> future() {
+    return future;
+  }
+
+  @Override
+  public void onChunk(Buffer chunk) {
+    buffer.write(chunk);
+  }
+
+  @Override
+  public void onComplete() {
+    buffer.flush();
+    future.complete(buffer);
+  }
+
+  @Override
+  public void onError(Throwable error) {
+    future.completeExceptionally(error);
+  }
+
+}
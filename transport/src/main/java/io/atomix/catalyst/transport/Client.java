@@ -37,6 +37,18 @@ public interface Client {
    */
   CompletableFuture<Connection> connect(Address address);
 
+  /**
+   * Returns the metrics for the client, aggregated across all connections opened by the client.
+   *
+   * <p>
+   * Implementations that do not record metrics return empty metrics.
+   *
+   * @return The client metrics.
+   */
+  default TransportMetrics metrics() {
+    return new TransportMetrics();
+  }
+
   /**
    * Closes the client.
    * <p>
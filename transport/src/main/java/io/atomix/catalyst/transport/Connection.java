@@ -15,12 +15,19 @@
  */
 package io.atomix.catalyst.transport;
 
+import io.atomix.catalyst.buffer.Buffer;
+import io.atomix.catalyst.buffer.BufferInputStream;
 import io.atomix.catalyst.concurrent.CatalystThread;
+import io.atomix.catalyst.concurrent.Futures;
 import io.atomix.catalyst.concurrent.Listener;
 import io.atomix.catalyst.serializer.CatalystSerializable;
 import io.atomix.catalyst.serializer.Serializer;
 import io.atomix.catalyst.serializer.TypeSerializer;
+import io.atomix.catalyst.util.Assert;
 
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -40,25 +47,25 @@ import java.util.function.Function;
 public interface Connection {
 
   /**
-   * Sends a message to the other side of the connection.
+   * Sends a one-way message to the other side of the connection.
    * <p>
    * The message must be serializable via the configured {@link Serializer} instance. This means it
    * must implement {@link java.io.Serializable}, {@link java.io.Externalizable}, or {@link CatalystSerializable}
    * or provide a custom {@link TypeSerializer}.
    * <p>
-   * Note that {@link Connection}s are bi-directional. That is, messages can be send either
-   * by the client or the server. All messages must have a reply, even if the reply is {@code null}. Once the reply
-   * has been received from the other side of the connection, the returned {@link java.util.concurrent.CompletableFuture}
-   * will be completed.
+   * Unlike {@link #sendAndReceive(Object)}, one-way messages are not correlated with a reply. The message is
+   * dispatched to the {@link #handler(Class, Function) handler} registered for its type on the other side of the
+   * connection, and any reply returned by the handler is discarded. Implementations may still send the reply back
+   * over the connection to remain compatible with older peers, in which case it is discarded on receipt. The
+   * returned {@link java.util.concurrent.CompletableFuture} will be completed once the message has been sent, which
+   * does not guarantee that it has been received or handled.
    * <p>
-   * {@link Connection} implementations must guarantee that all reply
+   * {@link Connection} implementations must guarantee that all
    * {@link java.util.concurrent.CompletableFuture futures} will be completed in the same
    * {@link CatalystThread Catalyst thread}.
    *
    * @param message The message to send.
-   * @param <T> The message type.
-   * @param <U> The reply type.
-   * @return A completable future to be completed with the response.
+   * @return A completable future to be completed once the message has been sent.
    * @throws NullPointerException if {@code message} is null
    * @throws IllegalStateException if not called from a Catalyst thread
    */
@@ -89,6 +96,144 @@ public interface Connection {
    */
   <T, U> CompletableFuture<U> sendAndReceive(T message);
 
+  /**
+   * Sends a one-way message to the other side of the connection with the given priority.
+   * <p>
+   * Connections that support priorities send high priority messages ahead of or alongside queued normal priority
+   * messages. By default, the priority is ignored and the message is sent via {@link #send(Object)}.
+   *
+   * @param message The message to send.
+   * @param priority The message priority.
+   * @return A completable future to be completed once the message has been sent.
+   * @throws NullPointerException if {@code message} is null
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default CompletableFuture<Void> send(Object message, Priority priority) {
+    return send(message);
+  }
+
+  /**
+   * Sends a message to the other side of the connection with the given priority.
+   * <p>
+   * Connections that support priorities send high priority messages ahead of or alongside queued normal priority
+   * messages. By default, the priority is ignored and the message is sent via {@link #sendAndReceive(Object)}.
+   *
+   * @param message The message to send.
+   * @param priority The message priority.
+   * @param <T> The message type.
+   * @param <U> The reply type.
+   * @return A completable future to be completed with the response.
+   * @throws NullPointerException if {@code message} is null
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default <T, U> CompletableFuture<U> sendAndReceive(T message, Priority priority) {
+    return sendAndReceive(message);
+  }
+
+  /**
+   * Sends a message to the other side of the connection with the given timeout.
+   * <p>
+   * Connections that time out requests use the given timeout in place of the connection's request timeout. By
+   * default, the timeout is ignored and the message is sent via {@link #sendAndReceive(Object)}.
+   *
+   * @param message The message to send.
+   * @param timeout The request timeout in milliseconds.
+   * @param <T> The message type.
+   * @param <U> The reply type.
+   * @return A completable future to be completed with the response.
+   * @throws NullPointerException if {@code message} is null
+   * @throws IllegalArgumentException if {@code timeout} is not positive
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default <T, U> CompletableFuture<U> sendAndReceive(T message, long timeout) {
+    return sendAndReceive(message);
+  }
+
+  /**
+   * Sends a batch of messages to the other side of the connection.
+   * <p>
+   * Each message in the batch is handled as if it were sent via {@link #sendAndReceive(Object)}, and the returned
+   * list contains a reply future for each message in the order in which the messages were provided. Implementations
+   * may send the batch to the other side of the connection in a single write, so batching many small messages can
+   * significantly reduce per-message overhead.
+   * <p>
+   * {@link Connection} implementations must guarantee that all reply
+   * {@link java.util.concurrent.CompletableFuture futures} will be completed in the same
+   * {@link CatalystThread Catalyst thread}.
+   *
+   * @param messages The messages to send.
+   * @param <T> The message type.
+   * @param <U> The reply type.
+   * @return A list of completable futures to be completed with the responses.
+   * @throws NullPointerException if {@code messages} or any message is null
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default <T, U> List<CompletableFuture<U>> sendAndReceiveAll(List<T> messages) {
+    List<CompletableFuture<U>> futures = new ArrayList<>(messages.size());
+    for (T message : messages) {
+      futures.add(sendAndReceive(message));
+    }
+    return futures;
+  }
+
+  /**
+   * Streams data to the other side of the connection.
+   * <p>
+   * The stream is opened with the given message, which is dispatched to the
+   * {@link #streamHandler(Class, Function) stream handler} registered for its type on the other side of the
+   * connection. The data is then read from the input stream on the calling thread and sent in chunks, so streams
+   * are neither buffered in memory as a whole nor limited by the maximum size of a message. Implementations
+   * limit the number of chunks that have been sent but not yet consumed by the receiver. The input stream is
+   * closed once the stream is complete or has failed.
+   * <p>
+   * The returned future is completed once the receiver has consumed the entire stream. By default, streaming
+   * is not supported and the returned future is failed.
+   *
+   * @param message The message with which to open the stream.
+   * @param data The data to stream.
+   * @return A completable future to be completed once the stream has been received.
+   * @throws NullPointerException if {@code message} or {@code data} is null
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default CompletableFuture<Void> stream(Object message, InputStream data) {
+    return Futures.exceptionalFuture(new UnsupportedOperationException("streaming not supported"));
+  }
+
+  /**
+   * Streams the readable bytes of a buffer to the other side of the connection.
+   * <p>
+   * This is useful for sending large {@link io.atomix.catalyst.buffer.FileBuffer file buffers} without copying
+   * them into a single message. See {@link #stream(Object, InputStream)}.
+   *
+   * @param message The message with which to open the stream.
+   * @param data The buffer to stream.
+   * @return A completable future to be completed once the stream has been received.
+   * @throws NullPointerException if {@code message} or {@code data} is null
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default CompletableFuture<Void> stream(Object message, Buffer data) {
+    return stream(message, new BufferInputStream(Assert.notNull(data, "data")));
+  }
+
+  /**
+   * Sets a stream handler on the connection.
+   * <p>
+   * The stream handler is invoked each time a stream is opened with a message of the given type, and must return
+   * a {@link StreamListener} to receive the data of the stream. All listener methods are called on the current
+   * thread. By default, streaming is not supported.
+   *
+   * @param type The type of message with which streams are opened.
+   * @param handler The type-specific stream handler.
+   * @param <T> The message type.
+   * @return The connection.
+   * @throws NullPointerException if {@code type} is null
+   * @throws IllegalStateException if not called from a Catalyst thread
+   * @throws UnsupportedOperationException if the connection does not support streaming
+   */
+  default <T> Connection streamHandler(Class<T> type, Function<T, StreamListener> handler) {
+    throw new UnsupportedOperationException("streaming not supported");
+  }
+
   /**
    * Sets a message handler on the connection.
    * <p>
@@ -159,6 +304,44 @@ public interface Connection {
    */
   Listener<Connection> onClose(Consumer<Connection> listener);
 
+  /**
+   * Returns a boolean indicating whether the connection can accept more messages without queueing them.
+   * <p>
+   * Connections may become unwritable when the peer does not keep up, for instance when outbound data exceeds
+   * a buffer limit or when too many requests are awaiting responses. Callers that send at high rates should
+   * throttle via {@link #awaitWritable()} rather than queueing messages without bound.
+   *
+   * @return Indicates whether the connection is writable.
+   */
+  default boolean isWritable() {
+    return true;
+  }
+
+  /**
+   * Returns a future to be completed once the connection is writable.
+   * <p>
+   * If the connection is already writable, the returned future is already completed. If the connection is
+   * closed before it becomes writable, the returned future is failed.
+   *
+   * @return A completable future to be completed once the connection is writable.
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default CompletableFuture<Void> awaitWritable() {
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Returns the metrics for the connection.
+   *
+   * <p>
+   * Implementations that do not record metrics return empty metrics.
+   *
+   * @return The connection metrics.
+   */
+  default TransportMetrics metrics() {
+    return new TransportMetrics();
+  }
+
   /**
    * Closes the connection.
    * <p>
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+/**
+ * Request deadline.
+ * <p>
+ * Transports that propagate request deadlines expose the deadline of the request being handled to message
+ * handlers via {@link #current()}. The current deadline is only available while the handler is being called,
+ * so handlers that complete asynchronously should capture it before returning:
+ * <pre>
+ *   {@code
+ *   connection.handler(QueryRequest.class, request -> {
+ *     Deadline deadline = Deadline.current();
+ *     if (deadline != null && deadline.remaining() < MIN_QUERY_TIME) {
+ *       return Futures.exceptionalFuture(new TimeoutException());
+ *     }
+ *     return query(request);
+ *   });
+ *   }
+ * </pre>
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class Deadline {
+  private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+  /**
+   * Returns the deadline of the request being handled on the current thread.
+   *
+   * @return The deadline of the request being handled or {@code null} if the request has no deadline.
+   */
+  public static Deadline current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * Sets the deadline of the request being handled on the current thread.
+   * <p>
+   * This method is intended to be called by transport implementations around calls to message handlers.
+   *
+   * @param deadline The deadline of the request being handled, or {@code null} if the request has no deadline.
+   * @return The previous deadline of the current thread.
+   */
+  public static Deadline set(Deadline deadline) {
+    Deadline previous = CURRENT.get();
+    if (deadline != null) {
+      CURRENT.set(deadline);
+    } else if (previous != null) {
+      CURRENT.remove();
+    }
+    return previous;
+  }
+
+  private final long time;
+
+  /**
+   * @param time The deadline as a {@link System#currentTimeMillis()} timestamp.
+   */
+  public Deadline(long time) {
+    this.time = time;
+  }
+
+  /**
+   * Returns the deadline as a {@link System#currentTimeMillis()} timestamp.
+   *
+   * @return The deadline time.
+   */
+  public long time() {
+    return time;
+  }
+
+  /**
+   * Returns the time remaining until the deadline.
+   *
+   * @return The time remaining in milliseconds, or {@code 0} if the deadline has passed.
+   */
+  public long remaining() {
+    return Math.max(time - System.currentTimeMillis(), 0);
+  }
+
+  /**
+   * Returns a boolean indicating whether the deadline has passed.
+   *
+   * @return Indicates whether the deadline has passed.
+   */
+  public boolean isExpired() {
+    return System.currentTimeMillis() >= time;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[time=%d]", getClass().getSimpleName(), time);
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Concurrent latency histogram.
+ * <p>
+ * Values are recorded in log-linear buckets: each power of two is divided into 32 linear sub-buckets, so recorded
+ * values are tracked with a relative error of about 3%. Values below 32 are tracked exactly, and values larger
+ * than 2<sup>40</sup> are recorded in the highest bucket. Recording a value is a constant time operation that does
+ * not allocate, so histograms are cheap enough to record every request.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public final class LatencyHistogram {
+  private static final int SUB_BUCKET_BITS = 5;
+  private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+  private static final int MAX_EXPONENT = 40;
+  private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+  private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+  private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+  private final LongAdder count = new LongAdder();
+  private final LongAdder sum = new LongAdder();
+  private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Returns the bucket index for the given value.
+   */
+  private static int index(long value) {
+    if (value < SUB_BUCKETS) {
+      return (int) value;
+    }
+    int exponent = 63 - Long.numberOfLeadingZeros(value);
+    int shift = exponent - SUB_BUCKET_BITS;
+    return ((shift + 1) << SUB_BUCKET_BITS) + (int) ((value >>> shift) - SUB_BUCKETS);
+  }
+
+  /**
+   * Returns the highest value that is recorded in the given bucket.
+   */
+  private static long highestValue(int index) {
+    if (index < SUB_BUCKETS) {
+      return index;
+    }
+    int shift = (index >>> SUB_BUCKET_BITS) - 1;
+    long mantissa = (index & (SUB_BUCKETS - 1)) + SUB_BUCKETS;
+    return ((mantissa + 1) << shift) - 1;
+  }
+
+  /**
+   * Records a value.
+   *
+   * @param value The value to record. Negative values are recorded as {@code 0}.
+   */
+  public void record(long value) {
+    long clamped = Math.min(Math.max(value, 0), MAX_VALUE);
+    counts.incrementAndGet(index(clamped));
+    count.increment();
+    sum.add(clamped);
+    max.accumulate(clamped);
+  }
+
+  /**
+   * Returns the number of recorded values.
+   *
+   * @return The number of recorded values.
+   */
+  public long count() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the mean of all recorded values.
+   *
+   * @return The mean of all recorded values or {@code 0} if no values have been recorded.
+   */
+  public double mean() {
+    long count = this.count.sum();
+    return count > 0 ? sum.sum() / (double) count : 0;
+  }
+
+  /**
+   * Returns the maximum recorded value.
+   *
+   * @return The maximum recorded value or {@code 0} if no values have been recorded.
+   */
+  public long max() {
+    return max.get();
+  }
+
+  /**
+   * Returns the value at the given percentile.
+   * <p>
+   * The returned value is the highest value that is equivalent to the value at the given percentile
+   * within the precision of the histogram.
+   *
+   * @param percentile The percentile in the range {@code [0, 100]}.
+   * @return The value at the given percentile or {@code 0} if no values have been recorded.
+   * @throws IllegalArgumentException if {@code percentile} is not in the range {@code [0, 100]}
+   */
+  public long percentile(double percentile) {
+    if (percentile < 0 || percentile > 100)
+      throw new IllegalArgumentException("percentile must be in the range [0, 100]");
+
+    long total = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      total += counts.get(i);
+    }
+    if (total == 0) {
+      return 0;
+    }
+
+    long target = Math.max((long) Math.ceil(total * (percentile / 100)), 1);
+    long seen = 0;
+    for (int i = 0; i < BUCKETS; i++) {
+      seen += counts.get(i);
+      if (seen >= target) {
+        return Math.min(highestValue(i), max());
+      }
+    }
+    return max();
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[count=%d, mean=%.1f, p50=%d, p99=%d, max=%d]", getClass().getSimpleName(), count(), mean(), percentile(50), percentile(99), max());
+  }
+
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+/**
+ * Message priority.
+ * <p>
+ * Transports that support priorities may send messages of different priorities over separate lanes so that
+ * small, latency sensitive messages such as heartbeats are not queued behind large messages.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public enum Priority {
+
+  /**
+   * High priority for small, latency sensitive messages.
+   */
+  HIGH,
+
+  /**
+   * Normal priority for all other messages.
+   */
+  NORMAL
+
+}
@@ -43,6 +43,18 @@ public interface Server {
    */
   CompletableFuture<Void> listen(Address address, Consumer<Connection> listener);
 
+  /**
+   * Returns the metrics for the server, aggregated across all connections accepted by the server.
+   *
+   * <p>
+   * Implementations that do not record metrics return empty metrics.
+   *
+   * @return The server metrics.
+   */
+  default TransportMetrics metrics() {
+    return new TransportMetrics();
+  }
+
   /**
    * Closes the server.
    * <p>
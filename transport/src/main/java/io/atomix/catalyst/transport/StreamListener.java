@@ -0,0 +1,59 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+import io.atomix.catalyst.buffer.Buffer;
+
+/**
+ * Receives the data of a stream sent via {@link Connection#stream(Object, java.io.InputStream)}.
+ * <p>
+ * Stream listeners are created by the {@link Connection#streamHandler(Class, java.util.function.Function) stream handler}
+ * registered for the type of the message that opened the stream, and all methods are called on the thread on
+ * which the stream handler was registered. The sender only sends more data once previous chunks have been
+ * consumed, so a listener that is slow to consume chunks slows down the sender rather than buffering the stream
+ * in memory.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public interface StreamListener {
+
+  /**
+   * Called with the next chunk of the stream.
+   * <p>
+   * If this method throws an exception, the stream is failed on both sides and no more chunks are received.
+   * <p>
+   * The chunk may share memory with the transport's receive buffers and is only valid until this method returns.
+   * Listeners that need the data afterwards must copy it.
+   *
+   * @param chunk The next chunk of the stream.
+   */
+  void onChunk(Buffer chunk);
+
+  /**
+   * Called once all chunks of the stream have been received.
+   * <p>
+   * The sender's stream future is completed once this method returns, or failed if this method throws an exception.
+   */
+  void onComplete();
+
+  /**
+   * Called if the stream is aborted by the sender or the connection is closed before the stream is complete.
+   *
+   * @param error The stream error.
+   */
+  void onError(Throwable error);
+
+}
@@ -15,7 +15,13 @@
  */
 package io.atomix.catalyst.transport;
 
+import io.atomix.catalyst.util.Assert;
 import io.atomix.catalyst.util.Builder;
+import io.atomix.catalyst.util.reference.ReferenceCounted;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Transport provider.
@@ -46,6 +52,40 @@ public interface Transport extends AutoCloseable {
    */
   Server server();
 
+  /**
+   * Sends a message to each of the given connections.
+   * <p>
+   * This is equivalent to calling {@link Connection#sendAndReceive(Object)} on each connection, but transports
+   * may serialize the message only once and share the serialized bytes among all connections. The returned list
+   * contains a reply future for each connection in the order in which the connections were provided.
+   * <p>
+   * If the message is {@link ReferenceCounted}, a single reference to the message is released once it has been
+   * sent to all connections, just as if it had been sent to a single connection.
+   *
+   * @param connections The connections to which to send the message.
+   * @param message The message to send.
+   * @param <T> The message type.
+   * @param <U> The reply type.
+   * @return A list of completable futures to be completed with the responses.
+   * @throws NullPointerException if {@code connections} or {@code message} is null
+   * @throws IllegalStateException if not called from a Catalyst thread
+   */
+  default <T, U> List<CompletableFuture<U>> broadcast(List<Connection> connections, T message) {
+    Assert.notNull(connections, "connections");
+    Assert.notNull(message, "message");
+    List<CompletableFuture<U>> futures = new ArrayList<>(connections.size());
+    for (Connection connection : connections) {
+      if (message instanceof ReferenceCounted) {
+        ((ReferenceCounted<?>) message).acquire();
+      }
+      futures.add(connection.sendAndReceive(message));
+    }
+    if (message instanceof ReferenceCounted) {
+      ((ReferenceCounted<?>) message).release();
+    }
+    return futures;
+  }
+
   /**
    * Closes the transport.
    */
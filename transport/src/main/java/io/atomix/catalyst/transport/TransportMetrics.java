@@ -0,0 +1,309 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Transport metrics.
+ * <p>
+ * Metrics are exposed by {@link Connection#metrics() connections}, {@link Server#metrics() servers} and
+ * {@link Client#metrics() clients}. Metrics may have a parent to which all recorded values are propagated,
+ * so the metrics of a server or client aggregate the metrics of all the connections it has opened, including
+ * connections that have since been closed.
+ * <p>
+ * Counters are backed by {@link LongAdder}s and request latencies by a {@link LatencyHistogram}, so recording
+ * metrics does not allocate or contend between threads. The {@code record*} methods are intended to be called
+ * by transport implementations.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+public class TransportMetrics {
+  private final TransportMetrics parent;
+  private final LongAdder bytesIn = new LongAdder();
+  private final LongAdder bytesOut = new LongAdder();
+  private final LongAdder messagesIn = new LongAdder();
+  private final LongAdder messagesOut = new LongAdder();
+  private final LongAdder inFlightRequests = new LongAdder();
+  private final LongAdder timeouts = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder expired = new LongAdder();
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final Map<Class<?>, LongAdder> messageTypes = new ConcurrentHashMap<>();
+
+  public TransportMetrics() {
+    this(null);
+  }
+
+  /**
+   * @param parent The parent metrics to which to propagate recorded values, or {@code null} if the metrics have no parent.
+   */
+  public TransportMetrics(TransportMetrics parent) {
+    this.parent = parent;
+  }
+
+  /**
+   * Returns the number of bytes received.
+   *
+   * @return The number of bytes received.
+   */
+  public long bytesIn() {
+    return bytesIn.sum();
+  }
+
+  /**
+   * Returns the number of bytes sent.
+   *
+   * @return The number of bytes sent.
+   */
+  public long bytesOut() {
+    return bytesOut.sum();
+  }
+
+  /**
+   * Returns the number of requests, responses and one-way messages received.
+   *
+   * @return The number of messages received.
+   */
+  public long messagesIn() {
+    return messagesIn.sum();
+  }
+
+  /**
+   * Returns the number of requests, responses and one-way messages sent.
+   *
+   * @return The number of messages sent.
+   */
+  public long messagesOut() {
+    return messagesOut.sum();
+  }
+
+  /**
+   * Returns the number of requests awaiting a response.
+   *
+   * @return The number of requests awaiting a response.
+   */
+  public long inFlightRequests() {
+    return inFlightRequests.sum();
+  }
+
+  /**
+   * Returns the number of requests that timed out.
+   *
+   * @return The number of requests that timed out.
+   */
+  public long timeouts() {
+    return timeouts.sum();
+  }
+
+  /**
+   * Returns the number of requests that failed for any reason other than a timeout.
+   *
+   * @return The number of failed requests.
+   */
+  public long failures() {
+    return failures.sum();
+  }
+
+  /**
+   * Returns the number of received requests and messages rejected because the receiver was overloaded.
+   *
+   * @return The number of rejected requests and messages.
+   */
+  public long rejected() {
+    return rejected.sum();
+  }
+
+  /**
+   * Returns the number of received requests dropped because their deadline passed before they were handled.
+   *
+   * @return The number of expired requests.
+   */
+  public long expired() {
+    return expired.sum();
+  }
+
+  /**
+   * Returns the histogram of request round trip latencies in nanoseconds.
+   *
+   * @return The request latency histogram.
+   */
+  public LatencyHistogram latency() {
+    return latency;
+  }
+
+  /**
+   * Returns the number of messages received for the given handler type.
+   *
+   * @param type The handler type.
+   * @return The number of messages received for the given handler type.
+   */
+  public long messageCount(Class<?> type) {
+    LongAdder count = messageTypes.get(type);
+    return count != null ? count.sum() : 0;
+  }
+
+  /**
+   * Returns a snapshot of the number of messages received for each handler type.
+   *
+   * @return A map of handler types to the number of messages received for the type.
+   */
+  public Map<Class<?>, Long> messageCounts() {
+    Map<Class<?>, Long> counts = new HashMap<>(messageTypes.size());
+    for (Map.Entry<Class<?>, LongAdder> entry : messageTypes.entrySet()) {
+      counts.put(entry.getKey(), entry.getValue().sum());
+    }
+    return counts;
+  }
+
+  /**
+   * Records bytes received.
+   *
+   * @param bytes The number of bytes received.
+   */
+  public void recordBytesIn(long bytes) {
+    bytesIn.add(bytes);
+    if (parent != null) {
+      parent.recordBytesIn(bytes);
+    }
+  }
+
+  /**
+   * Records bytes sent.
+   *
+   * @param bytes The number of bytes sent.
+   */
+  public void recordBytesOut(long bytes) {
+    bytesOut.add(bytes);
+    if (parent != null) {
+      parent.recordBytesOut(bytes);
+    }
+  }
+
+  /**
+   * Records a message received.
+   */
+  public void recordMessageIn() {
+    messagesIn.increment();
+    if (parent != null) {
+      parent.recordMessageIn();
+    }
+  }
+
+  /**
+   * Records messages sent.
+   *
+   * @param messages The number of messages sent.
+   */
+  public void recordMessagesOut(int messages) {
+    messagesOut.add(messages);
+    if (parent != null) {
+      parent.recordMessagesOut(messages);
+    }
+  }
+
+  /**
+   * Records a message dispatched to the handler for the given type.
+   *
+   * @param type The handler type.
+   */
+  public void recordMessageType(Class<?> type) {
+    LongAdder count = messageTypes.get(type);
+    if (count == null) {
+      count = messageTypes.computeIfAbsent(type, t -> new LongAdder());
+    }
+    count.increment();
+    if (parent != null) {
+      parent.recordMessageType(type);
+    }
+  }
+
+  /**
+   * Records a request sent.
+   */
+  public void recordRequest() {
+    inFlightRequests.increment();
+    if (parent != null) {
+      parent.recordRequest();
+    }
+  }
+
+  /**
+   * Records a response received for a request.
+   *
+   * @param latency The request round trip latency in nanoseconds.
+   */
+  public void recordResponse(long latency) {
+    inFlightRequests.decrement();
+    this.latency.record(latency);
+    if (parent != null) {
+      parent.recordResponse(latency);
+    }
+  }
+
+  /**
+   * Records a request timeout.
+   */
+  public void recordTimeout() {
+    inFlightRequests.decrement();
+    timeouts.increment();
+    if (parent != null) {
+      parent.recordTimeout();
+    }
+  }
+
+  /**
+   * Records a request failure.
+   */
+  public void recordFailure() {
+    inFlightRequests.decrement();
+    failures.increment();
+    if (parent != null) {
+      parent.recordFailure();
+    }
+  }
+
+  /**
+   * Records a received request or message rejected because the receiver was overloaded.
+   */
+  public void recordRejected() {
+    rejected.increment();
+    if (parent != null) {
+      parent.recordRejected();
+    }
+  }
+
+  /**
+   * Records a received request dropped because its deadline passed before it was handled.
+   */
+  public void recordExpired() {
+    expired.increment();
+    if (parent != null) {
+      parent.recordExpired();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s[bytesIn=%d, bytesOut=%d, messagesIn=%d, messagesOut=%d, inFlightRequests=%d, timeouts=%d, failures=%d, rejected=%d, expired=%d, latency=%s]",
+      getClass().getSimpleName(), bytesIn(), bytesOut(), messagesIn(), messagesOut(), inFlightRequests(), timeouts(), failures(), rejected(), expired(), latency);
+  }
+
+}
@@ -1,9 +1,14 @@
 package io.atomix.catalyst.transport;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertSame;
 
 import org.testng.annotations.Test;
 
+import java.net.InetSocketAddress;
+
 @Test
 public class AddressTest {
   public void shouldConstructFromString() {
@@ -21,4 +26,26 @@ public class AddressTest {
   public void shouldThrowOnInvalidPort() {
     new Address("localhost:foo");
   }
+
+  public void shouldEqualByHostAndPort() {
+    Address address = new Address("localhost", 5000);
+    assertEquals(address, new Address("localhost:5000"));
+    assertEquals(address.hashCode(), new Address("localhost:5000").hashCode());
+    assertEquals(address.toString(), "localhost:5000");
+  }
+
+  public void shouldEqualWithoutResolving() {
+    Address address = new Address("unresolvable.invalid", 5000);
+    assertEquals(address, new Address("unresolvable.invalid:5000"));
+    assertEquals(address.hashCode(), new Address("unresolvable.invalid:5000").hashCode());
+    assertNotEquals(address, new Address("unresolvable.invalid", 5001));
+  }
+
+  public void shouldResolveLazily() {
+    Address address = new Address("localhost", 5000);
+    InetSocketAddress socketAddress = address.resolve().join();
+    assertFalse(socketAddress.isUnresolved());
+    assertEquals(socketAddress.getPort(), 5000);
+    assertSame(address.socketAddress(), socketAddress);
+  }
 }
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2016 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.catalyst.transport;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.*;
+
+/**
+ * Latency histogram test.
+ *
+ * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
+ */
+@Test
+public class LatencyHistogramTest {
+
+  /**
+   * Tests an empty histogram.
+   */
+  public void testEmpty() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    assertEquals(histogram.count(), 0);
+    assertEquals(histogram.mean(), 0d);
+    assertEquals(histogram.percentile(99), 0);
+  }
+
+  /**
+   * Tests histogram percentiles.
+   */
+  public void testPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (long i = 1; i <= 10000; i++) {
+      histogram.record(i * 1000);
+    }
+    assertEquals(histogram.count(), 10000);
+    assertEquals(histogram.max(), 10000000);
+    assertEquals(histogram.mean(), 5000500d);
+
+    assertEquals(histogram.percentile(50), 5000000, 5000000 * 0.04);
+    assertEquals(histogram.percentile(99), 9900000, 9900000 * 0.04);
+    assertEquals(histogram.percentile(100), 10000000);
+  }
+
+  /**
+   * Tests that transport metrics are propagated to the parent.
+   */
+  public void testParentMetrics() {
+    TransportMetrics parent = new TransportMetrics();
+    TransportMetrics metrics = new TransportMetrics(parent);
+    metrics.recordRequest();
+    metrics.recordRequest();
+    metrics.recordResponse(1000);
+    metrics.recordTimeout();
+    metrics.recordMessageType(String.class);
+
+    assertEquals(parent.inFlightRequests(), 0);
+    assertEquals(parent.timeouts(), 1);
+    assertEquals(parent.latency().count(), 1);
+    assertEquals(parent.messageCount(String.class), 1);
+    assertEquals(metrics.messageCount(Integer.class), 0);
+  }
+
+}